@@ -0,0 +1,95 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.utils.AgreementJournal;
+import com.example.aalittle.ToolRental.utils.MoneyUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures agreements per second appended by concurrent request threads, waiting for the shared fsync or not
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class AgreementJournalBenchmark {
+
+    @Param({"false", "true"})
+    private boolean waitForSync;
+
+    private Path directory;
+    private AgreementJournal agreementJournal;
+    private RentalAgreement rentalAgreement;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("agreement-journal");
+        agreementJournal = AgreementJournal.open(directory.resolve("agreements.journal"), 8192, 256, 100_000);
+        rentalAgreement = agreement();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        agreementJournal.close();
+        deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Object append() {
+        CompletableFuture<Long> written = agreementJournal.append(rentalAgreement);
+        return waitForSync ? written.join() : written;
+    }
+
+    static RentalAgreement agreement() {
+        return RentalAgreement.builder()
+                .toolCode(ToolCodeEnum.JAKD)
+                .toolType(ToolTypeEnum.JACKHAMMER)
+                .toolBrand(ToolBrandEnum.DEWALT)
+                .rentalDays(6)
+                .checkoutDate(LocalDate.of(2015, 9, 3))
+                .dueDate(LocalDate.of(2015, 9, 9))
+                .dailyCharge(BigDecimal.valueOf(2.99))
+                .chargeableDays(3)
+                .subTotal(new BigDecimal("8.97"))
+                .discountPercent(MoneyUtils.toDisplayPercent(0))
+                .discountAmount(new BigDecimal("0.00"))
+                .discountCharge(new BigDecimal("8.97")).build();
+    }
+
+    static void deleteDirectory(final Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.utils.AgreementJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a journal of 10 million agreements, replaying all of it or only the tail after a snapshot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AgreementJournalRecoveryBenchmark {
+
+    @Param({"10000000"})
+    private int recordCount;
+
+    @Param({"false", "true"})
+    private boolean fromSnapshot;
+
+    private Path directory;
+    private Path journalPath;
+    private Path snapshotPath;
+    private AgreementJournal agreementJournal;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        directory = Files.createTempDirectory("agreement-journal");
+        journalPath = directory.resolve("agreements.journal");
+        snapshotPath = directory.resolve("agreements.journal.snapshot");
+        RentalAgreement rentalAgreement = AgreementJournalBenchmark.agreement();
+        try (AgreementJournal writer = AgreementJournal.open(journalPath, 65536, 4096, Long.MAX_VALUE)) {
+            CompletableFuture<Long> written = null;
+            for (int i = 0; i < recordCount; i++) {
+                written = writer.append(rentalAgreement);
+            }
+            written.join();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void removeSnapshot() throws IOException {
+        //Closing the journal leaves a snapshot behind, without it every record is replayed
+        if (!fromSnapshot) {
+            Files.deleteIfExists(snapshotPath);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeJournal() throws IOException {
+        agreementJournal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        AgreementJournalBenchmark.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public long open() throws IOException {
+        agreementJournal = AgreementJournal.open(journalPath, 1024, 256, Long.MAX_VALUE);
+        return agreementJournal.getSummary().getRecordCount();
+    }
+}
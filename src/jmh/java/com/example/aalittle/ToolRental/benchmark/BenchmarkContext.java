@@ -0,0 +1,29 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.ToolRentalApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.stream.Stream;
+
+/**
+ * Starts the application without a web server so benchmarks measure the same beans the API uses
+ */
+public class BenchmarkContext {
+
+    /**
+     * @param properties extra properties in key=value form, these override application.properties
+     * @return a started {@link ConfigurableApplicationContext}, close it in the benchmark tear down
+     */
+    public static ConfigurableApplicationContext start(final String... properties) {
+        //Console output of every agreement would swamp what is being measured
+        String[] args = Stream.concat(Stream.of("tool-rental.agreement-audit.enabled=false"), Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ToolRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+}
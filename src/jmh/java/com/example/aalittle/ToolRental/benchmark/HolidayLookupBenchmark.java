@@ -0,0 +1,56 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.model.ObservedHoliday;
+import com.example.aalittle.ToolRental.service.HolidayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures holiday lookups over short, month long and decade long ranges
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HolidayLookupBenchmark {
+
+    @Param({"3", "30", "3650"})
+    private int rangeDays;
+
+    private HolidayService holidayService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        holidayService = new HolidayService();
+        startDate = LocalDate.of(2020, 7, 2);
+        endDate = startDate.plusDays(rangeDays);
+    }
+
+    @Benchmark
+    public Set<ObservedHoliday> findHolidaysInRange() {
+        return holidayService.findHolidaysInRange(startDate, endDate);
+    }
+
+    @Benchmark
+    public int countHolidaysInRange() {
+        return holidayService.countHolidaysInRange(startDate, endDate);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson reading and writing of the API payloads with the application's {@link ObjectMapper}.
+ * {@link RentalAgreement} is only ever written by the API so it has no read benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonRoundTripBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private RentalTerm rentalTerm;
+    private String rentalTermJson;
+    private RentalAgreement rentalAgreement;
+
+    @Setup(Level.Trial)
+    public void setup() throws JsonProcessingException {
+        context = BenchmarkContext.start();
+        objectMapper = context.getBean(ObjectMapper.class);
+        rentalTerm = new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 3, 10);
+        rentalTermJson = objectMapper.writeValueAsString(rentalTerm);
+        rentalAgreement = context.getBean(ToolRentalCalculationService.class).calculateToolRental(rentalTerm);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RentalTerm readRentalTerm() throws JsonProcessingException {
+        return objectMapper.readValue(rentalTermJson, RentalTerm.class);
+    }
+
+    @Benchmark
+    public String writeRentalTerm() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(rentalTerm);
+    }
+
+    @Benchmark
+    public String writeRentalAgreement() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(rentalAgreement);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.LateFeeReport;
+import com.example.aalittle.ToolRental.model.Reservation;
+import com.example.aalittle.ToolRental.service.LateFeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LateFeeService#calculateLateFees(List, LocalDate)} over 100 thousand and 5 million reservations
+ * of every tool, each up to a year overdue, against pricing them one at a time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+public class LateFeeBenchmark {
+
+    private static final LocalDate AS_OF_DATE = LocalDate.of(2027, 1, 10);
+
+    @Param({"100000", "5000000"})
+    private int overdueCount;
+
+    private ConfigurableApplicationContext context;
+    private LateFeeService lateFeeService;
+    private List<Reservation> reservations;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        lateFeeService = context.getBean(LateFeeService.class);
+        Random random = new Random(23);
+        ToolCodeEnum[] toolCodes = ToolCodeEnum.values();
+        reservations = new ArrayList<>(overdueCount);
+        for (int i = 0; i < overdueCount; i++) {
+            LocalDate dueDate = AS_OF_DATE.minusDays(1 + random.nextInt(365));
+            reservations.add(Reservation.builder()
+                    .reservationId(i)
+                    .toolCode(toolCodes[random.nextInt(toolCodes.length)])
+                    .unitNumber(1)
+                    .checkoutDate(dueDate.minusDays(1 + random.nextInt(14)))
+                    .dueDate(dueDate).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LateFeeReport bulk() {
+        return lateFeeService.calculateLateFees(reservations, AS_OF_DATE);
+    }
+
+    @Benchmark
+    public long oneAtATime() {
+        long lateDays = 0;
+        for (Reservation reservation : reservations) {
+            lateDays += lateFeeService.calculateLateFee(reservation, AS_OF_DATE).getLateDays();
+        }
+        return lateDays;
+    }
+}
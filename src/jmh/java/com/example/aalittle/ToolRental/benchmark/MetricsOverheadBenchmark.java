@@ -0,0 +1,60 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the pipeline metrics cost per quote by running the uncached quote path with metrics off and on
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean metricsEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ToolRentalCalculationService toolRentalCalculationService;
+    private RentalTerm rentalTerm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("tool-rental.metrics.enabled=" + metricsEnabled,
+                "tool-rental.quote-cache.enabled=false");
+        toolRentalCalculationService = context.getBean(ToolRentalCalculationService.class);
+        rentalTerm = new RentalTerm(ToolCodeEnum.JAKD, LocalDate.of(2020, 7, 2), 30, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RentalAgreement calculateToolRental() {
+        return toolRentalCalculationService.calculateToolRental(rentalTerm);
+    }
+}
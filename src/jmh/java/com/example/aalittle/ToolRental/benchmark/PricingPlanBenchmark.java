@@ -0,0 +1,58 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.utils.PricingPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PricingPlan#evaluate(long[])} for a tool without pricing rules and for a tool with every kind of
+ * rule, gc.alloc.rate.norm should stay at 0 for both
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingPlanBenchmark {
+
+    @Param({"none", "WEEKEND_MULTIPLIER:1.5;HOLIDAY_SURCHARGE:5.00;LONG_RENTAL_DISCOUNT:7:5;"
+            + "LONG_RENTAL_DISCOUNT:14:10;LONG_RENTAL_DISCOUNT:28:15;MINIMUM_CHARGE:4.99"})
+    private String pricingRules;
+
+    private PricingPlan pricingPlan;
+    private final long[] registers = new long[PricingPlan.REGISTER_COUNT];
+    private int rentalDays;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pricingPlan = PricingPlan.compile(199, "none".equals(pricingRules) ? List.of()
+                : PricingPlan.parseRules(pricingRules));
+        registers[PricingPlan.DISCOUNT_PERCENT] = 10;
+    }
+
+    @Benchmark
+    public long evaluate() {
+        //Walk through rental lengths so every tier is taken and the JIT can not fold the result
+        rentalDays = rentalDays == 40 ? 1 : rentalDays + 1;
+        registers[PricingPlan.RENTAL_DAYS] = rentalDays;
+        registers[PricingPlan.CHARGEABLE_DAYS] = rentalDays - rentalDays / 7;
+        registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = rentalDays / 7;
+        registers[PricingPlan.CHARGEABLE_HOLIDAYS] = rentalDays / 30;
+        pricingPlan.evaluate(registers);
+        return registers[PricingPlan.SUB_TOTAL] - registers[PricingPlan.DISCOUNT];
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ToolRentalCalculationService#calculateToolRental(RentalTerm)} for every tool
+ * over short, month long and decade long rentals, with and without the quote cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteCalculationBenchmark {
+
+    @Param({"CHNS", "LADW", "JAKD", "JAKR"})
+    private ToolCodeEnum toolCode;
+
+    @Param({"3", "30", "3650"})
+    private int rentalDayCount;
+
+    @Param({"false", "true"})
+    private boolean quoteCacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ToolRentalCalculationService toolRentalCalculationService;
+    private RentalTerm rentalTerm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("tool-rental.quote-cache.enabled=" + quoteCacheEnabled);
+        toolRentalCalculationService = context.getBean(ToolRentalCalculationService.class);
+        //Thursday before the observed July 4th, every rental crosses a weekend and a holiday
+        rentalTerm = new RentalTerm(toolCode, LocalDate.of(2020, 7, 2), rentalDayCount, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RentalAgreement calculateToolRental() {
+        return toolRentalCalculationService.calculateToolRental(rentalTerm);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures quotes per second when 8 threads all ask for the same uncached quote at once, the case quote coalescing
+ * is for, with coalescing off and on. All threads share the CPUs, so the time per quote on each CPU is the CPU count
+ * over the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class QuoteCoalescingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean quoteCoalescingEnabled;
+
+    @Param({"30", "36500"})
+    private int rentalDayCount;
+
+    private ConfigurableApplicationContext context;
+    private ToolRentalCalculationService toolRentalCalculationService;
+    private RentalTerm rentalTerm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        //The cache is off so every quote is calculated or coalesced, never a cache hit
+        context = BenchmarkContext.start("tool-rental.quote-cache.enabled=false",
+                "tool-rental.quote-coalescing.enabled=" + quoteCoalescingEnabled);
+        toolRentalCalculationService = context.getBean(ToolRentalCalculationService.class);
+        rentalTerm = new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), rentalDayCount, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RentalAgreement calculateToolRental() {
+        return toolRentalCalculationService.calculateToolRental(rentalTerm);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalCsvSummary;
+import com.example.aalittle.ToolRental.service.RentalCsvService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RentalCsvService#priceFile(Path, Path)} over a file of 1 million (about 20 MB) and 100 million
+ * (about 2 GB) rental terms spread over ten years of checkout dates. Rows per second is the row count divided by the
+ * time, the summary of each run is also logged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RentalCsvBenchmark {
+
+    @Param({"1000000", "100000000"})
+    private long rowCount;
+
+    private ConfigurableApplicationContext context;
+    private RentalCsvService rentalCsvService;
+    private Path directory;
+    private Path input;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = BenchmarkContext.start();
+        rentalCsvService = context.getBean(RentalCsvService.class);
+        directory = Files.createTempDirectory("rental-csv-benchmark");
+        input = directory.resolve("terms.csv");
+        output = directory.resolve("agreements.csv");
+        Random random = new Random(24);
+        ToolCodeEnum[] toolCodes = ToolCodeEnum.values();
+        LocalDate firstDate = LocalDate.of(2015, 1, 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(input)) {
+            writer.write("toolCode,checkoutDate,rentalDayCount,discountPercent\n");
+            for (long row = 0; row < rowCount; row++) {
+                LocalDate checkoutDate = firstDate.plusDays(random.nextInt(3650));
+                writer.write(String.format("%s,%02d/%02d/%02d,%d,%d%n", toolCodes[random.nextInt(toolCodes.length)],
+                        checkoutDate.getMonthValue(), checkoutDate.getDayOfMonth(), checkoutDate.getYear() % 100,
+                        1 + random.nextInt(30), random.nextInt(101)));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public RentalCsvSummary priceFile() throws IOException {
+        return rentalCsvService.priceFile(input, output);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.utils.RentalHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures revenue aggregates over a {@link RentalHistory} filled with agreements spread over ten years of checkout
+ * dates. Grouping by tool code over every date scans every row, grouping by date over one year only scans the
+ * segments holding that year.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RentalHistoryBenchmark {
+
+    private static final long FIRST_DAY = 18_000;
+    private static final int DAYS = 3650;
+
+    @Param({"1000000", "50000000"})
+    private int agreementCount;
+
+    private RentalHistory rentalHistory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rentalHistory = new RentalHistory(65536);
+        Random random = new Random(21);
+        ToolCodeEnum[] toolCodes = ToolCodeEnum.values();
+        ToolBrandEnum[] toolBrands = ToolBrandEnum.values();
+        for (int i = 0; i < agreementCount; i++) {
+            //Appended in checkout order as they would be issued
+            int tool = random.nextInt(toolCodes.length);
+            int rentalDays = 1 + random.nextInt(10);
+            long subTotal = 199L * rentalDays;
+            rentalHistory.append(toolCodes[tool], toolBrands[tool], FIRST_DAY + (long) i * DAYS / agreementCount,
+                    rentalDays, subTotal, subTotal * random.nextInt(30) / 100);
+        }
+    }
+
+    @Benchmark
+    public RentalHistory.Totals byToolCode() {
+        return rentalHistory.aggregate(Long.MIN_VALUE, Long.MAX_VALUE, -1, -1, HistoryGroupByEnum.TOOL_CODE,
+                ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public RentalHistory.Totals byBrandForTwoTools() {
+        return rentalHistory.aggregate(Long.MIN_VALUE, Long.MAX_VALUE, 0b0011, -1, HistoryGroupByEnum.TOOL_BRAND,
+                ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public RentalHistory.Totals byDateForOneYear() {
+        return rentalHistory.aggregate(FIRST_DAY + 365, FIRST_DAY + 729, -1, -1, HistoryGroupByEnum.CHECKOUT_DATE,
+                ForkJoinPool.commonPool());
+    }
+}
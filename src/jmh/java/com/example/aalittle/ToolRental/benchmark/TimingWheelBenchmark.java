@@ -0,0 +1,84 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.utils.TimingWheel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures the {@link TimingWheel} behind the overdue tracker holding 10 thousand to 10 million open rentals, each
+ * due within a year. Every rental which expires is scheduled again, so the number of open rentals stays the same.
+ * Scheduling and cancelling is timed per pair, expiring is reported as rentals expired per second through the
+ * {@code expired} counter. Both should stay flat as the number of open rentals grows.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TimingWheelBenchmark {
+
+    private static final long FIRST_DAY = 20_000;
+    private static final int HORIZON_DAYS = 365;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int activeRentals;
+
+    private TimingWheel<Long> timingWheel;
+    private final SplittableRandom random = new SplittableRandom(22);
+    private long day = FIRST_DAY;
+    private Consumer<Long> reschedule;
+
+    /**
+     * Rentals expired during an iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ExpiredRentals {
+        public long expired;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            expired = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        timingWheel = new TimingWheel<>(FIRST_DAY);
+        for (long rental = 0; rental < activeRentals; rental++) {
+            timingWheel.schedule(FIRST_DAY + 1 + random.nextInt(HORIZON_DAYS), rental);
+        }
+        reschedule = rental -> timingWheel.schedule(day + 1 + random.nextInt(HORIZON_DAYS), rental);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void scheduleAndCancel() {
+        TimingWheel.Timer<Long> timer = timingWheel.schedule(day + 1 + random.nextInt(HORIZON_DAYS), -1L);
+        timingWheel.cancel(timer);
+    }
+
+    /// activeRentals / 365 rentals fall due each day, the expired counter divides the time between them
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void expireDay(final ExpiredRentals expiredRentals) {
+        day++;
+        expiredRentals.expired += timingWheel.advanceTo(day, reschedule);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.ToolData;
+import com.example.aalittle.ToolRental.utils.ToolCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures tool lookups as the catalog grows, lookup time should not depend on the catalog size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolCatalogBenchmark {
+
+    private static final int LOOKUP_CODES = 1024;
+
+    @Param({"4", "1000", "100000"})
+    private int toolCount;
+
+    private ToolCatalog toolCatalog;
+    private String[] codes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, ToolData> tools = new LinkedHashMap<>();
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            tools.put(toolCode.name(), toolData());
+        }
+        for (int i = tools.size(); i < toolCount; i++) {
+            tools.put("SKU" + i, toolData());
+        }
+        toolCatalog = ToolCatalog.of(tools, 1);
+        //Cycle through codes spread over the whole catalog so lookups are not served from one cache line
+        String[] allCodes = tools.keySet().toArray(new String[0]);
+        codes = new String[LOOKUP_CODES];
+        for (int i = 0; i < LOOKUP_CODES; i++) {
+            codes[i] = allCodes[(int) ((long) i * 7919 % allCodes.length)];
+        }
+    }
+
+    @Benchmark
+    public ToolData findByCode() {
+        return toolCatalog.find(codes[next++ & (LOOKUP_CODES - 1)]);
+    }
+
+    @Benchmark
+    public ToolData findByToolCode() {
+        return toolCatalog.find(ToolCodeEnum.JAKD);
+    }
+
+    private static ToolData toolData() {
+        return new ToolData(ToolTypeEnum.LADDER, ToolBrandEnum.WERNER, new BigDecimal("1.99"), true, true, false);
+    }
+}
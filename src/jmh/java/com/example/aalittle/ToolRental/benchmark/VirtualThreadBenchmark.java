@@ -0,0 +1,181 @@
+package com.example.aalittle.ToolRental.benchmark;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares request handling on a platform thread pool sized like Tomcat's default with a virtual thread per request.
+ * Each request waits on simulated blocking I/O and then quotes a rental. Throughput is quotes per second for a burst
+ * of requests, memory is heap and resident set growth per request held in flight.
+ * Needs Java 21 for the virtual mode, run with the benchmark and virtual-threads Maven profiles.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Djdk.tracePinnedThreads=short")
+public class VirtualThreadBenchmark {
+
+    /// Requests sent together in each throughput invocation
+    private static final int BURST = 2000;
+    /// Tomcat's default server.tomcat.threads.max
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"1", "10"})
+    private int blockingMillis;
+
+    @Param({"1000", "10000"})
+    private int inFlightRequests;
+
+    private ConfigurableApplicationContext context;
+    private ToolRentalCalculationService toolRentalCalculationService;
+    private RentalTerm rentalTerm;
+    /// Handles the throughput bursts, pooled like Tomcat for platform threads
+    private AsyncTaskExecutor requestExecutor;
+    /// Starts a thread for every in flight request whatever the mode, so memory is per request rather than per pool
+    private AsyncTaskExecutor perRequestExecutor;
+
+    /**
+     * Memory growth while the requests are held in flight, averaged per request
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MemoryPerRequest {
+        public long heapBytesPerRequest;
+        public long residentBytesPerRequest;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapBytesPerRequest = 0;
+            residentBytesPerRequest = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        toolRentalCalculationService = context.getBean(ToolRentalCalculationService.class);
+        rentalTerm = new RentalTerm(ToolCodeEnum.JAKD, LocalDate.of(2020, 7, 2), 9, 10);
+        if ("virtual".equals(mode)) {
+            requestExecutor = new VirtualThreadTaskExecutor("quote-");
+            perRequestExecutor = new VirtualThreadTaskExecutor("in-flight-");
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(PLATFORM_POOL_SIZE);
+            pool.setMaxPoolSize(PLATFORM_POOL_SIZE);
+            pool.setThreadNamePrefix("quote-");
+            pool.initialize();
+            requestExecutor = pool;
+            perRequestExecutor = new SimpleAsyncTaskExecutor("in-flight-");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (requestExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST)
+    public void quoteBehindBlockingIo() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(BURST);
+        long blockingNanos = TimeUnit.MILLISECONDS.toNanos(blockingMillis);
+        for (int i = 0; i < BURST; i++) {
+            requestExecutor.execute(() -> {
+                try {
+                    LockSupport.parkNanos(blockingNanos);
+                    toolRentalCalculationService.calculateToolRental(rentalTerm);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void holdRequestsInFlight(final MemoryPerRequest memoryPerRequest) throws InterruptedException {
+        long heapBefore = usedHeapAfterGc();
+        long residentBefore = residentBytes();
+        CountDownLatch started = new CountDownLatch(inFlightRequests);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(inFlightRequests);
+        for (int i = 0; i < inFlightRequests; i++) {
+            perRequestExecutor.execute(() -> {
+                try {
+                    toolRentalCalculationService.calculateToolRental(rentalTerm);
+                    started.countDown();
+                    //Stands in for a request waiting on I/O, holding its stack until released
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        started.await();
+        memoryPerRequest.heapBytesPerRequest = (usedHeapAfterGc() - heapBefore) / inFlightRequests;
+        memoryPerRequest.residentBytesPerRequest = (residentBytes() - residentBefore) / inFlightRequests;
+        release.countDown();
+        done.await();
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /// VmRSS from /proc, 0 where there is no /proc so only the heap is compared
+    private static long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.aalittle.ToolRental.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how tail latency of the rental endpoint holds up while the server keeps many idle keep alive connections
+ * open, as handheld scanners do through the edge gateways. For each idle connection count the connections are opened,
+ * each sends one request so the server holds it as a live HTTP connection, and then the rental endpoint is loaded at
+ * a fixed rate (startRate) in the same open loop way as {@link RentalLoadTest}.
+ * Run it once against the servlet mode and once against the reactive mode to compare them.
+ */
+public final class ConnectionScalabilityTest {
+
+    private static final int RESPONSE_BUFFER_SIZE = 1024;
+
+    public static void main(final String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        RentalLoadTest loadTest = new RentalLoadTest(options, RentalLoadTest.loadBodies(options, objectMapper));
+
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (int idleConnectionCount : options.idleConnections()) {
+            List<SocketChannel> idleConnections = openIdleConnections(options.url(), idleConnectionCount);
+            try {
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("idleConnections", idleConnections.size());
+                step.putAll(loadTest.warmUpAndMeasureAt(options.startRate()));
+                step.put("idleConnectionsStillOpen", countOpen(idleConnections));
+                steps.add(step);
+                System.out.printf("%d idle connections p99 %.2fms p99.9 %.2fms failed %d%n", idleConnections.size(),
+                        step.get("p99Millis"), step.get("p999Millis"), (long) step.get("failed"));
+            } finally {
+                for (SocketChannel idleConnection : idleConnections) {
+                    idleConnection.close();
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", options.label());
+        summary.put("url", options.url().toString());
+        summary.put("rate", options.startRate());
+        summary.put("steps", steps);
+        RentalLoadTest.writeSummary(options, objectMapper, summary);
+    }
+
+    /// Stops at the first connection the server refuses, the step then reports how many it did accept
+    private static List<SocketChannel> openIdleConnections(final URI url, final int count) {
+        InetSocketAddress address = new InetSocketAddress(url.getHost(), url.getPort());
+        byte[] request = ("GET /actuator/health HTTP/1.1\r\nHost: " + url.getHost() + ":" + url.getPort()
+                + "\r\nConnection: keep-alive\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer response = ByteBuffer.allocate(RESPONSE_BUFFER_SIZE);
+        List<SocketChannel> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                SocketChannel connection = SocketChannel.open(address);
+                connections.add(connection);
+                connection.write(ByteBuffer.wrap(request));
+                response.clear();
+                if (connection.read(response) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            System.out.printf("Opened %d of %d idle connections: %s%n", connections.size(), count, e.getMessage());
+        }
+        return connections;
+    }
+
+    /// A connection the server has closed reads end of stream, an open idle one has nothing to read
+    private static int countOpen(final List<SocketChannel> connections) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RESPONSE_BUFFER_SIZE);
+        int open = 0;
+        for (SocketChannel connection : connections) {
+            connection.configureBlocking(false);
+            buffer.clear();
+            try {
+                if (connection.read(buffer) >= 0) {
+                    open++;
+                }
+            } catch (IOException e) {
+                //Reset by the server
+            }
+        }
+        return open;
+    }
+}
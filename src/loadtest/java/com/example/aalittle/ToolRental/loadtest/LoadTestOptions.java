@@ -0,0 +1,83 @@
+package com.example.aalittle.ToolRental.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from --name=value arguments. Unset options keep the defaults below.
+ * @param url the rental endpoint under test
+ * @param mix payload mix as NAME:weight pairs naming RentalTermPayloads fields, blank for every payload once
+ * @param payloadFile NDJSON file of rental terms sent in place of the mix, one term per line, blank for none
+ * @param startRate requests per second of the first step
+ * @param maxRate the highest rate tried
+ * @param rateFactor each step runs at the rate of the step before times this factor
+ * @param warmup time each step runs before it is measured
+ * @param measurement time each step is measured for
+ * @param sloP99Millis p99 latency above which a step is not sustainable
+ * @param maxErrorRate share of failed requests above which a step is not sustainable
+ * @param maxInFlight requests waiting on a response above which new requests count as failed rather than sent
+ * @param requestTimeout time after which a request counts as failed
+ * @param output file the JSON summary is written to
+ * @param idleConnections idle keep alive connection counts the connection test holds open, one step per count
+ * @param label name of the server mode under test, copied to the summary
+ * @param skew Zipf exponent for picking payloads, the first payload is the most popular, 0 picks them evenly
+ * @param cpuMetricUrl actuator metric of the server's CPU time, read around each step, blank to skip
+ */
+public record LoadTestOptions(URI url, String mix, String payloadFile, double startRate, double maxRate,
+                              double rateFactor, Duration warmup, Duration measurement, double sloP99Millis,
+                              double maxErrorRate, int maxInFlight, Duration requestTimeout, String output,
+                              int[] idleConnections, String label, double skew, String cpuMetricUrl) {
+
+    /**
+     * @param args arguments in --name=value form, e.g. --startRate=1000 --sloP99Millis=25
+     * @return the {@link LoadTestOptions}
+     * @throws IllegalArgumentException if an argument is not a known option
+     */
+    public static LoadTestOptions parse(final String... args) {
+        Map<String, String> values = new HashMap<>(Map.of(
+                "url", "http://localhost:8080/api/rentItems/",
+                "mix", "",
+                "payloadFile", "",
+                "startRate", "500",
+                "maxRate", "100000",
+                "rateFactor", "1.5",
+                "warmupSeconds", "5",
+                "measurementSeconds", "15",
+                "sloP99Millis", "50",
+                "maxErrorRate", "0.001"));
+        values.put("maxInFlight", "10000");
+        values.put("requestTimeoutSeconds", "10");
+        values.put("output", "target/loadtest-summary.json");
+        values.put("idleConnections", "0,1000,5000,10000");
+        values.put("label", "");
+        values.put("skew", "0");
+        values.put("cpuMetricUrl", "http://localhost:8080/actuator/metrics/process.cpu.time");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !values.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown load test option " + arg + ", options are "
+                        + values.keySet());
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(URI.create(values.get("url")), values.get("mix"),
+                values.get("payloadFile"), Double.parseDouble(values.get("startRate")),
+                Double.parseDouble(values.get("maxRate")), Double.parseDouble(values.get("rateFactor")),
+                Duration.ofSeconds(Long.parseLong(values.get("warmupSeconds"))),
+                Duration.ofSeconds(Long.parseLong(values.get("measurementSeconds"))),
+                Double.parseDouble(values.get("sloP99Millis")), Double.parseDouble(values.get("maxErrorRate")),
+                Integer.parseInt(values.get("maxInFlight")),
+                Duration.ofSeconds(Long.parseLong(values.get("requestTimeoutSeconds"))), values.get("output"),
+                Arrays.stream(values.get("idleConnections").split(",")).map(String::trim)
+                        .mapToInt(Integer::parseInt).toArray(), values.get("label"),
+                Double.parseDouble(values.get("skew")), values.get("cpuMetricUrl"));
+        if (options.startRate <= 0 || options.rateFactor <= 1 || options.measurement.isZero() || options.skew < 0) {
+            throw new IllegalArgumentException(
+                    "startRate and measurementSeconds must be above 0, rateFactor above 1 and skew 0 or more");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.aalittle.ToolRental.loadtest;
+
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.utils.RentalTermPayloads;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open loop load generator for the rental endpoint of a running application. Requests are sent on a fixed schedule
+ * whatever the server does, and latency is measured from the time a request was due to be sent rather than the time
+ * it was sent, so a stalled server is charged for the requests it held back (coordinated omission correction).
+ * The rate is raised step by step until a step misses the p99 target, fails too many requests or can not keep up,
+ * and the highest sustained throughput is written as a JSON summary. Payloads are picked evenly or, with a skew,
+ * Zipf distributed so a few terms make up most requests, as during a promotion. Each step also reports the server
+ * CPU time per request when the server exposes it.
+ */
+public final class RentalLoadTest {
+
+    private static final String JSON = "application/json";
+    /// Latencies above this are recorded as this, a request times out well before
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    /// A step which completes less than this share of its target rate is falling behind
+    private static final double SUSTAINED_RATE_SHARE = 0.95;
+
+    private final LoadTestOptions options;
+    private final List<byte[]> bodies;
+    private final HttpClient httpClient;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    /// Responses counted by status class, index 2 counts 2xx
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    /// Running Zipf weights of the payloads, null when they are picked evenly
+    private final double[] cumulativeWeights;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    RentalLoadTest(final LoadTestOptions options, final List<byte[]> bodies) {
+        this.options = options;
+        this.bodies = bodies;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.requestTimeout())
+                .build();
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+        cumulativeWeights = options.skew() == 0 ? null : zipfCumulativeWeights(bodies.size(), options.skew());
+    }
+
+    public static void main(final String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Map<String, Object> summary = new RentalLoadTest(options, loadBodies(options, objectMapper)).run();
+        writeSummary(options, objectMapper, summary);
+    }
+
+    static void writeSummary(final LoadTestOptions options, final ObjectMapper objectMapper,
+                             final Map<String, Object> summary) throws IOException {
+        String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary);
+        Path output = Path.of(options.output());
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.writeString(output, json);
+        System.out.println(json);
+    }
+
+    private Map<String, Object> run() {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        double maxSustainedThroughput = 0;
+        double rate = options.startRate();
+        while (rate <= options.maxRate()) {
+            Map<String, Object> step = warmUpAndMeasureAt(rate);
+            steps.add(step);
+            System.out.printf("target %.0f/s achieved %.0f/s p50 %.2fms p99 %.2fms p99.9 %.2fms failed %d%n",
+                    rate, step.get("achievedRate"), step.get("p50Millis"), step.get("p99Millis"),
+                    step.get("p999Millis"), (long) step.get("failed"));
+            if (!(boolean) step.get("sustained")) {
+                break;
+            }
+            maxSustainedThroughput = (double) step.get("achievedRate");
+            rate *= options.rateFactor();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("url", options.url().toString());
+        summary.put("payloadCount", bodies.size());
+        summary.put("sloP99Millis", options.sloP99Millis());
+        summary.put("maxErrorRate", options.maxErrorRate());
+        summary.put("skew", options.skew());
+        summary.put("maxSustainedThroughput", maxSustainedThroughput);
+        summary.put("steps", steps);
+        return summary;
+    }
+
+    /**
+     * Runs one step, the warm up is not counted
+     * @param rate requests per second
+     * @return the results of the step
+     */
+    Map<String, Object> warmUpAndMeasureAt(final double rate) {
+        runAt(rate, options.warmup().toNanos(), false);
+        return measureAt(rate);
+    }
+
+    private Map<String, Object> measureAt(final double rate) {
+        //Drop whatever the warm up recorded, then start the counters from zero for this step
+        recorder.getIntervalHistogram();
+        succeeded.reset();
+        failed.reset();
+        for (LongAdder statusClass : statusClasses) {
+            statusClass.reset();
+        }
+        double cpuSecondsBefore = readCpuSeconds();
+        long start = System.nanoTime();
+        runAt(rate, options.measurement().toNanos(), true);
+        awaitInFlight();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        double cpuSeconds = readCpuSeconds() - cpuSecondsBefore;
+        Histogram histogram = recorder.getIntervalHistogram();
+
+        long succeededCount = succeeded.sum();
+        long failedCount = failed.sum();
+        double achievedRate = succeededCount / elapsedSeconds;
+        double errorRate = failedCount / (double) Math.max(1, succeededCount + failedCount);
+        double p99Millis = toMillis(histogram.getValueAtPercentile(99.0));
+
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("targetRate", rate);
+        step.put("achievedRate", achievedRate);
+        step.put("succeeded", succeededCount);
+        step.put("failed", failedCount);
+        step.put("errorRate", errorRate);
+        step.put("p50Millis", toMillis(histogram.getValueAtPercentile(50.0)));
+        step.put("p99Millis", p99Millis);
+        step.put("p999Millis", toMillis(histogram.getValueAtPercentile(99.9)));
+        step.put("maxMillis", toMillis(histogram.getMaxValue()));
+        if (!Double.isNaN(cpuSeconds)) {
+            //Includes the server's idle work, compare steps at the same rate
+            step.put("cpuMicrosPerRequest", cpuSeconds * 1e6 / Math.max(1, succeededCount + failedCount));
+        }
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (int i = 1; i < statusClasses.length; i++) {
+            if (statusClasses[i].sum() > 0) {
+                statuses.put(i + "xx", statusClasses[i].sum());
+            }
+        }
+        step.put("statusClasses", statuses);
+        step.put("sustained", p99Millis <= options.sloP99Millis() && errorRate <= options.maxErrorRate()
+                && achievedRate >= rate * SUSTAINED_RATE_SHARE);
+        return step;
+    }
+
+    /// Sends requests at the rate for the duration, falling behind schedule sends the late requests back to back
+    private void runAt(final double rate, final long durationNanos, final boolean measured) {
+        double intervalNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * intervalNanos);
+            if (intendedStart - start >= durationNanos) {
+                return;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(bodies.get(nextBodyIndex()), intendedStart, measured);
+        }
+    }
+
+    private void send(final byte[] body, final long intendedStart, final boolean measured) {
+        if (inFlight.get() >= options.maxInFlight()) {
+            //The server is this far behind, a real client would have given up on the request
+            if (measured) {
+                failed.increment();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        HttpRequest request = HttpRequest.newBuilder(options.url())
+                .timeout(options.requestTimeout())
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - intendedStart;
+            if (measured) {
+                if (failure != null || response.statusCode() >= 500) {
+                    failed.increment();
+                } else {
+                    recorder.recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                    succeeded.increment();
+                }
+                if (response != null) {
+                    statusClasses[Math.min(response.statusCode() / 100, statusClasses.length - 1)].increment();
+                }
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private int nextBodyIndex() {
+        if (cumulativeWeights == null) {
+            return random.nextInt(bodies.size());
+        }
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble() * cumulativeWeights[bodies.size() - 1]);
+        return Math.min(index < 0 ? -index - 1 : index, bodies.size() - 1);
+    }
+
+    /// Payload i is picked in proportion to 1 / (i + 1)^skew
+    static double[] zipfCumulativeWeights(final int count, final double skew) {
+        double[] cumulativeWeights = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += 1 / Math.pow(i + 1, skew);
+            cumulativeWeights[i] = total;
+        }
+        return cumulativeWeights;
+    }
+
+    /// Total CPU time of the server process in seconds, NaN if the metric can not be read
+    private double readCpuSeconds() {
+        if (options.cpuMetricUrl().isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(options.cpuMetricUrl()))
+                    .timeout(options.requestTimeout()).header("Accept", JSON).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return Double.NaN;
+            }
+            JsonNode metric = objectMapper.readTree(response.body());
+            double value = metric.path("measurements").path(0).path("value").asDouble(Double.NaN);
+            return switch (metric.path("baseUnit").asText("seconds")) {
+                case "nanoseconds", "ns" -> value / 1e9;
+                case "milliseconds", "ms" -> value / 1e3;
+                default -> value;
+            };
+        } catch (IOException e) {
+            return Double.NaN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Double.NaN;
+        }
+    }
+
+    /// Every request ends within the request timeout, one way or the other
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + options.requestTimeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /// One body per line of the payload file, otherwise each RentalTermPayloads field repeated by its weight
+    static List<byte[]> loadBodies(final LoadTestOptions options, final ObjectMapper objectMapper)
+            throws IOException {
+        List<byte[]> bodies = new ArrayList<>();
+        if (!options.payloadFile().isBlank()) {
+            for (String line : Files.readAllLines(Path.of(options.payloadFile()), StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    bodies.add(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } else {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            if (options.mix().isBlank()) {
+                for (Field field : RentalTermPayloads.class.getFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) && field.getType() == RentalTerm.class) {
+                        weights.put(field.getName(), 1);
+                    }
+                }
+            } else {
+                for (String entry : options.mix().split(",")) {
+                    String[] nameAndWeight = entry.trim().split(":");
+                    weights.put(nameAndWeight[0], nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1]) : 1);
+                }
+            }
+            for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+                byte[] body = objectMapper.writeValueAsBytes(payload(weight.getKey()));
+                for (int i = 0; i < weight.getValue(); i++) {
+                    bodies.add(body);
+                }
+            }
+        }
+        if (bodies.isEmpty()) {
+            throw new IllegalArgumentException("The load test has no payloads to send");
+        }
+        return bodies;
+    }
+
+    private static RentalTerm payload(final String name) {
+        try {
+            return (RentalTerm) RentalTermPayloads.class.getField(name).get(null);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalArgumentException("RentalTermPayloads has no payload " + name, e);
+        }
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1e6;
+    }
+}
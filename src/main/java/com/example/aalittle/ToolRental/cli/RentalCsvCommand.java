@@ -0,0 +1,76 @@
+package com.example.aalittle.ToolRental.cli;
+
+import com.example.aalittle.ToolRental.model.RentalCsvSummary;
+import com.example.aalittle.ToolRental.service.RentalCsvService;
+import com.example.aalittle.ToolRental.utils.ConsoleUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Prices a CSV file of rental terms once the application has started, when tool-rental.csv.input is set, prints a
+ * summary with the throughput and by default exits. Started without a web server this runs the application as a
+ * command line batch job.
+ */
+@Component
+@ConditionalOnProperty(name = "tool-rental.csv.input")
+public class RentalCsvCommand implements ApplicationRunner {
+
+    private static final String OUTPUT_SUFFIX = ".agreements.csv";
+
+    @Value("${tool-rental.csv.input}")
+    private String input;
+
+    /// Blank writes next to the input, terms.csv is priced into terms.agreements.csv
+    @Value("${tool-rental.csv.output:}")
+    private String output;
+
+    @Value("${tool-rental.csv.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Autowired
+    private RentalCsvService rentalCsvService;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(final ApplicationArguments args) throws IOException {
+        Path inputPath = Path.of(input);
+        RentalCsvSummary summary = rentalCsvService.priceFile(inputPath, outputPath(inputPath));
+        StringBuilder text = new StringBuilder()
+                .append("Priced ").append(summary.getPricedCount()).append(" of ").append(summary.getRowCount())
+                .append(" rows of ").append(summary.getInputPath()).append(" into ").append(summary.getOutputPath())
+                .append(System.lineSeparator())
+                .append("Took ").append(summary.getElapsedMillis()).append(" ms, ")
+                .append(summary.getRowsPerSecond()).append(" rows per second, ")
+                .append(String.format("%.1f", summary.getMegabytesPerSecond())).append(" MB per second")
+                .append(System.lineSeparator());
+        if (summary.getRejectedCount() > 0) {
+            text.append("Rejected ").append(summary.getRejectedCount()).append(" rows").append(System.lineSeparator());
+            summary.getErrors().forEach(error -> text.append("  ").append(error).append(System.lineSeparator()));
+        }
+        ConsoleUtils.print(text);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private Path outputPath(final Path inputPath) {
+        if (!output.isBlank()) {
+            return Path.of(output);
+        }
+        String fileName = inputPath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        return inputPath.resolveSibling((extension > 0 ? fileName.substring(0, extension) : fileName)
+                + OUTPUT_SUFFIX);
+    }
+}
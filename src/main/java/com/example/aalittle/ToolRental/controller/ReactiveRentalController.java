@@ -0,0 +1,117 @@
+package com.example.aalittle.ToolRental.controller;
+
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import com.example.aalittle.ToolRental.model.CheckoutSearchTerm;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalQuoteResult;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.AgreementAuditService;
+import com.example.aalittle.ToolRental.service.AgreementJournalService;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Serves the APIs of {@link RentalController} on WebFlux when the application runs reactive (the reactive profile).
+ * Quotes are handed off to the bounded elastic scheduler whenever they may block: always for batches, which can fan
+ * out and wait on their chunks, and for single quotes when they are coalesced or batched or the agreement journal or
+ * audit is set up to block. Otherwise single quotes are computed on the Netty event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRentalController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    ToolRentalCalculationService toolRentalCalculationService;
+
+    @Autowired
+    RentalRequestSupport rentalRequestSupport;
+
+    @Autowired
+    AgreementJournalService agreementJournalService;
+
+    @Autowired
+    AgreementAuditService agreementAuditService;
+
+    @Autowired
+    RentalMetrics rentalMetrics;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private Scheduler quoteScheduler;
+
+    @PostConstruct
+    void chooseScheduler() {
+        quoteScheduler = agreementJournalService.mayBlock() || agreementAuditService.mayBlock()
+                || toolRentalCalculationService.mayBlock() ? Schedulers.boundedElastic() : Schedulers.immediate();
+    }
+
+    @PostMapping( value = "/api/rentItems/")
+    public Mono<RentalAgreement> rentItems(@RequestBody @Valid Mono<RentalTerm> rentalTerm){
+        return rentalTerm.publishOn(quoteScheduler).map(term -> {
+            long start = rentalMetrics.start();
+            RentalAgreement rentalAgreement = toolRentalCalculationService.calculateToolRental(term);
+            rentalMetrics.recordSingleRequest(start);
+            return rentalAgreement;
+        });
+    }
+
+    /**
+     * Entry point for quoting several rental terms at once, invalid terms do not fail the batch
+     * @param rentalTerms a List of {@link RentalTerm}
+     * @return a List of {@link RentalQuoteResult} in the same order as the rental terms
+     */
+    @PostMapping( value = "/api/rentItems/batch")
+    public Mono<List<RentalQuoteResult>> rentItemsBatch(@RequestBody Mono<List<RentalTerm>> rentalTerms){
+        return rentalTerms.publishOn(Schedulers.boundedElastic()).map(terms -> {
+            long start = rentalMetrics.start();
+            List<RentalQuoteResult> results = rentalRequestSupport.quoteBatch(terms);
+            rentalMetrics.recordBatchRequest(start);
+            return results;
+        });
+    }
+
+    /**
+     * Entry point for finding the cheapest checkout dates of a rental
+     * @param checkoutSearchTerm a {@link CheckoutSearchTerm}
+     * @return a List of {@link RentalAgreement}, cheapest first
+     */
+    @PostMapping( value = "/api/rentItems/cheapest")
+    public Mono<List<RentalAgreement>> cheapestCheckoutDates(
+            @RequestBody @Valid Mono<CheckoutSearchTerm> checkoutSearchTerm){
+        return checkoutSearchTerm.publishOn(quoteScheduler)
+                .map(toolRentalCalculationService::findCheapestCheckoutDates);
+    }
+
+    /**
+     * Entry point for quoting newline delimited rental terms of any size. Lines are only read as fast as results
+     * are written, so memory stays flat and a slow client slows down reading.
+     * Writes one line per non blank request line, a {@link RentalAgreement} or a {@link RentalQuoteResult}
+     * holding the errors for that line.
+     * @param lines the request body split into lines, one {@link RentalTerm} JSON object per line
+     * @return the results in the order of the lines
+     */
+    @PostMapping( value = "/api/rentItems/stream", consumes = NDJSON, produces = NDJSON)
+    public Flux<Object> rentItemsStream(@RequestBody Flux<String> lines){
+        ObjectReader rentalTermReader = objectMapper.readerFor(RentalTerm.class);
+        return lines.filter(line -> !line.isBlank())
+                .publishOn(quoteScheduler)
+                .map(line -> rentalRequestSupport.quoteLine(rentalTermReader, line));
+    }
+}
@@ -1,20 +1,41 @@
 package com.example.aalittle.ToolRental.controller;
 
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import com.example.aalittle.ToolRental.model.CheckoutSearchTerm;
 import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalQuoteResult;
 import com.example.aalittle.ToolRental.model.RentalTerm;
 import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import com.example.aalittle.ToolRental.utils.BoundedLineReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
- * Rental Controller Class which contains APIs for renting items
+ * Rental Controller Class which contains APIs for renting items, served on the servlet stack.
+ * {@link ReactiveRentalController} serves the same APIs when the application runs reactive.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RentalController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     /**
      * Entry point for rental items calculation
      * @param a List of  {@link RentalTerm}
@@ -22,8 +43,84 @@ public class RentalController {
      */
     @Autowired
     ToolRentalCalculationService toolRentalCalculationService;
+
+    @Autowired
+    RentalRequestSupport rentalRequestSupport;
+
+    @Autowired
+    RentalMetrics rentalMetrics;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
     @PostMapping( value = "/api/rentItems/")
     public RentalAgreement rentItems(@RequestBody @Valid RentalTerm rentalTerm){
-       return toolRentalCalculationService.calculateToolRental(rentalTerm);
+       long start = rentalMetrics.start();
+       RentalAgreement rentalAgreement = toolRentalCalculationService.calculateToolRental(rentalTerm);
+       rentalMetrics.recordSingleRequest(start);
+       return rentalAgreement;
+    }
+
+    /**
+     * Entry point for quoting several rental terms at once, invalid terms do not fail the batch
+     * @param rentalTerms a List of {@link RentalTerm}
+     * @return a List of {@link RentalQuoteResult} in the same order as the rental terms
+     */
+    @PostMapping( value = "/api/rentItems/batch")
+    public List<RentalQuoteResult> rentItemsBatch(@RequestBody List<RentalTerm> rentalTerms){
+        long start = rentalMetrics.start();
+        List<RentalQuoteResult> results = rentalRequestSupport.quoteBatch(rentalTerms);
+        rentalMetrics.recordBatchRequest(start);
+        return results;
+    }
+
+    /**
+     * Entry point for finding the cheapest checkout dates of a rental
+     * @param checkoutSearchTerm a {@link CheckoutSearchTerm}
+     * @return a List of {@link RentalAgreement}, cheapest first
+     */
+    @PostMapping( value = "/api/rentItems/cheapest")
+    public List<RentalAgreement> cheapestCheckoutDates(@RequestBody @Valid CheckoutSearchTerm checkoutSearchTerm){
+        return toolRentalCalculationService.findCheapestCheckoutDates(checkoutSearchTerm);
+    }
+
+    /**
+     * Entry point for quoting newline delimited rental terms of any size. Each line is read, quoted and written
+     * before the next line is read, so memory stays flat and a slow client slows down reading.
+     * Writes one line per non blank request line, a {@link RentalAgreement} or a {@link RentalQuoteResult}
+     * holding the errors for that line.
+     * @param request a request whose body holds one {@link RentalTerm} JSON object per line
+     * @param response the response the results are streamed to
+     */
+    @PostMapping( value = "/api/rentItems/stream", consumes = NDJSON, produces = NDJSON)
+    public void rentItemsStream(final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectReader rentalTermReader = objectMapper.readerFor(RentalTerm.class);
+        //Leave flushing to the response buffer, flushing per line would be a network write per line
+        ObjectWriter resultWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        //Lines are cut off at a maximum length so a line without an end can not be held in memory whole
+        BoundedLineReader reader = new BoundedLineReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8),
+                rentalRequestSupport.getMaxLineLength());
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!reader.isTooLong() && line.isBlank()) {
+                    continue;
+                }
+                resultWriter.writeValue(generator, reader.isTooLong() ? rentalRequestSupport.lineTooLong()
+                        : rentalRequestSupport.quoteLine(rentalTermReader, line));
+                generator.writeRaw('\n');
+                //Push out what is computed while the client has not sent more, so results arrive as they are ready
+                if (!reader.ready()) {
+                    generator.flush();
+                }
+            }
+        }
     }
 }
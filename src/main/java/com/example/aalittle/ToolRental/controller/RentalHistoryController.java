@@ -0,0 +1,51 @@
+package com.example.aalittle.ToolRental.controller;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RevenueReport;
+import com.example.aalittle.ToolRental.service.RentalHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rental History Controller Class which contains APIs for aggregating issued rental agreements
+ */
+@RestController
+public class RentalHistoryController {
+
+    @Autowired
+    RentalHistoryService rentalHistoryService;
+
+    /**
+     * Totals revenue, chargeable days and discounts of issued agreements
+     * @param fromDate first checkout date included, MM/dd/yy, every date when not entered
+     * @param toDate last checkout date included, MM/dd/yy, every date when not entered
+     * @param toolCode tools included, may be repeated, every tool when not entered
+     * @param toolBrand brands included, may be repeated, every brand when not entered
+     * @param groupBy TOOL_CODE, TOOL_BRAND or CHECKOUT_DATE
+     * @return the {@link RevenueReport}, or 400 if the from date is after the to date
+     */
+    @GetMapping( value = "/api/history/revenue")
+    public ResponseEntity<Object> revenue(@RequestParam(required = false) @DateTimeFormat(pattern = "MM/dd/yy")
+                                          LocalDate fromDate,
+                                          @RequestParam(required = false) @DateTimeFormat(pattern = "MM/dd/yy")
+                                          LocalDate toDate,
+                                          @RequestParam(required = false) Set<ToolCodeEnum> toolCode,
+                                          @RequestParam(required = false) Set<ToolBrandEnum> toolBrand,
+                                          @RequestParam(defaultValue = "TOOL_CODE") HistoryGroupByEnum groupBy){
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "From date must not be after to date"));
+        }
+        RevenueReport report = rentalHistoryService.aggregateRevenue(fromDate, toDate, toolCode, toolBrand, groupBy);
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.aalittle.ToolRental.controller;
+
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalQuoteResult;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Quoting shared by the servlet and reactive rental controllers, so both report invalid terms the same way
+ */
+@Component
+public class RentalRequestSupport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RentalRequestSupport.class);
+
+    /// Longest line of a newline delimited request, a rental term is well under 200 characters
+    @Value("${tool-rental.stream.max-line-length:8192}")
+    private int maxLineLength;
+
+    @Autowired
+    ToolRentalCalculationService toolRentalCalculationService;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    RentalMetrics rentalMetrics;
+
+    /**
+     * Quotes several rental terms at once, invalid terms and terms which can not be priced do not fail the batch
+     * @param rentalTerms a List of {@link RentalTerm}
+     * @return a List of {@link RentalQuoteResult} in the same order as the rental terms
+     */
+    public List<RentalQuoteResult> quoteBatch(final List<RentalTerm> rentalTerms) {
+        List<RentalQuoteResult> results = new ArrayList<>(rentalTerms.size());
+        List<RentalTerm> validRentalTerms = new ArrayList<>(rentalTerms.size());
+        for (RentalTerm rentalTerm : rentalTerms) {
+            Map<String, String> fieldErrors = validate(rentalTerm);
+            if (fieldErrors.isEmpty()) {
+                validRentalTerms.add(rentalTerm);
+                results.add(null);
+            } else {
+                results.add(RentalQuoteResult.builder().errors(fieldErrors).build());
+            }
+        }
+
+        //Fill the gaps left for valid terms, agreements come back in the order the terms were sent
+        List<RentalQuoteResult> quotes;
+        try {
+            quotes = toolRentalCalculationService.calculateToolRentals(validRentalTerms).stream()
+                    .map(rentalAgreement -> RentalQuoteResult.builder().rentalAgreement(rentalAgreement).build())
+                    .toList();
+        } catch (RuntimeException e) {
+            //Price the batch one term at a time so only the term at fault gets an error
+            LOGGER.warn("Could not price a batch of {} rental terms, pricing them one at a time",
+                    validRentalTerms.size(), e);
+            quotes = validRentalTerms.stream().map(this::quoteOne).toList();
+        }
+        int quoteIndex = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, quotes.get(quoteIndex++));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Quotes one line of a newline delimited request
+     * @param rentalTermReader reads a {@link RentalTerm}
+     * @param line one {@link RentalTerm} JSON object
+     * @return a {@link RentalAgreement} or a {@link RentalQuoteResult} holding the errors of the line
+     */
+    public Object quoteLine(final ObjectReader rentalTermReader, final String line) {
+        if (line.length() > maxLineLength) {
+            return lineTooLong();
+        }
+        RentalTerm rentalTerm;
+        try {
+            rentalTerm = rentalTermReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            String field = e instanceof JsonMappingException mappingException
+                    && !mappingException.getPath().isEmpty()
+                    && mappingException.getPath().get(0).getFieldName() != null
+                    ? mappingException.getPath().get(0).getFieldName() : "rentalTerm";
+            rentalMetrics.countValidationFailure(field);
+            return RentalQuoteResult.builder().errors(Map.of(field, "Could not read value")).build();
+        }
+        Map<String, String> fieldErrors = validate(rentalTerm);
+        if (!fieldErrors.isEmpty()) {
+            return RentalQuoteResult.builder().errors(fieldErrors).build();
+        }
+        //One term which can not be priced must not cut off the results of the lines after it
+        RentalQuoteResult result = quoteOne(rentalTerm);
+        return result.getRentalAgreement() != null ? result.getRentalAgreement() : result;
+    }
+
+    /**
+     * @return longest line of a newline delimited request
+     */
+    public int getMaxLineLength() {
+        return maxLineLength;
+    }
+
+    /**
+     * @return the result written for a line longer than {@link #getMaxLineLength()}
+     */
+    public RentalQuoteResult lineTooLong() {
+        rentalMetrics.countValidationFailure("rentalTerm");
+        return RentalQuoteResult.builder()
+                .errors(Map.of("rentalTerm", "Line is longer than " + maxLineLength + " characters")).build();
+    }
+
+    private RentalQuoteResult quoteOne(final RentalTerm rentalTerm) {
+        try {
+            return RentalQuoteResult.builder()
+                    .rentalAgreement(toolRentalCalculationService.calculateToolRental(rentalTerm)).build();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not price rental term {}", rentalTerm, e);
+            return RentalQuoteResult.builder().errors(Map.of("rentalTerm", "Could not be priced")).build();
+        }
+    }
+
+    private Map<String, String> validate(final RentalTerm rentalTerm) {
+        Map<String, String> fieldErrors = new HashMap<>();
+        if (rentalTerm == null) {
+            fieldErrors.put("rentalTerm", "Rental Term Must Be Entered");
+            rentalMetrics.countValidationFailure("rentalTerm");
+            return fieldErrors;
+        }
+        long start = rentalMetrics.start();
+        Set<ConstraintViolation<RentalTerm>> violations = validator.validate(rentalTerm);
+        rentalMetrics.recordStage(RentalStageEnum.VALIDATION, start);
+        violations.forEach(violation -> {
+            fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            rentalMetrics.countValidationFailure(violation.getPropertyPath().toString());
+        });
+        return fieldErrors;
+    }
+}
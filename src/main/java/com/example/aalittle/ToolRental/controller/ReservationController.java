@@ -0,0 +1,109 @@
+package com.example.aalittle.ToolRental.controller;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.LateFee;
+import com.example.aalittle.ToolRental.model.LateFeeReport;
+import com.example.aalittle.ToolRental.model.Reservation;
+import com.example.aalittle.ToolRental.model.ReservationAvailability;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.service.LateFeeService;
+import com.example.aalittle.ToolRental.service.ReservationService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Reservation Controller Class which contains APIs for booking tool units
+ */
+@RestController
+@Validated
+public class ReservationController {
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    LateFeeService lateFeeService;
+
+    /**
+     * Books a unit of the tool for the rental term, the discount percent is not used
+     * @param rentalTerm a {@link RentalTerm}
+     * @return the {@link Reservation}, or 409 if no unit is free for the whole rental
+     */
+    @PostMapping( value = "/api/reservations/")
+    public ResponseEntity<Object> book(@RequestBody @Valid RentalTerm rentalTerm){
+        Reservation reservation = reservationService.book(rentalTerm.getToolCode(), rentalTerm.getCheckoutDate(),
+                rentalTerm.getRentalDayCount());
+        if (reservation == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "No " + rentalTerm.getToolCode() + " is free for the whole rental"));
+        }
+        return ResponseEntity.ok(reservation);
+    }
+
+    /**
+     * Cancels a reservation
+     * @param reservationId id of the {@link Reservation}
+     * @return 204, or 404 if there is no such reservation
+     */
+    @DeleteMapping( value = "/api/reservations/{reservationId}")
+    public ResponseEntity<Void> cancel(@PathVariable long reservationId){
+        return reservationService.cancel(reservationId)
+                ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * @param toolCode an enum which represents a tool
+     * @param checkoutDate day the unit would go out, MM/dd/yy
+     * @param rentalDayCount number of days the unit would be out
+     * @return the number of free units as a {@link ReservationAvailability}
+     */
+    @GetMapping( value = "/api/reservations/availability")
+    public ReservationAvailability availability(@RequestParam ToolCodeEnum toolCode,
+                                                @RequestParam @DateTimeFormat(pattern = "MM/dd/yy")
+                                                LocalDate checkoutDate,
+                                                @RequestParam @Min(1) int rentalDayCount){
+        return ReservationAvailability.builder()
+                .toolCode(toolCode)
+                .checkoutDate(checkoutDate)
+                .dueDate(checkoutDate.plusDays(rentalDayCount))
+                .availableUnits(reservationService.countAvailableUnits(toolCode, checkoutDate, rentalDayCount))
+                .build();
+    }
+
+    /**
+     * @param reservationId id of the {@link Reservation}
+     * @param returnDate day the unit came back, MM/dd/yy
+     * @return the {@link LateFee}, or 404 if there is no such reservation
+     */
+    @GetMapping( value = "/api/reservations/{reservationId}/late-fee")
+    public ResponseEntity<LateFee> lateFee(@PathVariable long reservationId,
+                                           @RequestParam @DateTimeFormat(pattern = "MM/dd/yy") LocalDate returnDate){
+        Reservation reservation = reservationService.getReservation(reservationId);
+        return reservation == null ? ResponseEntity.notFound().build()
+                : ResponseEntity.ok(lateFeeService.calculateLateFee(reservation, returnDate));
+    }
+
+    /**
+     * @param asOfDate the date fees are worked out to, MM/dd/yy
+     * @return the late fees of every reservation overdue on the date as a {@link LateFeeReport}
+     */
+    @GetMapping( value = "/api/reservations/late-fees")
+    public LateFeeReport lateFees(@RequestParam @DateTimeFormat(pattern = "MM/dd/yy") LocalDate asOfDate){
+        return lateFeeService.calculateOverdueLateFees(asOfDate);
+    }
+}
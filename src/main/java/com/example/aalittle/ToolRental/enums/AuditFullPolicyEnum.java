@@ -0,0 +1,8 @@
+package com.example.aalittle.ToolRental.enums;
+
+/**
+ * What the agreement audit does with a new agreement when its buffer is full
+ */
+public enum AuditFullPolicyEnum {
+    DROP, BLOCK
+}
@@ -0,0 +1,8 @@
+package com.example.aalittle.ToolRental.enums;
+
+/**
+ * What rental history aggregates are grouped by
+ */
+public enum HistoryGroupByEnum {
+    TOOL_CODE, TOOL_BRAND, CHECKOUT_DATE
+}
@@ -0,0 +1,46 @@
+package com.example.aalittle.ToolRental.enums;
+
+import com.example.aalittle.ToolRental.utils.HolidayRule;
+
+import java.time.DayOfWeek;
+import java.time.Month;
+
+import static com.example.aalittle.ToolRental.enums.HolidayObservanceEnum.NEAREST_WEEKDAY;
+import static com.example.aalittle.ToolRental.enums.HolidayObservanceEnum.ON_DATE;
+
+/**
+ * US federal holidays and the rules placing them in a year, the years each rule applies to follow the
+ * federal calendar (e.g. Memorial Day moved from May 30th to the last Monday of May in 1968)
+ */
+public enum HolidayEnum {
+    NEW_YEARS_DAY(HolidayRule.fixed(Month.JANUARY, 1, NEAREST_WEEKDAY)),
+    MARTIN_LUTHER_KING_DAY(HolidayRule.nthWeekday(3, DayOfWeek.MONDAY, Month.JANUARY).validFrom(1986)),
+    PRESIDENTS_DAY(HolidayRule.nthWeekday(3, DayOfWeek.MONDAY, Month.FEBRUARY).validFrom(1971)),
+    MEMORIAL_DAY(HolidayRule.fixed(Month.MAY, 30, ON_DATE).validFrom(1869).validTo(1967),
+            HolidayRule.lastWeekday(DayOfWeek.MONDAY, Month.MAY).validFrom(1968)),
+    JUNETEENTH(HolidayRule.fixed(Month.JUNE, 19, NEAREST_WEEKDAY).validFrom(2021)),
+    INDEPENDENCE_DAY(HolidayRule.fixed(Month.JULY, 4, NEAREST_WEEKDAY).validFrom(1776)),
+    LABOR_DAY(HolidayRule.nthWeekday(1, DayOfWeek.MONDAY, Month.SEPTEMBER).validFrom(1895)),
+    VETERANS_DAY(HolidayRule.fixed(Month.NOVEMBER, 11, NEAREST_WEEKDAY).validFrom(1938)),
+    THANKSGIVING(HolidayRule.nthWeekday(4, DayOfWeek.THURSDAY, Month.NOVEMBER).validFrom(1863)),
+    CHRISTMAS_DAY(HolidayRule.fixed(Month.DECEMBER, 25, NEAREST_WEEKDAY));
+
+    private final HolidayRule[] rules;
+
+    HolidayEnum(final HolidayRule... rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * @param year the year the holiday belongs to
+     * @return the rule placing the holiday in the year or null if the holiday was not held that year
+     */
+    public HolidayRule ruleFor(final int year) {
+        for (HolidayRule rule : rules) {
+            if (rule.appliesTo(year)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.aalittle.ToolRental.enums;
+
+/**
+ * Which day a holiday is observed on when it falls on a weekend
+ */
+public enum HolidayObservanceEnum {
+    /// Observed on its date whatever the day of the week
+    ON_DATE,
+    /// Saturday is observed on the Friday before and Sunday on the Monday after
+    NEAREST_WEEKDAY
+}
@@ -0,0 +1,15 @@
+package com.example.aalittle.ToolRental.enums;
+
+/**
+ * Kinds of pricing rule a tool can have on top of its daily charge
+ */
+public enum PricingRuleTypeEnum {
+    /// Chargeable Saturdays and Sundays cost the daily charge times the amount
+    WEEKEND_MULTIPLIER,
+    /// Each chargeable holiday costs the amount on top of the daily charge
+    HOLIDAY_SURCHARGE,
+    /// Rentals of at least the minimum rental days get the amount as a percent off, only the largest tier applies
+    LONG_RENTAL_DISCOUNT,
+    /// The final charge is never below the amount
+    MINIMUM_CHARGE
+}
@@ -0,0 +1,5 @@
+package com.example.aalittle.ToolRental.enums;
+
+public enum RentalStageEnum {
+    DESERIALIZATION, VALIDATION, TOOL_LOOKUP, HOLIDAY_RESOLUTION, CHARGEABLE_DAYS, PRICING, SERIALIZATION
+}
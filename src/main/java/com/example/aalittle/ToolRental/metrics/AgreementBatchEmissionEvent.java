@@ -0,0 +1,50 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for handing a batch of issued agreements to the journal, audit log and rental history. The
+ * batch shares one journal write, so it is one event describing the batch rather than one per rental term.
+ */
+@Name("com.example.aalittle.ToolRental.AgreementBatchEmission")
+@Label("Agreement Batch Emission")
+@Description("Recording a batch of issued agreements in the journal, audit log and rental history")
+@Category({"Tool Rental", "Quote"})
+@Enabled(false)
+@StackTrace(false)
+public class AgreementBatchEmissionEvent extends Event {
+
+    @Label("Agreements")
+    private int agreementCount;
+
+    @Label("Tools")
+    @Description("Distinct tool codes in the batch")
+    private int toolCount;
+
+    @Label("Longest Rental Days")
+    private int maxRentalDayCount;
+
+    @Label("Rental Days")
+    @Description("Rental days of every agreement in the batch added up")
+    private long totalRentalDayCount;
+
+    /**
+     * @param agreementCount agreements recorded
+     * @param toolCount distinct tool codes among them
+     * @param maxRentalDayCount rental days of the longest rental
+     * @param totalRentalDayCount rental days of every rental added up
+     */
+    public void setBatch(final int agreementCount, final int toolCount, final int maxRentalDayCount,
+                         final long totalRentalDayCount) {
+        this.agreementCount = agreementCount;
+        this.toolCount = toolCount;
+        this.maxRentalDayCount = maxRentalDayCount;
+        this.totalRentalDayCount = totalRentalDayCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for handing an issued agreement to the journal, audit log and rental history. Batches are
+ * recorded as an {@link AgreementBatchEmissionEvent} instead.
+ */
+@Name("com.example.aalittle.ToolRental.AgreementEmission")
+@Label("Agreement Emission")
+@Description("Recording an issued agreement in the journal, audit log and rental history")
+public class AgreementEmissionEvent extends RentalQuoteEvent {
+}
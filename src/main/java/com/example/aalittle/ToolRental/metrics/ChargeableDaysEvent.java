@@ -0,0 +1,31 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for counting the chargeable days of a rental term, or its chargeable weekend days and
+ * charged holidays when its pricing rules read them
+ */
+@Name("com.example.aalittle.ToolRental.ChargeableDays")
+@Label("Chargeable Day Count")
+@Description("Counting the chargeable days of a rental term")
+public class ChargeableDaysEvent extends RentalQuoteEvent {
+
+    @Label("Pricing Rule Days")
+    @Description("True when counting weekend days and holidays for pricing rules rather than chargeable days")
+    private boolean ruleDays;
+
+    @Label("Days Counted")
+    private int dayCount;
+
+    /**
+     * @param ruleDays true when counting weekend days and holidays for pricing rules
+     * @param dayCount chargeable days, or chargeable weekend days for pricing rules
+     */
+    public void setDays(final boolean ruleDays, final int dayCount) {
+        this.ruleDays = ruleDays;
+        this.dayCount = dayCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for resolving the holidays of a rental period, long ones are usually a year being added to
+ * the holiday index
+ */
+@Name("com.example.aalittle.ToolRental.HolidayResolution")
+@Label("Holiday Resolution")
+@Description("Resolving the holiday index covering a rental period")
+public class HolidayResolutionEvent extends RentalQuoteEvent {
+}
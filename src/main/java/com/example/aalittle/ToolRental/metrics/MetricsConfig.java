@@ -0,0 +1,153 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Times the stages of a request which happen outside of the rental services:
+ * reading the request body, validating it and writing the response body.
+ * Only validation is timed when the application runs reactive.
+ * The servlet and reactive configurers are kept apart as their interfaces share default methods.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times reading, validating and writing request bodies on the servlet stack
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public static class ServletMetricsConfig implements WebMvcConfigurer {
+
+        @Autowired
+        private RentalMetrics rentalMetrics;
+
+        @Autowired
+        private jakarta.validation.Validator validator;
+
+        /**
+         * Replaces Spring Boot's Jackson converter with one which times reading and writing
+         * @param objectMapper the application {@link ObjectMapper}
+         * @return a {@link MappingJackson2HttpMessageConverter}
+         */
+        @Bean
+        public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+                final ObjectMapper objectMapper) {
+            return new TimedJacksonConverter(objectMapper, rentalMetrics);
+        }
+
+        /**
+         * Validator used for {@code @Valid} request bodies
+         */
+        @Override
+        public Validator getValidator() {
+            return new TimedValidator(new SpringValidatorAdapter(validator), rentalMetrics);
+        }
+    }
+
+    /**
+     * Times validating request bodies on the reactive stack
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public static class ReactiveMetricsConfig implements WebFluxConfigurer {
+
+        @Autowired
+        private RentalMetrics rentalMetrics;
+
+        @Autowired
+        private jakarta.validation.Validator validator;
+
+        /**
+         * Validator used for {@code @Valid} request bodies
+         */
+        @Override
+        public Validator getValidator() {
+            return new TimedValidator(new SpringValidatorAdapter(validator), rentalMetrics);
+        }
+    }
+
+    private static final class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final RentalMetrics rentalMetrics;
+
+        private TimedJacksonConverter(final ObjectMapper objectMapper, final RentalMetrics rentalMetrics) {
+            super(objectMapper);
+            this.rentalMetrics = rentalMetrics;
+        }
+
+        @Override
+        public Object read(final Type type, final Class<?> contextClass, final HttpInputMessage inputMessage)
+                throws IOException {
+            long start = rentalMetrics.start();
+            try {
+                return super.read(type, contextClass, inputMessage);
+            } finally {
+                rentalMetrics.recordStage(RentalStageEnum.DESERIALIZATION, start);
+            }
+        }
+
+        @Override
+        protected void writeInternal(final Object object, final Type type, final HttpOutputMessage outputMessage)
+                throws IOException {
+            long start = rentalMetrics.start();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                rentalMetrics.recordStage(RentalStageEnum.SERIALIZATION, start);
+            }
+        }
+    }
+
+    private static final class TimedValidator implements SmartValidator {
+
+        private final SmartValidator delegate;
+        private final RentalMetrics rentalMetrics;
+
+        private TimedValidator(final SmartValidator delegate, final RentalMetrics rentalMetrics) {
+            this.delegate = delegate;
+            this.rentalMetrics = rentalMetrics;
+        }
+
+        @Override
+        public boolean supports(final Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(final Object target, final Errors errors) {
+            long start = rentalMetrics.start();
+            try {
+                delegate.validate(target, errors);
+            } finally {
+                rentalMetrics.recordStage(RentalStageEnum.VALIDATION, start);
+            }
+        }
+
+        @Override
+        public void validate(final Object target, final Errors errors, final Object... validationHints) {
+            long start = rentalMetrics.start();
+            try {
+                delegate.validate(target, errors, validationHints);
+            } finally {
+                rentalMetrics.recordStage(RentalStageEnum.VALIDATION, start);
+            }
+        }
+    }
+}
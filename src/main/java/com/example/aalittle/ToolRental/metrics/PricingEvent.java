@@ -0,0 +1,29 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for pricing a rental term and building its agreement
+ */
+@Name("com.example.aalittle.ToolRental.Pricing")
+@Label("Pricing")
+@Description("Evaluating the pricing plan of a rental term and building its agreement")
+public class PricingEvent extends RentalQuoteEvent {
+
+    @Label("Chargeable Days")
+    private int chargeableDays;
+
+    @Label("Final Charge (cents)")
+    private long finalChargeCents;
+
+    /**
+     * @param chargeableDays chargeable days of the rental term
+     * @param finalChargeCents charge after the discount, in cents
+     */
+    public void setCharge(final int chargeableDays, final long finalChargeCents) {
+        this.chargeableDays = chargeableDays;
+        this.finalChargeCents = finalChargeCents;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the meters of the rental pipeline. Meters are registered once up front
+ * so recording a stage is a clock read and an array lookup rather than a registry lookup.
+ */
+@Component
+public class RentalMetrics {
+
+    private static final String STAGE_TIMER = "tool.rental.stage";
+    private static final String REQUEST_TIMER = "tool.rental.request";
+    private static final String QUOTE_COUNTER = "tool.rental.quotes";
+    private static final String VALIDATION_FAILURE_COUNTER = "tool.rental.validation.failures";
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Timer[] stageTimers = new Timer[RentalStageEnum.values().length];
+    private final Counter[] quoteCounters = new Counter[ToolCodeEnum.values().length];
+    private final Timer singleRequestTimer;
+    private final Timer batchRequestTimer;
+    /// Field names come from RentalTerm so this stays small
+    private final Map<String, Counter> validationFailureCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RentalMetrics(final MeterRegistry meterRegistry,
+                         @Value("${tool-rental.metrics.enabled:true}") final boolean enabled) {
+        this.enabled = enabled;
+        this.meterRegistry = enabled ? meterRegistry : new CompositeMeterRegistry();
+        for (RentalStageEnum stage : RentalStageEnum.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder(STAGE_TIMER)
+                    .description("Time spent in one stage of quoting a rental")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(this.meterRegistry);
+        }
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            quoteCounters[toolCode.ordinal()] = Counter.builder(QUOTE_COUNTER)
+                    .description("Rental agreements issued")
+                    .tag("tool_code", toolCode.name())
+                    .register(this.meterRegistry);
+        }
+        singleRequestTimer = requestTimer("single");
+        batchRequestTimer = requestTimer("batch");
+    }
+
+    /**
+     * Metrics which record nothing, for services created outside of Spring
+     * @return a disabled {@link RentalMetrics}
+     */
+    public static RentalMetrics disabled() {
+        return new RentalMetrics(new CompositeMeterRegistry(), false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return a start time to hand back to one of the record methods, 0 when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void recordStage(final RentalStageEnum stage, final long startNanos) {
+        if (enabled) {
+            stageTimers[stage.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordSingleRequest(final long startNanos) {
+        if (enabled) {
+            singleRequestTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordBatchRequest(final long startNanos) {
+        if (enabled) {
+            batchRequestTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void countQuote(final ToolCodeEnum toolCode) {
+        if (enabled) {
+            quoteCounters[toolCode.ordinal()].increment();
+        }
+    }
+
+    public void countValidationFailure(final String field) {
+        if (enabled) {
+            validationFailureCounters.computeIfAbsent(field, key -> Counter.builder(VALIDATION_FAILURE_COUNTER)
+                    .description("Rental terms rejected by validation")
+                    .tag("field", key)
+                    .register(meterRegistry)).increment();
+        }
+    }
+
+    private Timer requestTimer(final String endpoint) {
+        return Timer.builder(REQUEST_TIMER)
+                .description("Time spent in the rental controller")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
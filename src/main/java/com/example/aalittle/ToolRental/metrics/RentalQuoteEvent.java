@@ -0,0 +1,53 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one stage of quoting a rental, carrying the shape of the {@link RentalTerm} so slow
+ * stages in a recording can be traced back to the terms behind them. The events are off unless a recording turns
+ * them on, e.g. with jfr/tool-rental.jfc, and their fields are only filled in once an event is going to be committed.
+ * Fields are protected as Flight Recorder leaves out the private fields of a superclass.
+ */
+@Category({"Tool Rental", "Quote"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class RentalQuoteEvent extends Event {
+
+    @Label("Tool Code")
+    protected String toolCode;
+
+    @Label("Checkout Date")
+    protected String checkoutDate;
+
+    @Label("Rental Days")
+    protected int rentalDayCount;
+
+    @Label("Discount Percent")
+    protected int discountPercent;
+
+    @Label("Holidays")
+    protected int holidayCount;
+
+    /**
+     * @param rentalTerm the {@link RentalTerm} being quoted
+     */
+    public void setRentalTerm(final RentalTerm rentalTerm) {
+        this.toolCode = rentalTerm.getToolCode() == null ? null : rentalTerm.getToolCode().name();
+        this.checkoutDate = rentalTerm.getCheckoutDate() == null ? null : rentalTerm.getCheckoutDate().toString();
+        this.rentalDayCount = rentalTerm.getRentalDayCount() == null ? 0 : rentalTerm.getRentalDayCount();
+        this.discountPercent = rentalTerm.getDiscountPercent();
+    }
+
+    /**
+     * @param holidayCount holidays observed from the day after checkout through the due date, -1 if the holidays of
+     *                     the period have not been loaded
+     */
+    public void setHolidayCount(final int holidayCount) {
+        this.holidayCount = holidayCount;
+    }
+}
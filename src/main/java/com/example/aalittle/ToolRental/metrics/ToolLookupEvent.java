@@ -0,0 +1,14 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for looking up the tool data of a rental term
+ */
+@Name("com.example.aalittle.ToolRental.ToolLookup")
+@Label("Tool Lookup")
+@Description("Looking up the tool data of a rental term in the catalog")
+public class ToolLookupEvent extends RentalQuoteEvent {
+}
@@ -0,0 +1,45 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Data class which holds all fields needed to search for the cheapest checkout dates of a rental
+ */
+@Data
+@AllArgsConstructor
+public class CheckoutSearchTerm {
+
+    @NotNull(message = "Please enter a valid tool code enum")
+    private ToolCodeEnum toolCode;
+
+    @NotNull
+    @JsonFormat(pattern = "MM/dd/yy")
+    private LocalDate earliestCheckoutDate;
+
+    @NotNull(message = "Search Days Must Be Entered")
+    @Min(value = 1, message = "Search day count must be 1 or more")
+    @Max(value = 3660, message = "Search day count must be 3660 or under")
+    private Integer searchDayCount;
+
+    @NotNull(message = "Rental Days Must Be Entered")
+    @Min(value = 1, message = "Rental day count must be 1 or more")
+    @Max(value = 3660, message = "Rental day count must be 3660 or under")
+    private Integer rentalDayCount;
+
+    @Min(value = 0, message = "Discount Percent must be 0 or more")
+    @Max(value = 100, message = "Discount Percent must be 100 or under")
+    private int discountPercent;
+
+    /// Number of checkout dates returned, 5 when not entered
+    @Min(value = 1, message = "Result count must be 1 or more")
+    private Integer resultCount;
+
+}
@@ -0,0 +1,24 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Data class which holds the totals of the agreement journal and how long it took to recover them
+ */
+@Builder
+@Data
+public class JournalSummary {
+
+    private long recordCount;
+    private long lastSequence;
+    private BigDecimal finalChargeTotal;
+    private Map<ToolCodeEnum, Long> agreementsByToolCode;
+    /// Records read back from the journal on startup, those after the last snapshot
+    private long replayedRecordCount;
+    private long recoveryMillis;
+}
@@ -0,0 +1,25 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data class which holds the charge for the days a reservation is kept past its due date
+ */
+@Builder
+@Data
+public class LateFee {
+
+    private long reservationId;
+    private ToolCodeEnum toolCode;
+    private LocalDate dueDate;
+    /// Day the unit came back, or the day the fee was worked out for a unit still out
+    private LocalDate returnDate;
+    private int lateDays;
+    private int chargeableLateDays;
+    private BigDecimal lateFee;
+}
@@ -0,0 +1,22 @@
+package com.example.aalittle.ToolRental.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data class which holds the late fees of every reservation overdue on a date
+ */
+@Builder
+@Data
+public class LateFeeReport {
+
+    private LocalDate asOfDate;
+    private int overdueCount;
+    private BigDecimal totalLateFee;
+    /// In the order the overdue reservations were given
+    private List<LateFee> lateFees;
+}
@@ -0,0 +1,18 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.HolidayEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Data class which holds a holiday and the day it is observed on
+ */
+@Data
+@AllArgsConstructor
+public class ObservedHoliday {
+
+    private LocalDate date;
+    private HolidayEnum holiday;
+}
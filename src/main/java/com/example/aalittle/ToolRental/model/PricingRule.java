@@ -0,0 +1,34 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.PricingRuleTypeEnum;
+import com.example.aalittle.ToolRental.utils.ChargeableDayUtils;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Data class which holds one pricing rule of a tool
+ */
+@Data
+@AllArgsConstructor
+public class PricingRule {
+
+    private PricingRuleTypeEnum type;
+    /// Only used by LONG_RENTAL_DISCOUNT, 0 for the other rules
+    private int minimumRentalDays;
+    /// A multiplier, an amount of money or a whole percent depending on the type
+    private BigDecimal amount;
+    /// Only used by WEEKEND_MULTIPLIER, the days of the week it multiplies, bit DayOfWeek.ordinal() per day
+    private int weekendDayMask;
+
+    /**
+     * Creates a rule whose weekend, if it is a WEEKEND_MULTIPLIER, is Saturday and Sunday
+     * @param type the rule type
+     * @param minimumRentalDays the minimum rental days of a LONG_RENTAL_DISCOUNT, 0 for the other rules
+     * @param amount the multiplier, amount of money or whole percent
+     */
+    public PricingRule(final PricingRuleTypeEnum type, final int minimumRentalDays, final BigDecimal amount) {
+        this(type, minimumRentalDays, amount, ChargeableDayUtils.WEEKEND_MASK);
+    }
+}
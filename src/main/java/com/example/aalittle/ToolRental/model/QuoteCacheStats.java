@@ -0,0 +1,28 @@
+package com.example.aalittle.ToolRental.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Data class which holds a snapshot of the quote cache, coalescing and batching counters
+ */
+@Builder
+@Data
+public class QuoteCacheStats {
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private int size;
+    private int maximumSize;
+    /// Cache misses which waited for a calculation another request had already started
+    private long coalescedCount;
+    /// Batches run by the quote batcher and the single quotes they held, 0 when batching is off
+    private long batchCount;
+    private long batchedCount;
+
+    public double getHitRate(){
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+}
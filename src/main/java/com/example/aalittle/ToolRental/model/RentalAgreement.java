@@ -3,6 +3,7 @@ package com.example.aalittle.ToolRental.model;
 import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
 import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
 import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.utils.ConsoleUtils;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,7 +15,7 @@ import java.time.format.DateTimeFormatter;
 /**
  * Data class which holds all fields necessary to create a rental agreement
  */
-@Builder
+@Builder(toBuilder = true)
 @Data
 public class RentalAgreement {
 
@@ -34,19 +35,32 @@ public class RentalAgreement {
     public void printToConsole(){
         DateTimeFormatter formatter = DateTimeFormatter
                 .ofPattern("MM/dd/yy");
-        System.out.println( new StringBuilder()
+        ConsoleUtils.print(appendTo(new StringBuilder(), formatter, NumberFormat.getCurrencyInstance())
+                .append(System.lineSeparator()));
+
+    }
+
+    /**
+     * Appends the printable form of the agreement, lets callers reuse formatters across agreements
+     * @param builder the {@link StringBuilder} to append to
+     * @param formatter formats the checkout and due dates
+     * @param currencyFormat formats money, {@link NumberFormat} is not thread safe so callers must not share it
+     * @return the builder
+     */
+    public StringBuilder appendTo(final StringBuilder builder, final DateTimeFormatter formatter,
+                                  final NumberFormat currencyFormat){
+        return builder
                .append("Tool code: ").append(toolCode).append("\n")
                .append("Tool type: ").append(toolType).append("\n")
                .append("Tool brand: ").append(toolBrand).append("\n")
                .append("Rental days: ").append(rentalDays).append("\n")
                .append("Checkout date: ").append(checkoutDate.format(formatter)).append("\n")
                .append("Due date: ").append(dueDate.format(formatter)).append("\n")
-               .append("Daily rental charge: ").append(NumberFormat.getCurrencyInstance().format(dailyCharge)).append("\n")
+               .append("Daily rental charge: ").append(currencyFormat.format(dailyCharge)).append("\n")
                .append("Charge days: ").append(chargeableDays).append("\n")
-               .append("Pre-discount charge: ").append(NumberFormat.getCurrencyInstance().format(subTotal)).append("\n")
+               .append("Pre-discount charge: ").append(currencyFormat.format(subTotal)).append("\n")
                .append("Discount percent: ").append(discountPercent.stripTrailingZeros().toPlainString()).append("%").append("\n")
-               .append("Discount amount: ").append(NumberFormat.getCurrencyInstance().format(discountAmount)).append("\n")
-               .append("Final charge: ").append(NumberFormat.getCurrencyInstance().format(discountCharge)).append("\n").toString());
-
+               .append("Discount amount: ").append(currencyFormat.format(discountAmount)).append("\n")
+               .append("Final charge: ").append(currencyFormat.format(discountCharge)).append("\n");
     }
 }
@@ -0,0 +1,27 @@
+package com.example.aalittle.ToolRental.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data class which holds the outcome of pricing a CSV file of rental terms
+ */
+@Builder
+@Data
+public class RentalCsvSummary {
+
+    private String inputPath;
+    private String outputPath;
+    private long inputBytes;
+    /// Lines holding a rental term, not counting blank lines or the header
+    private long rowCount;
+    private long pricedCount;
+    private long rejectedCount;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private double megabytesPerSecond;
+    /// The first rejected lines as "line N: reason", numbered from 1
+    private List<String> errors;
+}
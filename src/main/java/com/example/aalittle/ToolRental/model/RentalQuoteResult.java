@@ -0,0 +1,19 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Data class which holds the outcome of one rental term in a batch, either an agreement or its errors
+ */
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RentalQuoteResult {
+
+    private RentalAgreement rentalAgreement;
+    private Map<String, String> errors;
+}
@@ -17,6 +17,9 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class RentalTerm {
 
+    /// About 100 years, longer rentals are not priced
+    public static final int MAX_RENTAL_DAY_COUNT = 36600;
+
     @NotNull(message = "Please enter a valid tool code enum")
     private ToolCodeEnum toolCode;
 
@@ -26,6 +29,7 @@ public class RentalTerm {
 
     @NotNull(message = "Rental Days Must Be Entered")
     @Min(value = 1, message = "Rental day count must be 1 or more")
+    @Max(value = MAX_RENTAL_DAY_COUNT, message = "Rental day count must be 36600 or under")
     private Integer rentalDayCount;
 
     @Min(value = 0, message = "Discount Percent must be 0 or more")
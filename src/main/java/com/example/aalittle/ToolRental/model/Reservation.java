@@ -0,0 +1,21 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Data class which holds a physical tool unit booked from the checkout date until the due date
+ */
+@Builder
+@Data
+public class Reservation {
+
+    private long reservationId;
+    private ToolCodeEnum toolCode;
+    private int unitNumber;
+    private LocalDate checkoutDate;
+    private LocalDate dueDate;
+}
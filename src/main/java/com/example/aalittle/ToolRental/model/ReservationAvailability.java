@@ -0,0 +1,20 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Data class which holds how many units of a tool are free between two dates
+ */
+@Builder
+@Data
+public class ReservationAvailability {
+
+    private ToolCodeEnum toolCode;
+    private LocalDate checkoutDate;
+    private LocalDate dueDate;
+    private int availableUnits;
+}
@@ -0,0 +1,22 @@
+package com.example.aalittle.ToolRental.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Data class which holds the rental history totals of one tool code, brand or checkout date
+ */
+@Builder
+@Data
+public class RevenueGroup {
+
+    private String group;
+    private long agreementCount;
+    private long chargeableDays;
+    private BigDecimal subTotal;
+    private BigDecimal discountAmount;
+    /// Sub total less discount, what was charged
+    private BigDecimal revenue;
+}
@@ -0,0 +1,26 @@
+package com.example.aalittle.ToolRental.model;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data class which holds the rental history totals matching a query, overall and by group
+ */
+@Builder
+@Data
+public class RevenueReport {
+
+    private HistoryGroupByEnum groupBy;
+    /// Checkout date range of the query, null when open ended
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private long agreementCount;
+    private BigDecimal revenue;
+    /// Only groups with at least one agreement, in tool code, brand or date order
+    private List<RevenueGroup> groups;
+}
@@ -2,9 +2,16 @@ package com.example.aalittle.ToolRental.model;
 
 import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
 import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.utils.ChargeableDayUtils;
+import com.example.aalittle.ToolRental.utils.MoneyUtils;
+import com.example.aalittle.ToolRental.utils.PricingPlan;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.util.List;
 
 /**
  * Data class which holds information related to a tool
@@ -15,18 +22,50 @@ public class ToolData {
      private ToolTypeEnum toolType;
      private ToolBrandEnum toolBrand;
      private BigDecimal dailyCharge;
-     private boolean weekdayCharge;
-     private boolean weekendCharge;
+     private long dailyChargeCents;
+     /// Bit DayOfWeek.ordinal() is set when that day of the week is charged, Monday is bit 0
+     private int chargeableDayMask;
      private boolean holidayCharge;
+     private List<PricingRule> pricingRules;
+     /// Compiled from the daily charge and pricing rules when the tool data is built
+     @EqualsAndHashCode.Exclude
+     @ToString.Exclude
+     private PricingPlan pricingPlan;
 
      public ToolData(final ToolTypeEnum toolType, final ToolBrandEnum toolBrand, final BigDecimal dailyCharge,
-             boolean weekdayCharge, final boolean weekendCharge, final boolean holidayCharge ){
+             final int chargeableDayMask, final boolean holidayCharge, final List<PricingRule> pricingRules ){
+         if ((chargeableDayMask & ~ChargeableDayUtils.ALL_DAYS_MASK) != 0) {
+             throw new IllegalArgumentException("Chargeable day mask must fit in 7 bits");
+         }
          this.toolType = toolType;
          this.toolBrand = toolBrand;
          this.dailyCharge = dailyCharge;
-         this.weekdayCharge = weekdayCharge;
-         this.weekendCharge = weekendCharge;
+         this.dailyChargeCents = MoneyUtils.toCents(dailyCharge);
+         this.chargeableDayMask = chargeableDayMask;
          this.holidayCharge = holidayCharge;
+         this.pricingRules = List.copyOf(pricingRules);
+         this.pricingPlan = PricingPlan.compile(dailyChargeCents, this.pricingRules);
+     }
+
+     /**
+      * Tool charged the daily charge on each chargeable day, without further pricing rules
+      */
+     public ToolData(final ToolTypeEnum toolType, final ToolBrandEnum toolBrand, final BigDecimal dailyCharge,
+             final int chargeableDayMask, final boolean holidayCharge ){
+         this(toolType, toolBrand, dailyCharge, chargeableDayMask, holidayCharge, List.of());
+     }
+
+     /**
+      * Tool charged on weekdays and/or a Saturday and Sunday weekend
+      */
+     public ToolData(final ToolTypeEnum toolType, final ToolBrandEnum toolBrand, final BigDecimal dailyCharge,
+             boolean weekdayCharge, final boolean weekendCharge, final boolean holidayCharge ){
+         this(toolType, toolBrand, dailyCharge,
+                 (weekdayCharge ? ChargeableDayUtils.WEEKDAYS_MASK : 0)
+                         | (weekendCharge ? ChargeableDayUtils.WEEKEND_MASK : 0), holidayCharge);
+     }
 
+     public boolean isChargedOn(final DayOfWeek dayOfWeek) {
+         return (chargeableDayMask & (1 << dayOfWeek.ordinal())) != 0;
      }
 }
@@ -0,0 +1,157 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.AuditFullPolicyEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.utils.ConsoleUtils;
+import com.example.aalittle.ToolRental.utils.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service responsible for printing issued rental agreements.
+ * Request threads hand agreements to a ring buffer and a single background writer formats and prints them in batches.
+ */
+@Service
+public class AgreementAuditService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgreementAuditService.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    @Value("${tool-rental.agreement-audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tool-rental.agreement-audit.capacity:8192}")
+    private int capacity;
+
+    @Value("${tool-rental.agreement-audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${tool-rental.agreement-audit.full-policy:DROP}")
+    private AuditFullPolicyEnum fullPolicy;
+
+    private MpscRingBuffer<RentalAgreement> ringBuffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final LongAdder recordedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final AtomicBoolean writerDiedLogged = new AtomicBoolean();
+
+    /// Only touched by the writer thread, so the formatters are built once and reused
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance();
+    private final StringBuilder batchText = new StringBuilder();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        ringBuffer = new MpscRingBuffer<>(capacity);
+        running = true;
+        writerThread = new Thread(this::writeLoop, "agreement-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queues an agreement to be printed, never blocks unless the full policy is {@link AuditFullPolicyEnum#BLOCK}.
+     * Even then the agreement is dropped once the writer thread has stopped.
+     * @param rentalAgreement the issued {@link RentalAgreement}
+     */
+    public void record(final RentalAgreement rentalAgreement) {
+        if (!enabled) {
+            return;
+        }
+        recordedCount.increment();
+        while (!ringBuffer.offer(rentalAgreement)) {
+            if (fullPolicy == AuditFullPolicyEnum.DROP || !running) {
+                droppedCount.increment();
+                return;
+            }
+            //Nothing will ever drain the ring if the writer has died, drop rather than wait forever
+            if (!writerThread.isAlive()) {
+                if (writerDiedLogged.compareAndSet(false, true)) {
+                    LOGGER.error("Agreement audit writer has stopped, dropping agreements while the audit is full");
+                }
+                droppedCount.increment();
+                return;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if recording an agreement can wait for the writer thread
+     */
+    public boolean mayBlock() {
+        return enabled && fullPolicy == AuditFullPolicyEnum.BLOCK;
+    }
+
+    public long getRecordedCount() {
+        return recordedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        //Flush whatever was queued before shutdown
+        int written;
+        do {
+            written = writeBatch();
+        } while (written > 0);
+    }
+
+    private int writeBatch() {
+        batchText.setLength(0);
+        int written = ringBuffer.drain(rentalAgreement ->
+                rentalAgreement.appendTo(batchText, dateFormatter, currencyFormat).append(System.lineSeparator()),
+                batchSize);
+        if (written > 0) {
+            //One write per batch rather than one per agreement keeps time under the console lock down
+            ConsoleUtils.print(batchText);
+            writtenCount.add(written);
+        }
+        return written;
+    }
+}
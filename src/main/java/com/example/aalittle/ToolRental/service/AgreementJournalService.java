@@ -0,0 +1,126 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.model.JournalSummary;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.utils.AgreementJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Service responsible for keeping a durable record of issued rental agreements in an {@link AgreementJournal}
+ */
+@Service
+public class AgreementJournalService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgreementJournalService.class);
+
+    @Value("${tool-rental.agreement-journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tool-rental.agreement-journal.path:data/agreements.journal}")
+    private String path;
+
+    @Value("${tool-rental.agreement-journal.capacity:8192}")
+    private int capacity;
+
+    @Value("${tool-rental.agreement-journal.batch-size:256}")
+    private int batchSize;
+
+    @Value("${tool-rental.agreement-journal.snapshot-interval:100000}")
+    private long snapshotInterval;
+
+    /// When set a quote is only returned once its agreement is on disk
+    @Value("${tool-rental.agreement-journal.wait-for-sync:true}")
+    private boolean waitForSync;
+
+    private AgreementJournal agreementJournal;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        agreementJournal = AgreementJournal.open(Path.of(path), capacity, batchSize, snapshotInterval);
+        JournalSummary summary = agreementJournal.getSummary();
+        LOGGER.info("Recovered {} agreements from {}, replayed {} in {} ms", summary.getRecordCount(), path,
+                summary.getReplayedRecordCount(), summary.getRecoveryMillis());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (agreementJournal != null) {
+            agreementJournal.close();
+        }
+    }
+
+    /**
+     * Appends an agreement to the journal
+     * @param rentalAgreement the issued {@link RentalAgreement}
+     * @throws java.util.concurrent.CompletionException if waiting for sync and the agreement could not be written
+     */
+    public void record(final RentalAgreement rentalAgreement) {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture<Long> written = agreementJournal.append(rentalAgreement);
+        if (waitForSync) {
+            written.join();
+        }
+    }
+
+    /**
+     * Appends several agreements to the journal
+     * @param rentalAgreements the issued {@link RentalAgreement}s in the order they were issued
+     * @throws java.util.concurrent.CompletionException if waiting for sync and an agreement could not be written
+     */
+    public void recordAll(final List<RentalAgreement> rentalAgreements) {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture<?>[] written = new CompletableFuture<?>[rentalAgreements.size()];
+        for (int i = 0; i < written.length; i++) {
+            written[i] = agreementJournal.append(rentalAgreements.get(i));
+        }
+        if (waitForSync) {
+            CompletableFuture.allOf(written).join();
+        }
+    }
+
+    /**
+     * Reads back every agreement in the journal in the order they were written
+     * @param consumer receives each {@link RentalAgreement}
+     * @return number of agreements read, 0 if the journal is disabled
+     * @throws IOException if the journal can not be read
+     */
+    public long readAll(final Consumer<RentalAgreement> consumer) throws IOException {
+        return enabled ? AgreementJournal.readAll(Path.of(path), consumer) : 0;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if recording an agreement waits for it to reach the disk
+     */
+    public boolean mayBlock() {
+        return enabled && waitForSync;
+    }
+
+    /**
+     * @return totals of the journal or null if the journal is disabled
+     */
+    public JournalSummary getSummary() {
+        return enabled ? agreementJournal.getSummary() : null;
+    }
+}
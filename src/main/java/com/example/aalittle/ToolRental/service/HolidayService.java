@@ -1,36 +1,128 @@
 package com.example.aalittle.ToolRental.service;
 
+import com.example.aalittle.ToolRental.enums.HolidayEnum;
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import com.example.aalittle.ToolRental.model.ObservedHoliday;
+import com.example.aalittle.ToolRental.utils.HolidayIndex;
 import com.example.aalittle.ToolRental.utils.HolidayUtils;
-import de.focus_shift.jollyday.core.Holiday;
-import de.focus_shift.jollyday.core.HolidayManager;
-import de.focus_shift.jollyday.core.ManagerParameters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-import static de.focus_shift.jollyday.core.HolidayCalendar.UNITED_STATES;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service responsible providing information on Holidays
  */
 @Service
 public class HolidayService {
+
+    /// Years either side of the current year loaded at startup, anything outside is loaded on first use
+    private static final int PRELOADED_YEARS = 10;
+    /// Years either side of the current year kept once loaded, ranges reaching further get an index of their own
+    static final int RETAINED_YEARS = 200;
+
+    private final Set<HolidayEnum> chargeableHolidays;
+    private final int firstRetainedYear;
+    private final int lastRetainedYear;
+    private volatile HolidayIndex holidayIndex;
+    /// Request threads can be virtual, waiting on a monitor would pin them
+    private final ReentrantLock extendLock = new ReentrantLock();
+
+    /// Replaced by the application metrics when created by Spring
+    @Autowired
+    private RentalMetrics rentalMetrics = RentalMetrics.disabled();
+
+    public HolidayService() {
+        this(HolidayUtils.HOLIDAY_SET);
+    }
+
+    /**
+     * @param chargeableHolidays the holidays which are not charged for tools without a holiday charge,
+     *                           assumption that hardware store is US only
+     */
+    @Autowired
+    public HolidayService(@Value("${tool-rental.holidays:INDEPENDENCE_DAY,LABOR_DAY}")
+                          final Set<HolidayEnum> chargeableHolidays) {
+        int currentYear = LocalDate.now().getYear();
+        this.chargeableHolidays = chargeableHolidays;
+        firstRetainedYear = currentYear - RETAINED_YEARS;
+        lastRetainedYear = currentYear + RETAINED_YEARS;
+        holidayIndex = HolidayIndex.build(currentYear - PRELOADED_YEARS, currentYear + PRELOADED_YEARS,
+                chargeableHolidays);
+    }
+
     /**
      * Finds all holidays in a given data range
      * @param startDate the start of the date range to find holidays (inclusive)
      * @param endDate the end of the date range to find holidays (inclusive)
-     * @return a {@link Set} of {@link Holiday}
+     * @return a {@link Set} of {@link ObservedHoliday}
      */
-    public Set<Holiday> findHolidaysInRange(final LocalDate startDate, final LocalDate endDate){
-        ///Assumption that hardware store is US only
-        HolidayManager holidayManager = HolidayManager.getInstance(ManagerParameters.create(UNITED_STATES));
+    public Set<ObservedHoliday> findHolidaysInRange(final LocalDate startDate, final LocalDate endDate){
+        HolidayIndex index = getHolidayIndex(startDate, endDate);
+        Set<ObservedHoliday> holidays = new HashSet<>();
+        for (int i = index.fromIndex(startDate); i < index.toIndex(endDate); i++) {
+            holidays.add(new ObservedHoliday(LocalDate.ofEpochDay(index.epochDayAt(i)), index.holidayAt(i)));
+        }
+        return holidays;
+    }
 
-        Set<Holiday> holidays = holidayManager.getHolidays(startDate, endDate);
-        return holidays.stream().filter( holiday ->
-                HolidayUtils.HOLIDAY_SET.contains(holiday.getDescription()
-                        .toLowerCase())).collect(Collectors.toSet());
+    /**
+     * Checks if a date is a chargeable holiday
+     * @param date the date to check
+     * @return true if a holiday is observed on the date
+     */
+    public boolean isHoliday(final LocalDate date) {
+        return getHolidayIndex(date, date).isHoliday(date);
+    }
+
+    /**
+     * Counts the holidays in a given date range without building a {@link Set}
+     * @param startDate the start of the date range (inclusive)
+     * @param endDate the end of the date range (inclusive)
+     * @return number of holidays in the range
+     */
+    public int countHolidaysInRange(final LocalDate startDate, final LocalDate endDate) {
+        return getHolidayIndex(startDate, endDate).countInRange(startDate, endDate);
+    }
 
+    /**
+     * @return the holiday index as loaded so far, without loading more years or timing the lookup
+     */
+    public HolidayIndex getLoadedHolidayIndex() {
+        return holidayIndex;
+    }
+
+    /**
+     * Retrieves the holiday index, loading any years of the range which have not been loaded yet.
+     * Years more than {@value #RETAINED_YEARS} from the current year are loaded into an index which is not kept,
+     * so far off dates can not grow the shared index without bound.
+     * @param startDate the start of the date range which must be covered
+     * @param endDate the end of the date range which must be covered
+     * @return a {@link HolidayIndex} covering the range
+     */
+    public HolidayIndex getHolidayIndex(final LocalDate startDate, final LocalDate endDate) {
+        /// A holiday can be observed in the year before or after it falls (e.g. Jan 1st on a Saturday)
+        int fromYear = Math.min(startDate.getYear(), endDate.getYear()) - 1;
+        int toYear = Math.max(startDate.getYear(), endDate.getYear()) + 1;
+        long start = rentalMetrics.start();
+        HolidayIndex index = holidayIndex;
+        if (fromYear < firstRetainedYear || toYear > lastRetainedYear) {
+            index = HolidayIndex.build(fromYear, toYear, chargeableHolidays);
+        } else if (!index.covers(fromYear, toYear)) {
+            extendLock.lock();
+            try {
+                holidayIndex = holidayIndex.extend(fromYear, toYear);
+                index = holidayIndex;
+            } finally {
+                extendLock.unlock();
+            }
+        }
+        rentalMetrics.recordStage(RentalStageEnum.HOLIDAY_RESOLUTION, start);
+        return index;
     }
 }
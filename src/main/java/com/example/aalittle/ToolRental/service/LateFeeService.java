@@ -0,0 +1,232 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.LateFee;
+import com.example.aalittle.ToolRental.model.LateFeeReport;
+import com.example.aalittle.ToolRental.model.Reservation;
+import com.example.aalittle.ToolRental.model.ToolData;
+import com.example.aalittle.ToolRental.utils.ChargeableDayUtils;
+import com.example.aalittle.ToolRental.utils.HolidayIndex;
+import com.example.aalittle.ToolRental.utils.MoneyUtils;
+import com.example.aalittle.ToolRental.utils.PricingPlan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Service responsible for charging the days a reservation is kept past its due date. Late days run from the day
+ * after the due date through the return date and are charged like rental days: only the tool's chargeable days, with
+ * its holiday policy and its daily, weekend and holiday charges. Late days earn no discount and no minimum charge.
+ * <p>
+ * The bulk job prices every overdue reservation as of one date. All of them end on that date, so each charge policy
+ * needs one pass over the days from the earliest due date, after which each reservation is priced from running
+ * counts without looking at a single date. Reservations are split across cores on the common fork/join pool.
+ */
+@Service
+public class LateFeeService {
+
+    @Value("${tool-rental.late-fee.chunk-size:4096}")
+    private int chunkSize;
+
+    @Autowired
+    private ToolDataRetrievalService toolDataRetrievalService;
+
+    @Autowired
+    private HolidayService holidayService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * Works out the late fee of one reservation
+     * @param reservation the {@link Reservation}
+     * @param returnDate day the unit came back
+     * @return the {@link LateFee}, charging nothing when the unit came back by the due date
+     */
+    public LateFee calculateLateFee(final Reservation reservation, final LocalDate returnDate) {
+        ToolData toolData = toolDataRetrievalService.retrieveToolData(reservation.getToolCode());
+        LocalDate dueDate = reservation.getDueDate();
+        int lateDays = (int) Math.max(0, returnDate.toEpochDay() - dueDate.toEpochDay());
+        PricingPlan pricingPlan = toolData.getPricingPlan();
+        boolean needsRuleDays = pricingPlan.needsWeekendDays() || pricingPlan.needsHolidays();
+        //Holidays are only needed if they are free for this tool or a pricing rule reads them
+        HolidayIndex holidayIndex = lateDays == 0 || (toolData.isHolidayCharge() && !needsRuleDays) ? null
+                : holidayService.getHolidayIndex(dueDate, returnDate);
+
+        long[] registers = new long[PricingPlan.REGISTER_COUNT];
+        int chargeableLateDays = lateDays == 0 ? 0
+                : ChargeableDayUtils.countChargeableDays(toolData, dueDate, lateDays, holidayIndex);
+        registers[PricingPlan.CHARGEABLE_DAYS] = chargeableLateDays;
+        registers[PricingPlan.RENTAL_DAYS] = lateDays;
+        if (lateDays > 0 && needsRuleDays) {
+            registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = ChargeableDayUtils.countChargeableDays(
+                    toolData.getChargeableDayMask() & pricingPlan.weekendDayMask(), toolData.isHolidayCharge(),
+                    dueDate, lateDays, holidayIndex);
+            registers[PricingPlan.CHARGEABLE_HOLIDAYS] = toolData.isHolidayCharge() ? holidayIndex.countInRange(
+                    dueDate.plusDays(1), returnDate, toolData.getChargeableDayMask()) : 0;
+        }
+        pricingPlan.evaluateDayCharges(registers);
+        return lateFee(reservation, returnDate, lateDays, chargeableLateDays, registers[PricingPlan.SUB_TOTAL]);
+    }
+
+    /**
+     * Works out the late fee of every reservation overdue on a date
+     * @param asOfDate the date fees are worked out to, as though every overdue unit came back that day
+     * @return a {@link LateFeeReport}
+     */
+    public LateFeeReport calculateOverdueLateFees(final LocalDate asOfDate) {
+        return calculateLateFees(reservationService.findOverdueReservations(asOfDate), asOfDate);
+    }
+
+    /**
+     * Works out the late fees of many reservations as of one date in a single pass
+     * @param reservations the {@link Reservation}s, any not overdue on the date are charged nothing
+     * @param asOfDate the date fees are worked out to, as though every unit came back that day
+     * @return a {@link LateFeeReport} with one {@link LateFee} per reservation in the same order
+     */
+    public LateFeeReport calculateLateFees(final List<Reservation> reservations, final LocalDate asOfDate) {
+        long asOfDay = asOfDate.toEpochDay();
+        long firstDueDay = asOfDay;
+        for (Reservation reservation : reservations) {
+            firstDueDay = Math.min(firstDueDay, reservation.getDueDate().toEpochDay());
+        }
+        LocalDate firstDueDate = LocalDate.ofEpochDay(firstDueDay);
+        int dayCount = Math.toIntExact(asOfDay - firstDueDay);
+        HolidayIndex holidayIndex = holidayService.getHolidayIndex(firstDueDate, asOfDate);
+
+        //Running counts are shared by every tool with the same charge policy
+        LateRates[] ratesByTool = new LateRates[ToolCodeEnum.values().length];
+        Map<ChargePolicy, int[]> prefixSumsByPolicy = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            ToolCodeEnum toolCode = reservation.getToolCode();
+            if (ratesByTool[toolCode.ordinal()] == null) {
+                ratesByTool[toolCode.ordinal()] = lateRates(toolDataRetrievalService.retrieveToolData(toolCode),
+                        firstDueDate, dayCount, holidayIndex, prefixSumsByPolicy);
+            }
+        }
+
+        LateFee[] lateFees = new LateFee[reservations.size()];
+        LateFeeJob job = new LateFeeJob(reservations, asOfDate, firstDueDay, dayCount, ratesByTool, lateFees,
+                Math.max(1, chunkSize));
+        long totalCents = ForkJoinPool.commonPool().invoke(job.new LateFeeTask(0, lateFees.length));
+        int overdueCount = 0;
+        for (LateFee lateFee : lateFees) {
+            if (lateFee.getLateDays() > 0) {
+                overdueCount++;
+            }
+        }
+        return LateFeeReport.builder()
+                .asOfDate(asOfDate)
+                .overdueCount(overdueCount)
+                .totalLateFee(MoneyUtils.toBigDecimal(totalCents))
+                .lateFees(Arrays.asList(lateFees)).build();
+    }
+
+    private static LateRates lateRates(final ToolData toolData, final LocalDate firstDueDate, final int dayCount,
+                                       final HolidayIndex holidayIndex, final Map<ChargePolicy, int[]> prefixSums) {
+        int chargeableDayMask = toolData.getChargeableDayMask();
+        boolean holidayCharge = toolData.isHolidayCharge();
+        PricingPlan pricingPlan = toolData.getPricingPlan();
+        int[] chargeable = prefixSums(chargeableDayMask, holidayCharge, firstDueDate, dayCount, holidayIndex,
+                prefixSums);
+        int[] weekend = pricingPlan.needsWeekendDays() ? prefixSums(chargeableDayMask & pricingPlan.weekendDayMask(),
+                holidayCharge, firstDueDate, dayCount, holidayIndex, prefixSums) : null;
+        //Charged holidays are the chargeable days which would be free if holidays were not charged
+        int[] holidayFree = pricingPlan.needsHolidays() && holidayCharge ? prefixSums(chargeableDayMask, false,
+                firstDueDate, dayCount, holidayIndex, prefixSums) : null;
+        return new LateRates(pricingPlan, chargeable, weekend, holidayFree);
+    }
+
+    private static int[] prefixSums(final int chargeableDayMask, final boolean holidayCharge,
+                                    final LocalDate firstDueDate, final int dayCount, final HolidayIndex holidayIndex,
+                                    final Map<ChargePolicy, int[]> prefixSums) {
+        return prefixSums.computeIfAbsent(new ChargePolicy(chargeableDayMask, holidayCharge),
+                policy -> ChargeableDayUtils.chargeableDayPrefixSums(chargeableDayMask, holidayCharge, firstDueDate,
+                        dayCount, holidayIndex));
+    }
+
+    private static LateFee lateFee(final Reservation reservation, final LocalDate returnDate, final int lateDays,
+                                   final int chargeableLateDays, final long lateFeeCents) {
+        return LateFee.builder()
+                .reservationId(reservation.getReservationId())
+                .toolCode(reservation.getToolCode())
+                .dueDate(reservation.getDueDate())
+                .returnDate(returnDate)
+                .lateDays(lateDays)
+                .chargeableLateDays(chargeableLateDays)
+                .lateFee(MoneyUtils.toBigDecimal(lateFeeCents)).build();
+    }
+
+    /// Chargeable day mask and holiday policy, tools sharing both share their running counts
+    private record ChargePolicy(int chargeableDayMask, boolean holidayCharge) {
+    }
+
+    /// Running counts of one tool from the earliest due date, weekend and holiday-free counts only when read
+    private record LateRates(PricingPlan pricingPlan, int[] chargeable, int[] weekend, int[] holidayFree) {
+    }
+
+    /// Everything shared by the tasks of one bulk run, each task writes its own range of the results
+    private record LateFeeJob(List<Reservation> reservations, LocalDate asOfDate, long firstDueDay, int dayCount,
+                              LateRates[] ratesByTool, LateFee[] lateFees, int chunkSize) {
+
+        /// Prices a range of reservations and returns their total in cents, splitting in half above the chunk size
+        private final class LateFeeTask extends RecursiveTask<Long> {
+
+            private final int from;
+            private final int to;
+
+            private LateFeeTask(final int from, final int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Long compute() {
+                if (to - from <= chunkSize) {
+                    return priceRange();
+                }
+                int middle = (from + to) >>> 1;
+                LateFeeTask left = new LateFeeTask(from, middle);
+                left.fork();
+                long right = new LateFeeTask(middle, to).compute();
+                return left.join() + right;
+            }
+
+            private long priceRange() {
+                long[] registers = new long[PricingPlan.REGISTER_COUNT];
+                long totalCents = 0;
+                for (int i = from; i < to; i++) {
+                    Reservation reservation = reservations.get(i);
+                    LateRates rates = ratesByTool[reservation.getToolCode().ordinal()];
+                    //Every late period ends on the as of date, the last running count
+                    int offset = (int) Math.min(dayCount, reservation.getDueDate().toEpochDay() - firstDueDay);
+                    int chargeableLateDays = rates.chargeable()[dayCount] - rates.chargeable()[offset];
+                    registers[PricingPlan.CHARGEABLE_DAYS] = chargeableLateDays;
+                    registers[PricingPlan.RENTAL_DAYS] = dayCount - offset;
+                    if (rates.weekend() != null) {
+                        registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = rates.weekend()[dayCount]
+                                - rates.weekend()[offset];
+                    }
+                    if (rates.holidayFree() != null) {
+                        registers[PricingPlan.CHARGEABLE_HOLIDAYS] = chargeableLateDays
+                                - (rates.holidayFree()[dayCount] - rates.holidayFree()[offset]);
+                    }
+                    rates.pricingPlan().evaluateDayCharges(registers);
+                    long lateFeeCents = registers[PricingPlan.SUB_TOTAL];
+                    lateFees[i] = lateFee(reservation, asOfDate, dayCount - offset, chargeableLateDays,
+                            lateFeeCents);
+                    totalCents += lateFeeCents;
+                }
+                return totalCents;
+            }
+        }
+    }
+}
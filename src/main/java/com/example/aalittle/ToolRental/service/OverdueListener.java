@@ -0,0 +1,16 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.model.Reservation;
+
+/**
+ * Receives reservations which have passed their due date without being returned. Every bean implementing it is
+ * called by the {@link OverdueTrackerService}, outside its lock, on the thread advancing the day.
+ */
+@FunctionalInterface
+public interface OverdueListener {
+
+    /**
+     * @param reservation the overdue {@link Reservation}
+     */
+    void onOverdue(Reservation reservation);
+}
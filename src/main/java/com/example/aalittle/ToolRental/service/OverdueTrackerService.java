@@ -0,0 +1,179 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.model.Reservation;
+import com.example.aalittle.ToolRental.utils.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service responsible for flagging reservations whose due date has passed. Each open reservation is scheduled in a
+ * {@link TimingWheel} of epoch days for the day after its due date, so tracking, returning and expiring a
+ * reservation never look at the other open reservations. Overdue reservations are handed to every
+ * {@link OverdueListener}.
+ */
+@Service
+public class OverdueTrackerService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OverdueTrackerService.class);
+
+    @Value("${tool-rental.overdue.enabled:true}")
+    private boolean enabled;
+
+    /// How often the date is checked, overdue reservations are flagged within this long of midnight
+    @Value("${tool-rental.overdue.check-interval-ms:60000}")
+    private long checkIntervalMs;
+
+    @Autowired(required = false)
+    private List<OverdueListener> overdueListeners = List.of();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private TimingWheel<Reservation> timingWheel;
+    private final Map<Long, TimingWheel.Timer<Reservation>> timers = new HashMap<>();
+    private final LongAdder overdueCount = new LongAdder();
+
+    private ScheduledExecutorService checkExecutor;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        timingWheel = new TimingWheel<>(LocalDate.now().toEpochDay());
+        if (checkIntervalMs > 0) {
+            checkExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "overdue-tracker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checkExecutor.scheduleWithFixedDelay(() -> advanceTo(LocalDate.now()), checkIntervalMs, checkIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts tracking a reservation, one already past its due date is flagged straight away
+     * @param reservation a booked {@link Reservation}
+     */
+    public void track(final Reservation reservation) {
+        if (!enabled) {
+            return;
+        }
+        TimingWheel.Timer<Reservation> timer;
+        lock.lock();
+        try {
+            //Due back on the due date, so overdue from the day after
+            timer = timingWheel.schedule(reservation.getDueDate().toEpochDay() + 1, reservation);
+            if (timer != null) {
+                timers.put(reservation.getReservationId(), timer);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (timer == null) {
+            notifyOverdue(List.of(reservation));
+        }
+    }
+
+    /**
+     * Stops tracking a reservation which has been returned or cancelled
+     * @param reservationId id of the {@link Reservation}
+     * @return false if the reservation was not tracked or is already overdue
+     */
+    public boolean untrack(final long reservationId) {
+        if (!enabled) {
+            return false;
+        }
+        lock.lock();
+        try {
+            TimingWheel.Timer<Reservation> timer = timers.remove(reservationId);
+            return timer != null && timingWheel.cancel(timer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the tracker to a date, flagging every reservation which became overdue on the way
+     * @param today the current date, dates before the last one seen are ignored
+     * @return number of reservations flagged
+     */
+    public int advanceTo(final LocalDate today) {
+        if (!enabled) {
+            return 0;
+        }
+        List<Reservation> overdue = new ArrayList<>();
+        lock.lock();
+        try {
+            timingWheel.advanceTo(today.toEpochDay(), reservation -> {
+                timers.remove(reservation.getReservationId());
+                overdue.add(reservation);
+            });
+        } finally {
+            lock.unlock();
+        }
+        if (!overdue.isEmpty()) {
+            LOGGER.info("{} reservations are overdue as of {}", overdue.size(), today);
+            notifyOverdue(overdue);
+        }
+        return overdue.size();
+    }
+
+    /**
+     * @return number of reservations being tracked which are not overdue yet
+     */
+    public int getTrackedCount() {
+        if (!enabled) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            return timingWheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of reservations flagged overdue
+     */
+    public long getOverdueCount() {
+        return overdueCount.sum();
+    }
+
+    private void notifyOverdue(final List<Reservation> overdue) {
+        overdueCount.add(overdue.size());
+        for (Reservation reservation : overdue) {
+            for (OverdueListener overdueListener : overdueListeners) {
+                try {
+                    overdueListener.onOverdue(reservation);
+                } catch (RuntimeException e) {
+                    //One failing listener must not keep the others or later reservations from being told
+                    LOGGER.error("Overdue listener failed for reservation {}", reservation.getReservationId(), e);
+                }
+            }
+        }
+    }
+}
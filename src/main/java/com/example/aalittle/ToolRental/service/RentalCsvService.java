@@ -0,0 +1,238 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalCsvSummary;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.utils.AgreementCsvWriter;
+import com.example.aalittle.ToolRental.utils.RentalTermCsvParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service responsible for pricing CSV files of rental terms into CSV files of rental agreements. The input is memory
+ * mapped a chunk at a time and each chunk is read by the {@link RentalTermCsvParser} in place, priced through the
+ * {@link ToolRentalCalculationService} in batches and formatted by an {@link AgreementCsvWriter}, all on a worker
+ * thread. Chunks are written out in input order through one file channel as they complete, with only a few chunks
+ * in flight per worker so memory does not grow with the file.
+ */
+@Service
+public class RentalCsvService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RentalCsvService.class);
+    private static final int MAX_ERRORS = 100;
+    private static final int CHUNKS_IN_FLIGHT_PER_WORKER = 2;
+
+    /// Bytes of input per chunk, a chunk is mapped, parsed and priced as one task
+    @Value("${tool-rental.csv.chunk-bytes:1048576}")
+    private int chunkBytes;
+
+    /// Terms per call to the calculation service, kept under tool-rental.bulk.fan-out-threshold so each batch is
+    /// priced on the worker holding it
+    @Value("${tool-rental.csv.batch-size:1024}")
+    private int batchSize;
+
+    /// Worker threads, 0 for one per processor
+    @Value("${tool-rental.csv.workers:0}")
+    private int workers;
+
+    @Value("${tool-rental.csv.progress-interval-ms:5000}")
+    private long progressIntervalMs;
+
+    @Autowired
+    private ToolRentalCalculationService toolRentalCalculationService;
+
+    /**
+     * Prices every rental term in a CSV file, see {@link RentalTermCsvParser} for the input and
+     * {@link AgreementCsvWriter} for the output. Lines which can not be read or priced are left out of the output and
+     * counted as rejected.
+     * @param input CSV file of rental terms, with or without a header line
+     * @param output CSV file the agreements are written to in input order, replaced if it exists
+     * @return a {@link RentalCsvSummary} with the counts and throughput
+     * @throws IOException if a file can not be read or written
+     */
+    public RentalCsvSummary priceFile(final Path input, final Path output) throws IOException {
+        long start = System.nanoTime();
+        int threadCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "rental-csv-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long inputBytes = in.size();
+            long chunkCount = (inputBytes + chunkBytes - 1) / chunkBytes;
+            writeFully(out, ByteBuffer.wrap(AgreementCsvWriter.HEADER.getBytes(StandardCharsets.US_ASCII)));
+
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            long nextChunk = 0;
+            long chunksDone = 0;
+            long linesBefore = 0;
+            long rowCount = 0;
+            long pricedCount = 0;
+            List<String> errors = new ArrayList<>();
+            long rejectedCount = 0;
+            long lastProgress = start;
+            while (nextChunk < chunkCount || !inFlight.isEmpty()) {
+                while (nextChunk < chunkCount && inFlight.size() < threadCount * CHUNKS_IN_FLIGHT_PER_WORKER) {
+                    long chunk = nextChunk++;
+                    inFlight.add(executor.submit(() -> priceChunk(in, inputBytes, chunk)));
+                }
+                ChunkResult result = await(inFlight.poll());
+                writeFully(out, result.output().toByteBuffer());
+                rowCount += result.rowCount();
+                pricedCount += result.pricedCount();
+                rejectedCount += result.errorLines().size();
+                for (int i = 0; i < result.errorLines().size() && errors.size() < MAX_ERRORS; i++) {
+                    errors.add("line " + (linesBefore + result.errorLines().get(i) + 1) + ": "
+                            + result.errorMessages().get(i));
+                }
+                linesBefore += result.lineCount();
+                chunksDone++;
+
+                long now = System.nanoTime();
+                if (progressIntervalMs > 0
+                        && now - lastProgress >= TimeUnit.MILLISECONDS.toNanos(progressIntervalMs)) {
+                    lastProgress = now;
+                    LOGGER.info("Priced {} rows, {} of {} MB read, {} rows per second", pricedCount,
+                            Math.min(inputBytes, chunksDone * chunkBytes) >> 20, inputBytes >> 20,
+                            perSecond(rowCount, now - start));
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            RentalCsvSummary summary = RentalCsvSummary.builder()
+                    .inputPath(input.toString())
+                    .outputPath(output.toString())
+                    .inputBytes(inputBytes)
+                    .rowCount(rowCount)
+                    .pricedCount(pricedCount)
+                    .rejectedCount(rejectedCount)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                    .rowsPerSecond(perSecond(rowCount, elapsedNanos))
+                    .megabytesPerSecond(elapsedNanos == 0 ? 0
+                            : inputBytes / (1024.0 * 1024.0) / (elapsedNanos / 1e9))
+                    .errors(errors).build();
+            LOGGER.info("Priced {} rows of {} into {} in {} ms, {} rows per second, {} rejected", pricedCount, input,
+                    output, summary.getElapsedMillis(), summary.getRowsPerSecond(), rejectedCount);
+            return summary;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /// Maps the chunk with the byte before it, to tell whether a line starts on its first byte, and enough after it
+    /// to finish its last line
+    private ChunkResult priceChunk(final FileChannel in, final long inputBytes, final long chunk) throws IOException {
+        long chunkStart = chunk * chunkBytes;
+        long chunkEnd = Math.min(inputBytes, chunkStart + chunkBytes);
+        long mapStart = Math.max(0, chunkStart - 1);
+        long mapEnd = Math.min(inputBytes, chunkEnd + RentalTermCsvParser.MAX_LINE_BYTES + 2);
+        MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int from = RentalTermCsvParser.firstLineStart(buffer, (int) (chunkStart - mapStart));
+
+        List<RentalTerm> terms = new ArrayList<>();
+        List<Integer> termLines = new ArrayList<>();
+        List<Integer> errorLines = new ArrayList<>();
+        List<String> errorMessages = new ArrayList<>();
+        int lineCount = RentalTermCsvParser.parse(buffer, from, (int) (chunkEnd - mapStart), mapEnd == inputBytes,
+                chunk == 0, new RentalTermCsvParser.Sink() {
+                    @Override
+                    public void term(final int line, final RentalTerm rentalTerm) {
+                        terms.add(rentalTerm);
+                        termLines.add(line);
+                    }
+
+                    @Override
+                    public void error(final int line, final String message) {
+                        errorLines.add(line);
+                        errorMessages.add(message);
+                    }
+                });
+
+        //An agreement line is about four times as long as the term it came from
+        AgreementCsvWriter output = new AgreementCsvWriter((int) Math.min(chunkBytes * 4L, Integer.MAX_VALUE / 2));
+        int pricedCount = 0;
+        int rowCount = terms.size() + errorLines.size();
+        for (int batchStart = 0; batchStart < terms.size(); batchStart += batchSize) {
+            List<RentalTerm> batch = terms.subList(batchStart, Math.min(batchStart + batchSize, terms.size()));
+            List<RentalAgreement> rentalAgreements;
+            try {
+                rentalAgreements = toolRentalCalculationService.calculateToolRentals(batch);
+            } catch (RuntimeException e) {
+                //Price the batch one term at a time so only the term at fault is rejected
+                rentalAgreements = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        rentalAgreements.add(toolRentalCalculationService.calculateToolRental(batch.get(i)));
+                    } catch (RuntimeException termFailure) {
+                        rentalAgreements.add(null);
+                        errorLines.add(termLines.get(batchStart + i));
+                        errorMessages.add("Could not be priced: " + termFailure.getMessage());
+                    }
+                }
+            }
+            for (RentalAgreement rentalAgreement : rentalAgreements) {
+                if (rentalAgreement != null) {
+                    output.write(rentalAgreement);
+                    pricedCount++;
+                }
+            }
+        }
+        return new ChunkResult(output, lineCount, rowCount, pricedCount, errorLines, errorMessages);
+    }
+
+    private static ChunkResult await(final Future<ChunkResult> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pricing a CSV file", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Pricing a CSV file failed", e.getCause());
+        }
+    }
+
+    private static void writeFully(final FileChannel out, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static long perSecond(final long count, final long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : count * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /// A priced chunk, errors are numbered by line within the chunk and renumbered once the lines before are known
+    private record ChunkResult(AgreementCsvWriter output, int lineCount, int rowCount, int pricedCount,
+                               List<Integer> errorLines, List<String> errorMessages) {
+    }
+}
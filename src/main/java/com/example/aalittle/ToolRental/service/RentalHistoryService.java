@@ -0,0 +1,161 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RevenueGroup;
+import com.example.aalittle.ToolRental.model.RevenueReport;
+import com.example.aalittle.ToolRental.utils.MoneyUtils;
+import com.example.aalittle.ToolRental.utils.RentalHistory;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service responsible for keeping issued rental agreements in a columnar {@link RentalHistory} and answering
+ * revenue queries over it. When the agreement journal is enabled the history is rebuilt from it on startup.
+ */
+@Service
+public class RentalHistoryService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RentalHistoryService.class);
+
+    @Value("${tool-rental.rental-history.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tool-rental.rental-history.segment-size:65536}")
+    private int segmentSize;
+
+    @Autowired
+    private AgreementJournalService agreementJournalService;
+
+    private RentalHistory rentalHistory;
+
+    @PostConstruct
+    void load() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        rentalHistory = new RentalHistory(segmentSize);
+        long start = System.nanoTime();
+        long loaded = agreementJournalService.readAll(rentalHistory::append);
+        if (loaded > 0) {
+            LOGGER.info("Loaded {} agreements into the rental history in {} ms", loaded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Adds an agreement to the history
+     * @param rentalAgreement the issued {@link RentalAgreement}
+     */
+    public void record(final RentalAgreement rentalAgreement) {
+        if (enabled) {
+            rentalHistory.append(rentalAgreement);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return number of agreements in the history
+     */
+    public long size() {
+        return enabled ? rentalHistory.size() : 0;
+    }
+
+    /**
+     * Totals revenue, chargeable days and discounts of the agreements matching a filter, grouped by tool code,
+     * brand or checkout date. Segments are scanned in parallel on the common fork/join pool.
+     * @param fromDate first checkout date included, null for no lower bound
+     * @param toDate last checkout date included, null for no upper bound
+     * @param toolCodes tools included, null or empty for every tool
+     * @param toolBrands brands included, null or empty for every brand
+     * @param groupBy what the totals are grouped by
+     * @return a {@link RevenueReport}, empty when the history is disabled
+     * @throws IllegalArgumentException if the from date is after the to date
+     */
+    public RevenueReport aggregateRevenue(final LocalDate fromDate, final LocalDate toDate,
+                                          final Set<ToolCodeEnum> toolCodes, final Set<ToolBrandEnum> toolBrands,
+                                          final HistoryGroupByEnum groupBy) {
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date must not be after to date");
+        }
+        RevenueReport.RevenueReportBuilder report = RevenueReport.builder()
+                .groupBy(groupBy)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .revenue(MoneyUtils.toBigDecimal(0))
+                .groups(List.of());
+        if (!enabled || rentalHistory.size() == 0) {
+            return report.build();
+        }
+        long fromDay = fromDate == null ? Long.MIN_VALUE : fromDate.toEpochDay();
+        long toDay = toDate == null ? Long.MAX_VALUE : toDate.toEpochDay();
+        if (groupBy == HistoryGroupByEnum.CHECKOUT_DATE) {
+            //One group per day, so only the days which hold agreements
+            fromDay = Math.max(fromDay, rentalHistory.getFirstDay());
+            toDay = Math.min(toDay, rentalHistory.getLastDay());
+            if (fromDay > toDay) {
+                return report.build();
+            }
+        }
+        RentalHistory.Totals totals = rentalHistory.aggregate(fromDay, toDay, toMask(toolCodes),
+                toMask(toolBrands), groupBy, ForkJoinPool.commonPool());
+
+        List<RevenueGroup> groups = new ArrayList<>();
+        long agreementCount = 0;
+        long revenueCents = 0;
+        for (int group = 0; group < totals.getGroupCount(); group++) {
+            if (totals.getAgreementCount(group) == 0) {
+                continue;
+            }
+            long groupRevenueCents = totals.getSubTotalCents(group) - totals.getDiscountCents(group);
+            agreementCount += totals.getAgreementCount(group);
+            revenueCents += groupRevenueCents;
+            groups.add(RevenueGroup.builder()
+                    .group(groupName(groupBy, totals.getFromDay(), group))
+                    .agreementCount(totals.getAgreementCount(group))
+                    .chargeableDays(totals.getChargeableDays(group))
+                    .subTotal(MoneyUtils.toBigDecimal(totals.getSubTotalCents(group)))
+                    .discountAmount(MoneyUtils.toBigDecimal(totals.getDiscountCents(group)))
+                    .revenue(MoneyUtils.toBigDecimal(groupRevenueCents)).build());
+        }
+        return report.agreementCount(agreementCount)
+                .revenue(MoneyUtils.toBigDecimal(revenueCents))
+                .groups(groups).build();
+    }
+
+    private static <E extends Enum<E>> int toMask(final Set<E> values) {
+        if (values == null || values.isEmpty()) {
+            return -1;
+        }
+        int mask = 0;
+        for (E value : values) {
+            mask |= 1 << value.ordinal();
+        }
+        return mask;
+    }
+
+    private static String groupName(final HistoryGroupByEnum groupBy, final long fromDay, final int group) {
+        return switch (groupBy) {
+            case TOOL_CODE -> ToolCodeEnum.values()[group].name();
+            case TOOL_BRAND -> ToolBrandEnum.values()[group].name();
+            case CHECKOUT_DATE -> LocalDate.ofEpochDay(fromDay + group).toString();
+        };
+    }
+}
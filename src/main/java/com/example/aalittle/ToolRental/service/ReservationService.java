@@ -0,0 +1,184 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.Reservation;
+import com.example.aalittle.ToolRental.utils.UnitSchedule;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service responsible for booking physical tool units.
+ * Each tool has its own lock, so bookings of different tools never wait on each other.
+ * A unit is booked from the checkout date up to, but not including, the due date.
+ * Booked reservations are tracked by the {@link OverdueTrackerService} until they are cancelled.
+ */
+@Service
+public class ReservationService {
+
+    @Value("${tool-rental.reservation.units-per-tool:3}")
+    private int unitsPerTool;
+
+    @Autowired
+    private OverdueTrackerService overdueTrackerService;
+
+    private final ToolUnits[] toolUnits = new ToolUnits[ToolCodeEnum.values().length];
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong lastReservationId = new AtomicLong();
+
+    @PostConstruct
+    void createUnits() {
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            toolUnits[toolCode.ordinal()] = new ToolUnits(unitsPerTool);
+        }
+    }
+
+    /**
+     * Books the first unit of the tool which is free for the whole rental
+     * @param toolCode an enum which represents a tool
+     * @param checkoutDate day the unit goes out
+     * @param rentalDayCount number of days the unit is out
+     * @return the {@link Reservation} or null if every unit is taken for part of the rental
+     */
+    public Reservation book(final ToolCodeEnum toolCode, final LocalDate checkoutDate, final int rentalDayCount) {
+        long startDay = checkoutDate.toEpochDay();
+        long endDay = startDay + rentalDayCount;
+        ToolUnits units = toolUnits[toolCode.ordinal()];
+        Reservation booked = null;
+        units.lock.lock();
+        try {
+            for (int unitNumber = 0; unitNumber < units.schedules.length; unitNumber++) {
+                UnitSchedule schedule = units.schedules[unitNumber];
+                if (schedule.isFree(startDay, endDay)) {
+                    Reservation reservation = Reservation.builder()
+                            .reservationId(lastReservationId.incrementAndGet())
+                            .toolCode(toolCode)
+                            .unitNumber(unitNumber + 1)
+                            .checkoutDate(checkoutDate)
+                            .dueDate(LocalDate.ofEpochDay(endDay)).build();
+                    schedule.reserve(startDay, endDay, reservation.getReservationId());
+                    reservations.put(reservation.getReservationId(), reservation);
+                    booked = reservation;
+                    break;
+                }
+            }
+        } finally {
+            units.lock.unlock();
+        }
+        //Outside the tool lock, a reservation already overdue calls the listeners straight away
+        if (booked != null) {
+            overdueTrackerService.track(booked);
+        }
+        return booked;
+    }
+
+    /**
+     * Frees the unit held by a reservation
+     * @param reservationId id of the {@link Reservation}
+     * @return false if there is no such reservation
+     */
+    public boolean cancel(final long reservationId) {
+        //Removing from the map first means only one of two racing cancels gets to release the unit
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        overdueTrackerService.untrack(reservationId);
+        ToolUnits units = toolUnits[reservation.getToolCode().ordinal()];
+        units.lock.lock();
+        try {
+            return units.schedules[reservation.getUnitNumber() - 1]
+                    .release(reservation.getCheckoutDate().toEpochDay(), reservationId);
+        } finally {
+            units.lock.unlock();
+        }
+    }
+
+    /**
+     * @param reservationId id of the {@link Reservation}
+     * @return the {@link Reservation} or null if there is no such reservation
+     */
+    public Reservation getReservation(final long reservationId) {
+        return reservations.get(reservationId);
+    }
+
+    /**
+     * @param asOfDate the current date
+     * @return every reservation not cancelled whose due date is before the date, in no particular order
+     */
+    public List<Reservation> findOverdueReservations(final LocalDate asOfDate) {
+        List<Reservation> overdue = new ArrayList<>();
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.getDueDate().isBefore(asOfDate)) {
+                overdue.add(reservation);
+            }
+        }
+        return overdue;
+    }
+
+    /**
+     * @param toolCode an enum which represents a tool
+     * @param checkoutDate day the unit would go out
+     * @param rentalDayCount number of days the unit would be out
+     * @return true if at least one unit of the tool is free for the whole rental
+     */
+    public boolean isAvailable(final ToolCodeEnum toolCode, final LocalDate checkoutDate, final int rentalDayCount) {
+        return countAvailableUnits(toolCode, checkoutDate, rentalDayCount, true) > 0;
+    }
+
+    /**
+     * @param toolCode an enum which represents a tool
+     * @param checkoutDate day the units would go out
+     * @param rentalDayCount number of days the units would be out
+     * @return the number of units of the tool free for the whole rental
+     */
+    public int countAvailableUnits(final ToolCodeEnum toolCode, final LocalDate checkoutDate,
+                                   final int rentalDayCount) {
+        return countAvailableUnits(toolCode, checkoutDate, rentalDayCount, false);
+    }
+
+    private int countAvailableUnits(final ToolCodeEnum toolCode, final LocalDate checkoutDate,
+                                    final int rentalDayCount, final boolean stopAtFirst) {
+        long startDay = checkoutDate.toEpochDay();
+        long endDay = startDay + rentalDayCount;
+        ToolUnits units = toolUnits[toolCode.ordinal()];
+        units.lock.lock();
+        try {
+            int available = 0;
+            for (UnitSchedule schedule : units.schedules) {
+                if (schedule.isFree(startDay, endDay)) {
+                    available++;
+                    if (stopAtFirst) {
+                        break;
+                    }
+                }
+            }
+            return available;
+        } finally {
+            units.lock.unlock();
+        }
+    }
+
+    /// The schedules of every unit of one tool and the lock guarding them
+    private static final class ToolUnits {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final UnitSchedule[] schedules;
+
+        private ToolUnits(final int unitCount) {
+            schedules = new UnitSchedule[unitCount];
+            for (int i = 0; i < unitCount; i++) {
+                schedules[i] = new UnitSchedule();
+            }
+        }
+    }
+}
@@ -1,31 +1,84 @@
 package com.example.aalittle.ToolRental.service;
 
-import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
 import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
-import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
 import com.example.aalittle.ToolRental.model.ToolData;
+import com.example.aalittle.ToolRental.utils.ToolCatalog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Service responsible for retrieving tool data
+ * Service responsible for retrieving tool data.
+ * Tools are read from a catalog file into an immutable {@link ToolCatalog}, changes swap in a whole new catalog
+ * so readers never lock and never see a half applied change.
  */
 @Service
 public class ToolDataRetrievalService {
 
-    private Map<ToolCodeEnum, ToolData> toolCodeMap = new HashMap<>() {{
-        put(ToolCodeEnum.CHNS, new ToolData(ToolTypeEnum.CHAINSAW,ToolBrandEnum.STIHL, BigDecimal.valueOf(1.49),
-                true, false, true));
-        put(ToolCodeEnum.JAKD, new ToolData(ToolTypeEnum.JACKHAMMER, ToolBrandEnum.DEWALT,
-                BigDecimal.valueOf(2.99), true, false, false));
-        put(ToolCodeEnum.JAKR, new ToolData(ToolTypeEnum.JACKHAMMER, ToolBrandEnum.RIGID,
-                BigDecimal.valueOf(2.99), true, false, false));
-        put(ToolCodeEnum.LADW, new ToolData(ToolTypeEnum.LADDER, ToolBrandEnum.WERNER,
-                BigDecimal.valueOf(1.99), true, true, false));
-    }};
+    private static final Logger LOGGER = LoggerFactory.getLogger(ToolDataRetrievalService.class);
+
+    @Autowired
+    private RentalMetrics rentalMetrics;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${tool-rental.tool-catalog.location:classpath:tool-catalog.csv}")
+    private String catalogLocation;
+
+    /// How often the catalog file is checked for changes, 0 turns reloading off
+    @Value("${tool-rental.tool-catalog.reload-interval-ms:0}")
+    private long reloadIntervalMs;
+
+    private volatile ToolCatalog toolCatalog;
+
+    /// Catalog versions only ever go up, so anything derived from tool data can tell it is stale
+    private final AtomicLong version = new AtomicLong();
+    /// Not a monitor, a reload reads the catalog file while holding it and must not pin a virtual thread
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private ScheduledExecutorService reloadExecutor;
+    private long catalogLastModified;
+
+    @PostConstruct
+    void loadCatalog() throws IOException {
+        reloadCatalog();
+        if (reloadIntervalMs > 0) {
+            reloadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tool-catalog-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloadExecutor.scheduleWithFixedDelay(this::reloadIfModified, reloadIntervalMs, reloadIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopReloading() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+        }
+    }
 
     /**
      * Retrieve tool data if exists
@@ -33,6 +86,93 @@ public class ToolDataRetrievalService {
      * @return {@link ToolData}
      */
     public ToolData retrieveToolData(final ToolCodeEnum toolCodeEnum){
-        return toolCodeMap.get(toolCodeEnum);
+        long start = rentalMetrics.start();
+        ToolData toolData = toolCodeEnum == null ? null : toolCatalog.find(toolCodeEnum);
+        rentalMetrics.recordStage(RentalStageEnum.TOOL_LOOKUP, start);
+        return toolData;
+    }
+
+    /**
+     * Retrieve tool data by catalog code, for tools the rental API does not have a {@link ToolCodeEnum} for
+     * @param toolCode a tool code from the catalog
+     * @return {@link ToolData} or null if the tool is not in the catalog
+     */
+    public ToolData retrieveToolDataByCode(final String toolCode){
+        long start = rentalMetrics.start();
+        ToolData toolData = toolCode == null ? null : toolCatalog.find(toolCode);
+        rentalMetrics.recordStage(RentalStageEnum.TOOL_LOOKUP, start);
+        return toolData;
+    }
+
+    /**
+     * Adds or replaces the data for a tool, copies the catalog so it suits occasional changes.
+     * Bulk changes belong in the catalog file.
+     * @param toolCodeEnum an enum which represents a tool
+     * @param toolData the new {@link ToolData}
+     */
+    public void updateToolData(final ToolCodeEnum toolCodeEnum, final ToolData toolData){
+        updateLock.lock();
+        try {
+            toolCatalog = toolCatalog.with(toolCodeEnum.name(), toolData, version.incrementAndGet());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the catalog file again and swaps it in, the current catalog stays in place if the file can not be read
+     * or leaves out a tool of the rental API
+     * @return the number of tools in the new catalog
+     * @throws IOException if the catalog file can not be read
+     * @throws IllegalArgumentException if a line of the catalog file is invalid or a {@link ToolCodeEnum} tool has
+     * no line
+     */
+    public int reloadCatalog() throws IOException {
+        Resource resource = resourceLoader.getResource(catalogLocation);
+        updateLock.lock();
+        try {
+            long lastModified = resource.isFile() ? resource.lastModified() : 0;
+            ToolCatalog catalog;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                catalog = ToolCatalog.read(reader, version.incrementAndGet());
+            }
+            //Quotes for a valid tool code must never find the tool gone
+            List<ToolCodeEnum> missing = catalog.missingToolCodes();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Tool catalog " + catalogLocation + " has no line for " + missing);
+            }
+            toolCatalog = catalog;
+            catalogLastModified = lastModified;
+            return catalog.size();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of tools in the catalog
+     */
+    public int getToolCount(){
+        return toolCatalog.size();
+    }
+
+    /**
+     * @return the current version of the tool data, changes whenever tool data is updated
+     */
+    public long getVersion(){
+        return toolCatalog.getVersion();
+    }
+
+    private void reloadIfModified() {
+        try {
+            Resource resource = resourceLoader.getResource(catalogLocation);
+            if (resource.isFile() && resource.lastModified() != catalogLastModified) {
+                LOGGER.info("Reloaded tool catalog with {} tools", reloadCatalog());
+            }
+        } catch (IOException | RuntimeException e) {
+            //Keep serving the catalog already loaded, the next check tries again
+            LOGGER.warn("Could not reload tool catalog from {}", catalogLocation, e);
+        }
     }
 }
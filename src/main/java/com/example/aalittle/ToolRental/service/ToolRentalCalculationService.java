@@ -1,21 +1,46 @@
 package com.example.aalittle.ToolRental.service;
 
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.metrics.AgreementBatchEmissionEvent;
+import com.example.aalittle.ToolRental.metrics.AgreementEmissionEvent;
+import com.example.aalittle.ToolRental.metrics.ChargeableDaysEvent;
+import com.example.aalittle.ToolRental.metrics.HolidayResolutionEvent;
+import com.example.aalittle.ToolRental.metrics.PricingEvent;
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import com.example.aalittle.ToolRental.metrics.ToolLookupEvent;
+import com.example.aalittle.ToolRental.model.CheckoutSearchTerm;
+import com.example.aalittle.ToolRental.model.QuoteCacheStats;
 import com.example.aalittle.ToolRental.model.RentalAgreement;
 import com.example.aalittle.ToolRental.model.RentalTerm;
 import com.example.aalittle.ToolRental.model.ToolData;
+import com.example.aalittle.ToolRental.utils.ChargeableDayUtils;
+import com.example.aalittle.ToolRental.utils.HolidayIndex;
+import com.example.aalittle.ToolRental.utils.MicroBatcher;
+import com.example.aalittle.ToolRental.utils.MoneyUtils;
+import com.example.aalittle.ToolRental.utils.PricingPlan;
+import com.example.aalittle.ToolRental.utils.SingleFlight;
+import com.example.aalittle.ToolRental.utils.StripedLruCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cglib.core.Local;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import de.focus_shift.jollyday.core.Holiday;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Service responsible for calculating tool rental information
@@ -23,64 +48,483 @@ import de.focus_shift.jollyday.core.Holiday;
 @Service
 public class ToolRentalCalculationService {
 
+    private static final int DEFAULT_CHECKOUT_RESULT_COUNT = 5;
+
     @Autowired
     private ToolDataRetrievalService toolDataRetrievalService;
 
     @Autowired
     private HolidayService holidayService;
 
+    @Autowired
+    private AgreementAuditService agreementAuditService;
+
+    @Autowired
+    private AgreementJournalService agreementJournalService;
+
+    @Autowired
+    private RentalHistoryService rentalHistoryService;
+
+    @Autowired
+    private RentalMetrics rentalMetrics;
+
+    /// Virtual threads when spring.threads.virtual.enabled is set, a small platform thread pool otherwise
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${tool-rental.bulk.fan-out-threshold:2048}")
+    private int bulkFanOutThreshold;
+
+    @Value("${tool-rental.bulk.chunk-size:512}")
+    private int bulkChunkSize;
+
+    @Value("${tool-rental.quote-cache.enabled:true}")
+    private boolean quoteCacheEnabled;
+
+    @Value("${tool-rental.quote-cache.maximum-size:10000}")
+    private int quoteCacheMaximumSize;
+
+    /// Concurrent requests for the same quote wait for one calculation rather than each running their own
+    @Value("${tool-rental.quote-coalescing.enabled:false}")
+    private boolean quoteCoalescingEnabled;
+
+    /// Groups single quotes arriving within the window so terms sharing dates count chargeable days once
+    @Value("${tool-rental.quote-batching.enabled:false}")
+    private boolean quoteBatchingEnabled;
+
+    @Value("${tool-rental.quote-batching.window-micros:200}")
+    private long quoteBatchingWindowMicros;
+
+    @Value("${tool-rental.quote-batching.max-batch-size:64}")
+    private int quoteBatchingMaxBatchSize;
+
+    @Value("${tool-rental.quote-batching.capacity:8192}")
+    private int quoteBatchingCapacity;
+
+    /// Quotes only depend on the rental term and tool data, keys carry the tool data version they were built from
+    private StripedLruCache<QuoteKey, RentalAgreement> quoteCache;
+
+    private volatile long quoteCacheToolDataVersion;
+
+    private final SingleFlight<QuoteKey, RentalAgreement> quotesInFlight = new SingleFlight<>();
+
+    private MicroBatcher<RentalTerm, RentalAgreement> quoteBatcher;
+
+    @PostConstruct
+    void createQuoteCache() {
+        quoteCache = new StripedLruCache<>(quoteCacheMaximumSize, Runtime.getRuntime().availableProcessors() * 4);
+        quoteCacheToolDataVersion = toolDataRetrievalService.getVersion();
+        if (quoteBatchingEnabled) {
+            quoteBatcher = new MicroBatcher<>("quote-batcher", this::quote, taskExecutor, quoteBatchingCapacity,
+                    quoteBatchingMaxBatchSize, TimeUnit.MICROSECONDS.toNanos(quoteBatchingWindowMicros));
+        }
+    }
+
+    @PreDestroy
+    void stopQuoteBatcher() throws InterruptedException {
+        if (quoteBatcher != null) {
+            quoteBatcher.close();
+        }
+    }
+
     /**
      * Calculates the price for renting a tool(s)
      * @param rentalTerm a {@link RentalTerm}
      * @return a {@link List} of {@link RentalAgreement}
      */
     public RentalAgreement calculateToolRental(final RentalTerm rentalTerm){
-        /// Notes for future improvement
-        /// IF we have the SAME rental terms (e.g. 2 tools for the same dates) then we only need to do calculation once
-        /// RATHER than calling the fairly heavy holidayService.findHolidaysInRange(rentalStartDate,rentalEndDate)
-        /// we could get once and store in map?
-        ///Add logging vs basic system.println
-        /// Does not account for rental terms more than `~100 years`
-            LocalDate rentalStartDate = rentalTerm.getCheckoutDate();
-            LocalDate rentalEndDate = rentalStartDate.plusDays(rentalTerm.getRentalDayCount());
-
-            //Retrieve Tool Data
-            ToolData toolData = toolDataRetrievalService.retrieveToolData(rentalTerm.getToolCode());
-
-            //First Day is not included in rental terms
-            //Last day is exclusive in datesUntil documentation
-            Set<LocalDate> allRentalDays = rentalStartDate.plusDays(1).datesUntil
-                    (rentalEndDate.plusDays(1)).collect(Collectors.toSet());
-            //Remove all holidays from set if applicable
-            Set<LocalDate> chargeableDays = new HashSet<>(allRentalDays);
-            if(!toolData.isHolidayCharge()){
-                Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(rentalStartDate,rentalEndDate);
-                for(Holiday holiday : holidaysInRange){
-                    chargeableDays.remove(holiday.getDate());
-                }
+            RentalAgreement rentalAgreement = quoteBatcher != null ? batchedQuote(rentalTerm)
+                    : cachedQuote(rentalTerm, () -> {
+                //Retrieve Tool Data
+                ToolData toolData = retrieveToolData(rentalTerm);
+                return calculateToolRental(toolData, countChargeableDays(toolData, rentalTerm), rentalTerm);
+            });
+            AgreementEmissionEvent event = new AgreementEmissionEvent();
+            event.begin();
+            rentalMetrics.countQuote(rentalAgreement.getToolCode());
+            agreementJournalService.record(rentalAgreement);
+            agreementAuditService.record(rentalAgreement);
+            rentalHistoryService.record(rentalAgreement);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setRentalTerm(rentalTerm);
+                event.setHolidayCount(holidayCount(rentalTerm, null));
+                event.commit();
             }
-            //Remove all weekends from set if applicable
-            if(!toolData.isWeekendCharge()) {
-                chargeableDays = chargeableDays.stream().filter(localDate -> localDate.getDayOfWeek() != DayOfWeek.SATURDAY
-                        && localDate.getDayOfWeek() != DayOfWeek.SUNDAY).collect(Collectors.toSet());
+            return rentalAgreement;
+    }
+
+    /**
+     * Calculates the price for renting several tools, terms sharing the same dates and charge policy
+     * only have their chargeable days counted once. Batches of at least the fan out threshold are quoted in
+     * chunks on the application task executor, which runs on virtual threads when those are turned on.
+     * @param rentalTerms a {@link List} of valid {@link RentalTerm}
+     * @return a {@link List} of {@link RentalAgreement} in the same order as the rental terms
+     */
+    public List<RentalAgreement> calculateToolRentals(final List<RentalTerm> rentalTerms){
+        List<RentalAgreement> rentalAgreements = rentalTerms.size() >= bulkFanOutThreshold
+                ? quoteInChunks(rentalTerms) : quote(rentalTerms);
+        AgreementBatchEmissionEvent event = new AgreementBatchEmissionEvent();
+        event.begin();
+        for (RentalAgreement rentalAgreement : rentalAgreements) {
+            rentalMetrics.countQuote(rentalAgreement.getToolCode());
+            agreementAuditService.record(rentalAgreement);
+            rentalHistoryService.record(rentalAgreement);
+        }
+        //Queue the whole batch before waiting so it shares fsyncs rather than waiting for one per agreement
+        agreementJournalService.recordAll(rentalAgreements);
+        event.end();
+        if (event.shouldCommit()) {
+            commitBatchEmission(event, rentalAgreements);
+        }
+        return rentalAgreements;
+    }
+
+    private List<RentalAgreement> quote(final List<RentalTerm> rentalTerms) {
+        Map<ChargeableDayKey, Integer> chargeableDaysByKey = new HashMap<>();
+        List<RentalAgreement> rentalAgreements = new ArrayList<>(rentalTerms.size());
+        for (RentalTerm rentalTerm : rentalTerms) {
+            ToolData toolData = retrieveToolData(rentalTerm);
+            ChargeableDayKey key = new ChargeableDayKey(rentalTerm.getCheckoutDate(), rentalTerm.getRentalDayCount(),
+                    toolData.getChargeableDayMask(), toolData.isHolidayCharge());
+            rentalAgreements.add(cachedQuote(rentalTerm, () ->
+                    calculateToolRental(toolData, chargeableDaysByKey.computeIfAbsent(key,
+                            unused -> countChargeableDays(toolData, rentalTerm)), rentalTerm)));
+        }
+        return rentalAgreements;
+    }
+
+    /// Agreements are recorded by the caller once every chunk is back, so the journal keeps the order of the batch
+    private List<RentalAgreement> quoteInChunks(final List<RentalTerm> rentalTerms) {
+        List<Future<List<RentalAgreement>>> chunks = new ArrayList<>();
+        for (int from = 0; from < rentalTerms.size(); from += bulkChunkSize) {
+            List<RentalTerm> chunk = rentalTerms.subList(from, Math.min(from + bulkChunkSize, rentalTerms.size()));
+            chunks.add(taskExecutor.submit(() -> quote(chunk)));
+        }
+        List<RentalAgreement> rentalAgreements = new ArrayList<>(rentalTerms.size());
+        try {
+            for (Future<List<RentalAgreement>> chunk : chunks) {
+                rentalAgreements.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while quoting a batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            throw new IllegalStateException("Quoting a batch failed", e.getCause());
+        } finally {
+            chunks.forEach(chunk -> chunk.cancel(true));
+        }
+        return rentalAgreements;
+    }
 
-            return calculateRentalAgreement(toolData, allRentalDays.size(),
-                    rentalStartDate, rentalEndDate,
-                    chargeableDays.size(), rentalTerm);
+    /**
+     * Finds the cheapest checkout dates for a rental within a search window. Chargeable days are counted once
+     * over the whole window so each checkout date costs a subtraction, and dates are ranked with a counting sort
+     * on chargeable days, so the search is linear in the window size.
+     * @param checkoutSearchTerm a {@link CheckoutSearchTerm}
+     * @return {@link RentalAgreement}s for the cheapest checkout dates, cheapest first and earliest first on a tie
+     */
+    public List<RentalAgreement> findCheapestCheckoutDates(final CheckoutSearchTerm checkoutSearchTerm){
+        ToolData toolData = toolDataRetrievalService.retrieveToolData(checkoutSearchTerm.getToolCode());
+        LocalDate earliestCheckoutDate = checkoutSearchTerm.getEarliestCheckoutDate();
+        int searchDayCount = checkoutSearchTerm.getSearchDayCount();
+        int rentalDayCount = checkoutSearchTerm.getRentalDayCount();
+        int dayCount = searchDayCount - 1 + rentalDayCount;
 
+        boolean chargeableDaysSetPrice = toolData.getPricingPlan().dependsOnlyOnChargeableDays();
+        HolidayIndex holidayIndex = toolData.isHolidayCharge() && chargeableDaysSetPrice ? null
+                : holidayService.getHolidayIndex(earliestCheckoutDate, earliestCheckoutDate.plusDays(dayCount));
+        long start = rentalMetrics.start();
+        int[] prefixSums = ChargeableDayUtils.chargeableDayPrefixSums(toolData, earliestCheckoutDate, dayCount,
+                holidayIndex);
+        int[] rankedOffsets = chargeableDaysSetPrice
+                ? rankByChargeableDays(prefixSums, searchDayCount, rentalDayCount)
+                : rankByCharge(toolData, prefixSums, checkoutSearchTerm, holidayIndex);
+        rentalMetrics.recordStage(RentalStageEnum.CHARGEABLE_DAYS, start);
+
+        int resultCount = Math.min(searchDayCount, checkoutSearchTerm.getResultCount() == null
+                ? DEFAULT_CHECKOUT_RESULT_COUNT : checkoutSearchTerm.getResultCount());
+        List<RentalAgreement> rentalAgreements = new ArrayList<>(resultCount);
+        for (int rank = 0; rank < resultCount; rank++) {
+            int offset = rankedOffsets[rank];
+            RentalTerm rentalTerm = new RentalTerm(checkoutSearchTerm.getToolCode(),
+                    earliestCheckoutDate.plusDays(offset), rentalDayCount, checkoutSearchTerm.getDiscountPercent());
+            rentalAgreements.add(calculateToolRental(toolData,
+                    prefixSums[offset + rentalDayCount] - prefixSums[offset], rentalTerm));
+        }
+        return rentalAgreements;
+    }
+
+    /// Counting sort of checkout offsets by chargeable days, the price only grows with chargeable days
+    private static int[] rankByChargeableDays(final int[] prefixSums, final int searchDayCount,
+                                              final int rentalDayCount) {
+        int[] offsetsByChargeableDays = new int[rentalDayCount + 2];
+        for (int offset = 0; offset < searchDayCount; offset++) {
+            offsetsByChargeableDays[prefixSums[offset + rentalDayCount] - prefixSums[offset] + 1]++;
+        }
+        for (int chargeableDays = 1; chargeableDays < offsetsByChargeableDays.length; chargeableDays++) {
+            offsetsByChargeableDays[chargeableDays] += offsetsByChargeableDays[chargeableDays - 1];
+        }
+        int[] rankedOffsets = new int[searchDayCount];
+        for (int offset = 0; offset < searchDayCount; offset++) {
+            rankedOffsets[offsetsByChargeableDays[prefixSums[offset + rentalDayCount] - prefixSums[offset]]++] = offset;
+        }
+        return rankedOffsets;
+    }
+
+    /// Weekend and holiday rules price the same number of chargeable days differently, so every checkout date is
+    /// priced, with the weekend and holiday counts also taken from running counts
+    private static int[] rankByCharge(final ToolData toolData, final int[] prefixSums,
+                                      final CheckoutSearchTerm checkoutSearchTerm, final HolidayIndex holidayIndex) {
+        LocalDate earliestCheckoutDate = checkoutSearchTerm.getEarliestCheckoutDate();
+        int searchDayCount = checkoutSearchTerm.getSearchDayCount();
+        int rentalDayCount = checkoutSearchTerm.getRentalDayCount();
+        int dayCount = searchDayCount - 1 + rentalDayCount;
+        int chargeableDayMask = toolData.getChargeableDayMask();
+        PricingPlan pricingPlan = toolData.getPricingPlan();
+        int[] weekendPrefixSums = ChargeableDayUtils.chargeableDayPrefixSums(
+                chargeableDayMask & pricingPlan.weekendDayMask(), toolData.isHolidayCharge(), earliestCheckoutDate,
+                dayCount, holidayIndex);
+        //Charged holidays are the chargeable days which would be free if holidays were not charged
+        int[] holidayFreePrefixSums = toolData.isHolidayCharge() ? ChargeableDayUtils.chargeableDayPrefixSums(
+                chargeableDayMask, false, earliestCheckoutDate, dayCount, holidayIndex) : prefixSums;
+
+        long[] registers = new long[PricingPlan.REGISTER_COUNT];
+        registers[PricingPlan.RENTAL_DAYS] = rentalDayCount;
+        registers[PricingPlan.DISCOUNT_PERCENT] = checkoutSearchTerm.getDiscountPercent();
+        long[] chargesAndOffsets = new long[searchDayCount];
+        for (int offset = 0; offset < searchDayCount; offset++) {
+            int end = offset + rentalDayCount;
+            int chargeableDays = prefixSums[end] - prefixSums[offset];
+            registers[PricingPlan.CHARGEABLE_DAYS] = chargeableDays;
+            registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = weekendPrefixSums[end] - weekendPrefixSums[offset];
+            registers[PricingPlan.CHARGEABLE_HOLIDAYS] = chargeableDays
+                    - (holidayFreePrefixSums[end] - holidayFreePrefixSums[offset]);
+            pricingPlan.evaluate(registers);
+            //Sorting charge * searchDayCount + offset puts the earliest date first on a tie
+            chargesAndOffsets[offset] = Math.addExact(Math.multiplyExact(
+                    registers[PricingPlan.SUB_TOTAL] - registers[PricingPlan.DISCOUNT], searchDayCount), offset);
+        }
+        Arrays.sort(chargesAndOffsets);
+        int[] rankedOffsets = new int[searchDayCount];
+        for (int rank = 0; rank < searchDayCount; rank++) {
+            rankedOffsets[rank] = (int) (chargesAndOffsets[rank] % searchDayCount);
+        }
+        return rankedOffsets;
+    }
+
+    /**
+     * @return true if a single quote may wait on another thread, for a coalesced or batched quote. Batches of at
+     * least the fan out threshold always wait on their chunks.
+     */
+    public boolean mayBlock(){
+        return quoteCoalescingEnabled || quoteBatcher != null;
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the quote cache with the coalescing and batching counts
+     */
+    public QuoteCacheStats getQuoteCacheStats(){
+        return QuoteCacheStats.builder()
+                .hitCount(quoteCache.getHitCount())
+                .missCount(quoteCache.getMissCount())
+                .evictionCount(quoteCache.getEvictionCount())
+                .size(quoteCache.size())
+                .maximumSize(quoteCacheMaximumSize)
+                .coalescedCount(quotesInFlight.getCoalescedCount())
+                .batchCount(quoteBatcher == null ? 0 : quoteBatcher.getBatchCount())
+                .batchedCount(quoteBatcher == null ? 0 : quoteBatcher.getBatchedCount()).build();
+    }
+
+    private RentalAgreement batchedQuote(final RentalTerm rentalTerm) {
+        try {
+            return quoteBatcher.submit(rentalTerm).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /// Cached and coalesced agreements are shared, each caller gets its own copy so changing one can not change the
+    /// agreement every other caller is handed. Every field of an agreement is immutable, a shallow copy is enough.
+    private RentalAgreement cachedQuote(final RentalTerm rentalTerm, final Supplier<RentalAgreement> calculation) {
+        if (!quoteCacheEnabled && !quoteCoalescingEnabled) {
+            return calculation.get();
+        }
+        QuoteKey quoteKey = quoteKey(rentalTerm);
+        if (!quoteCacheEnabled) {
+            return quotesInFlight.execute(quoteKey, ignored -> calculation.get()).toBuilder().build();
+        }
+        //Coalesce on a miss only, hits never wait on another thread
+        return quoteCache.get(quoteKey, ignored -> quoteCoalescingEnabled
+                ? quotesInFlight.execute(quoteKey, unused -> calculation.get()) : calculation.get())
+                .toBuilder().build();
+    }
+
+    /// Drops every cached quote as soon as tool data changes, the version in the key guards against
+    /// quotes still being computed from the old tool data
+    private QuoteKey quoteKey(final RentalTerm rentalTerm) {
+        long toolDataVersion = toolDataRetrievalService.getVersion();
+        if (toolDataVersion != quoteCacheToolDataVersion) {
+            quoteCacheToolDataVersion = toolDataVersion;
+            quoteCache.invalidateAll();
+        }
+        return new QuoteKey(rentalTerm.getToolCode(), rentalTerm.getCheckoutDate(), rentalTerm.getRentalDayCount(),
+                rentalTerm.getDiscountPercent(), toolDataVersion);
+    }
+
+    /// Each stage of a quote is timed in the stage meters and, while a recording has them on, as a Flight Recorder
+    /// event with the rental term. Events which are off cost a check which the JIT folds away, fields are only
+    /// filled in for events which will be committed.
+    private ToolData retrieveToolData(final RentalTerm rentalTerm) {
+        ToolLookupEvent event = new ToolLookupEvent();
+        event.begin();
+        ToolData toolData = toolDataRetrievalService.retrieveToolData(rentalTerm.getToolCode());
+        event.end();
+        if (event.shouldCommit()) {
+            event.setRentalTerm(rentalTerm);
+            event.setHolidayCount(holidayCount(rentalTerm, null));
+            event.commit();
+        }
+        return toolData;
+    }
+
+    private HolidayIndex getHolidayIndex(final RentalTerm rentalTerm) {
+        LocalDate rentalStartDate = rentalTerm.getCheckoutDate();
+        HolidayResolutionEvent event = new HolidayResolutionEvent();
+        event.begin();
+        HolidayIndex holidayIndex = holidayService.getHolidayIndex(rentalStartDate,
+                rentalStartDate.plusDays(rentalTerm.getRentalDayCount()));
+        event.end();
+        if (event.shouldCommit()) {
+            event.setRentalTerm(rentalTerm);
+            event.setHolidayCount(holidayCount(rentalTerm, holidayIndex));
+            event.commit();
+        }
+        return holidayIndex;
+    }
+
+    private static void commitBatchEmission(final AgreementBatchEmissionEvent event,
+                                            final List<RentalAgreement> rentalAgreements) {
+        boolean[] tools = new boolean[ToolCodeEnum.values().length];
+        int toolCount = 0;
+        int maxRentalDayCount = 0;
+        long totalRentalDayCount = 0;
+        for (RentalAgreement rentalAgreement : rentalAgreements) {
+            if (!tools[rentalAgreement.getToolCode().ordinal()]) {
+                tools[rentalAgreement.getToolCode().ordinal()] = true;
+                toolCount++;
+            }
+            maxRentalDayCount = Math.max(maxRentalDayCount, rentalAgreement.getRentalDays());
+            totalRentalDayCount += rentalAgreement.getRentalDays();
+        }
+        event.setBatch(rentalAgreements.size(), toolCount, maxRentalDayCount, totalRentalDayCount);
+        event.commit();
+    }
+
+    /// Holidays observed in the rental period, only worked out for events being committed. Stages which have not
+    /// resolved holidays read the index as loaded so far, so recording never loads years or times a resolution,
+    /// -1 if the period is not loaded yet
+    private int holidayCount(final RentalTerm rentalTerm, final HolidayIndex holidayIndex) {
+        LocalDate rentalStartDate = rentalTerm.getCheckoutDate().plusDays(1);
+        LocalDate rentalEndDate = rentalTerm.getCheckoutDate().plusDays(rentalTerm.getRentalDayCount());
+        HolidayIndex index = holidayIndex != null ? holidayIndex : holidayService.getLoadedHolidayIndex();
+        if (!index.covers(rentalStartDate.getYear() - 1, rentalEndDate.getYear() + 1)) {
+            return -1;
+        }
+        return index.countInRange(rentalStartDate, rentalEndDate);
+    }
+
+    private int countChargeableDays(final ToolData toolData, final RentalTerm rentalTerm) {
+        LocalDate rentalStartDate = rentalTerm.getCheckoutDate();
+
+        //First Day is not included in rental terms
+        //Holidays are only needed if they are free for this tool
+        HolidayIndex holidayIndex = toolData.isHolidayCharge() ? null : getHolidayIndex(rentalTerm);
+        ChargeableDaysEvent event = new ChargeableDaysEvent();
+        event.begin();
+        long start = rentalMetrics.start();
+        int chargeableDays = ChargeableDayUtils.countChargeableDays(toolData, rentalStartDate,
+                rentalTerm.getRentalDayCount(), holidayIndex);
+        rentalMetrics.recordStage(RentalStageEnum.CHARGEABLE_DAYS, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setRentalTerm(rentalTerm);
+            event.setHolidayCount(holidayCount(rentalTerm, holidayIndex));
+            event.setDays(false, chargeableDays);
+            event.commit();
+        }
+        return chargeableDays;
+    }
+
+    private RentalAgreement calculateToolRental(final ToolData toolData, final int chargeableDays,
+                                                final RentalTerm rentalTerm) {
+        LocalDate rentalStartDate = rentalTerm.getCheckoutDate();
+        LocalDate rentalEndDate = rentalStartDate.plusDays(rentalTerm.getRentalDayCount());
+        PricingPlan pricingPlan = toolData.getPricingPlan();
+        long[] registers = new long[PricingPlan.REGISTER_COUNT];
+        registers[PricingPlan.CHARGEABLE_DAYS] = chargeableDays;
+        registers[PricingPlan.RENTAL_DAYS] = rentalTerm.getRentalDayCount();
+        registers[PricingPlan.DISCOUNT_PERCENT] = rentalTerm.getDiscountPercent();
+        if (pricingPlan.needsWeekendDays() || pricingPlan.needsHolidays()) {
+            countRuleDays(toolData, rentalTerm, registers);
+        }
+        PricingEvent event = new PricingEvent();
+        event.begin();
+        long start = rentalMetrics.start();
+        pricingPlan.evaluate(registers);
+        RentalAgreement rentalAgreement = calculateRentalAgreement(toolData, rentalTerm.getRentalDayCount(),
+                rentalStartDate, rentalEndDate,
+                chargeableDays, rentalTerm, registers);
+        rentalMetrics.recordStage(RentalStageEnum.PRICING, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setRentalTerm(rentalTerm);
+            event.setHolidayCount(holidayCount(rentalTerm, null));
+            event.setCharge(chargeableDays, registers[PricingPlan.SUB_TOTAL] - registers[PricingPlan.DISCOUNT]);
+            event.commit();
+        }
+        return rentalAgreement;
+    }
+
+    /// Chargeable weekend days and charged holidays, only counted for tools whose pricing rules read them
+    private void countRuleDays(final ToolData toolData, final RentalTerm rentalTerm, final long[] registers) {
+        LocalDate rentalStartDate = rentalTerm.getCheckoutDate();
+        LocalDate rentalEndDate = rentalStartDate.plusDays(rentalTerm.getRentalDayCount());
+        HolidayIndex holidayIndex = getHolidayIndex(rentalTerm);
+        ChargeableDaysEvent event = new ChargeableDaysEvent();
+        event.begin();
+        long start = rentalMetrics.start();
+        registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = ChargeableDayUtils.countChargeableDays(
+                toolData.getChargeableDayMask() & toolData.getPricingPlan().weekendDayMask(),
+                toolData.isHolidayCharge(), rentalStartDate, rentalTerm.getRentalDayCount(), holidayIndex);
+        registers[PricingPlan.CHARGEABLE_HOLIDAYS] = toolData.isHolidayCharge() ? holidayIndex.countInRange(
+                rentalStartDate.plusDays(1), rentalEndDate, toolData.getChargeableDayMask()) : 0;
+        rentalMetrics.recordStage(RentalStageEnum.CHARGEABLE_DAYS, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setRentalTerm(rentalTerm);
+            event.setHolidayCount(holidayCount(rentalTerm, holidayIndex));
+            event.setDays(true, (int) registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS]);
+            event.commit();
+        }
     }
 
     private RentalAgreement calculateRentalAgreement(final ToolData toolData, final int allRentalDays,
                                                       final LocalDate rentalStartDate, final LocalDate rentalEndDate,
-                                                      final int chargeableDays, final RentalTerm rentalTerm) {
+                                                      final int chargeableDays, final RentalTerm rentalTerm,
+                                                      final long[] registers) {
 
-        BigDecimal subTotal = toolData.getDailyCharge().multiply(BigDecimal.valueOf(chargeableDays))
-                .setScale(2, RoundingMode.HALF_UP);
-        BigDecimal discountAsDecimal = BigDecimal.valueOf(((double) rentalTerm.getDiscountPercent() / (double)100 ));
-        BigDecimal discountAsValue = discountAsDecimal.multiply(subTotal).setScale(2, RoundingMode.HALF_UP);
-
-        BigDecimal discountedTotal = subTotal.subtract(discountAsValue);
+        //Money is worked out in cents, BigDecimal is only created for the agreement itself
+        long subTotalCents = registers[PricingPlan.SUB_TOTAL];
+        long discountCents = registers[PricingPlan.DISCOUNT];
+        long discountedTotalCents = subTotalCents - discountCents;
         RentalAgreement rentalAgreement =  RentalAgreement.builder()
                 .toolCode(rentalTerm.getToolCode())
                 .toolType(toolData.getToolType())
@@ -90,11 +534,19 @@ public class ToolRentalCalculationService {
                 .dueDate(rentalEndDate)
                 .chargeableDays(chargeableDays)
                 .dailyCharge(toolData.getDailyCharge())
-                .subTotal(subTotal)
-                .discountPercent(discountAsDecimal.multiply(BigDecimal.valueOf(100)))
-                .discountAmount(discountAsValue)
-                .discountCharge(discountedTotal).build();
-        rentalAgreement.printToConsole();
+                .subTotal(MoneyUtils.toBigDecimal(subTotalCents))
+                .discountPercent(MoneyUtils.toDisplayPercent(rentalTerm.getDiscountPercent()))
+                .discountAmount(MoneyUtils.toBigDecimal(discountCents))
+                .discountCharge(MoneyUtils.toBigDecimal(discountedTotalCents)).build();
         return rentalAgreement;
     }
+
+    private record QuoteKey(ToolCodeEnum toolCode, LocalDate checkoutDate, int rentalDayCount, int discountPercent,
+                            long toolDataVersion) {
+    }
+
+    /// Everything the chargeable day count depends on, tools with the same charge policy share a count
+    private record ChargeableDayKey(LocalDate checkoutDate, int rentalDayCount, int chargeableDayMask,
+                                    boolean holidayCharge) {
+    }
 }
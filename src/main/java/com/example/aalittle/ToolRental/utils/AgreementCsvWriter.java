@@ -0,0 +1,155 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Writes rental agreements as CSV lines into a growing byte array. Numbers, money and dates are written digit by
+ * digit and enum names are copied from tables built once, so no String is built per field. Dates are MM/dd/yy and
+ * money is dollars and cents, as the rental API shows them. Not thread safe, each thread writes its own.
+ */
+public final class AgreementCsvWriter {
+
+    public static final String HEADER = "toolCode,toolType,toolBrand,rentalDays,checkoutDate,dueDate,dailyCharge,"
+            + "chargeableDays,subTotal,discountPercent,discountAmount,finalCharge\n";
+
+    private static final byte[][] TOOL_CODES = names(ToolCodeEnum.values());
+    private static final byte[][] TOOL_TYPES = names(ToolTypeEnum.values());
+    private static final byte[][] TOOL_BRANDS = names(ToolBrandEnum.values());
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * @param initialCapacity bytes held before the array first grows
+     */
+    public AgreementCsvWriter(final int initialCapacity) {
+        this.bytes = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /**
+     * Appends one line for an agreement
+     * @param rentalAgreement the {@link RentalAgreement}
+     */
+    public void write(final RentalAgreement rentalAgreement) {
+        //The longest line is well under 256 bytes, one check per line is enough
+        ensureCapacity(size + 256);
+        writeBytes(TOOL_CODES[rentalAgreement.getToolCode().ordinal()]);
+        writeByte(',');
+        writeBytes(TOOL_TYPES[rentalAgreement.getToolType().ordinal()]);
+        writeByte(',');
+        writeBytes(TOOL_BRANDS[rentalAgreement.getToolBrand().ordinal()]);
+        writeByte(',');
+        writeLong(rentalAgreement.getRentalDays());
+        writeByte(',');
+        writeDate(rentalAgreement.getCheckoutDate());
+        writeByte(',');
+        writeDate(rentalAgreement.getDueDate());
+        writeByte(',');
+        writeCents(MoneyUtils.toCents(rentalAgreement.getDailyCharge()));
+        writeByte(',');
+        writeLong(rentalAgreement.getChargeableDays());
+        writeByte(',');
+        writeCents(MoneyUtils.toCents(rentalAgreement.getSubTotal()));
+        writeByte(',');
+        writeLong(rentalAgreement.getDiscountPercent().intValue());
+        writeByte(',');
+        writeCents(MoneyUtils.toCents(rentalAgreement.getDiscountAmount()));
+        writeByte(',');
+        writeCents(MoneyUtils.toCents(rentalAgreement.getDiscountCharge()));
+        writeByte('\n');
+    }
+
+    /**
+     * @return number of bytes written
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the bytes written so far, backed by this writer until it is written to again
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, size);
+    }
+
+    /**
+     * @return the bytes written so far as ASCII text
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    private void writeDate(final LocalDate date) {
+        writeTwoDigits(date.getMonthValue());
+        writeByte('/');
+        writeTwoDigits(date.getDayOfMonth());
+        writeByte('/');
+        writeTwoDigits(Math.floorMod(date.getYear(), 100));
+    }
+
+    private void writeCents(final long cents) {
+        long dollars = cents / 100;
+        int remainder = (int) Math.abs(cents % 100);
+        if (cents < 0 && dollars == 0) {
+            writeByte('-');
+        }
+        writeLong(dollars);
+        writeByte('.');
+        writeTwoDigits(remainder);
+    }
+
+    private void writeLong(final long value) {
+        if (value < 0) {
+            writeByte('-');
+        }
+        //Digits land in place from the right, the count is known up front
+        long remaining = Math.abs(value);
+        int digits = 1;
+        for (long bound = 10; digits < 19 && remaining >= bound; bound *= 10) {
+            digits++;
+        }
+        for (int index = size + digits - 1; index >= size; index--) {
+            bytes[index] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        size += digits;
+    }
+
+    private void writeTwoDigits(final int value) {
+        bytes[size++] = (byte) ('0' + value / 10);
+        bytes[size++] = (byte) ('0' + value % 10);
+    }
+
+    private void writeBytes(final byte[] value) {
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+    }
+
+    private void writeByte(final char value) {
+        bytes[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    private static byte[][] names(final Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,589 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.JournalSummary;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append only, checksummed journal of issued rental agreements.
+ * Request threads hand agreements to a ring buffer. A single writer thread appends whatever has queued up
+ * with one write and one fsync, then completes every waiting request, so concurrent requests share an fsync.
+ * A snapshot of the journal totals is written every so many records, so opening the journal only replays
+ * the records written after the last snapshot. A torn or corrupt tail left by a crash is cut off when opening.
+ *
+ * <p>File layout, all numbers big endian: a header of magic and format version, then records of
+ * payload length, CRC32C of the payload and the payload. The payload holds the fixed size fields first,
+ * money in cents and dates in epoch days, followed by the tool code, type and brand names.
+ */
+public class AgreementJournal implements Closeable {
+
+    private static final int MAGIC = 0x54524A31;
+    private static final int SNAPSHOT_MAGIC = 0x54524A53;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 68;
+    private static final int FINAL_CHARGE_OFFSET = 60;
+    /// Fixed fields plus three names of at most 255 bytes each
+    private static final int MAX_PAYLOAD_SIZE = FIXED_PAYLOAD_SIZE + 3 * 256;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final byte[][] TOOL_CODE_NAMES = new byte[ToolCodeEnum.values().length][];
+
+    static {
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            TOOL_CODE_NAMES[toolCode.ordinal()] = toolCode.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final Path snapshotPath;
+    private final FileChannel channel;
+    private final MpscRingBuffer<PendingRecord> ringBuffer;
+    private final int batchSize;
+    private final long snapshotInterval;
+    private final Totals totals;
+    private final long replayedRecordCount;
+    private final long recoveryNanos;
+
+    /// Only touched by the writer thread
+    private final ByteBuffer writeBuffer;
+    private final List<PendingRecord> batch;
+    private final CRC32C checksum = new CRC32C();
+    private long position;
+    private long recordsSinceSnapshot;
+
+    private final Thread writerThread;
+    private volatile boolean running;
+    /// Set once the writer has stopped, records still queued are then failed rather than written
+    private volatile boolean closed;
+    /// The ring buffer has a single consumer, close and late appenders take turns failing what is left in it
+    private final ReentrantLock leftoverLock = new ReentrantLock();
+
+    private AgreementJournal(final Path journalPath, final FileChannel channel, final int capacity,
+                             final int batchSize, final long snapshotInterval) throws IOException {
+        long recoveryStart = System.nanoTime();
+        this.snapshotPath = journalPath.resolveSibling(journalPath.getFileName() + ".snapshot");
+        this.channel = channel;
+        this.ringBuffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.snapshotInterval = snapshotInterval;
+        this.writeBuffer = ByteBuffer.allocateDirect(batchSize * (RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE));
+        this.batch = new ArrayList<>(batchSize);
+
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        } else {
+            checkHeader(channel);
+        }
+        Totals snapshot = readSnapshot(snapshotPath, channel.size());
+        this.totals = snapshot != null ? snapshot : new Totals();
+        long replayFrom = snapshot != null ? snapshot.journalOffset : FILE_HEADER_SIZE;
+        long totalsBefore = totals.recordCount;
+        this.position = scan(channel, replayFrom, totals::apply);
+        if (position < channel.size()) {
+            //Whatever follows the last complete record is a write cut short by a crash
+            channel.truncate(position);
+            channel.force(true);
+        }
+        this.replayedRecordCount = totals.recordCount - totalsBefore;
+        this.recoveryNanos = System.nanoTime() - recoveryStart;
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "agreement-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Opens or creates a journal, recovering its totals from the last snapshot and the records after it
+     * @param journalPath the journal file, the snapshot is kept next to it
+     * @param capacity number of agreements which can wait to be written
+     * @param batchSize most agreements written with one fsync
+     * @param snapshotInterval records written between snapshots
+     * @return an open {@link AgreementJournal}
+     * @throws IOException if the journal can not be opened or is not a journal
+     */
+    public static AgreementJournal open(final Path journalPath, final int capacity, final int batchSize,
+                                        final long snapshotInterval) throws IOException {
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return new AgreementJournal(journalPath, channel, capacity, batchSize, snapshotInterval);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every complete agreement in a journal in the order they were written
+     * @param journalPath the journal file
+     * @param consumer receives each {@link RentalAgreement}
+     * @return number of agreements read
+     * @throws IOException if the journal can not be read or is not a journal
+     */
+    public static long readAll(final Path journalPath, final Consumer<RentalAgreement> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            checkHeader(channel);
+            long[] count = new long[1];
+            scan(channel, FILE_HEADER_SIZE, payload -> {
+                consumer.accept(decode(payload));
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    /**
+     * Queues an agreement to be written, waits only while the queue is full
+     * @param rentalAgreement the issued {@link RentalAgreement}
+     * @return completes with the sequence number of the record once it has been synced to disk
+     */
+    public CompletableFuture<Long> append(final RentalAgreement rentalAgreement) {
+        PendingRecord pendingRecord = new PendingRecord(rentalAgreement);
+        while (!ringBuffer.offer(pendingRecord)) {
+            if (!running) {
+                pendingRecord.future.completeExceptionally(closedException());
+                return pendingRecord.future;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+        //Queued while closing, either the writer's last drain or close picks it up unless the writer is gone already
+        if (closed) {
+            failLeftovers();
+        }
+        return pendingRecord.future;
+    }
+
+    /**
+     * @return totals of every agreement written, including those recovered when the journal was opened
+     */
+    public JournalSummary getSummary() {
+        synchronized (totals) {
+            Map<ToolCodeEnum, Long> agreementsByToolCode = new EnumMap<>(ToolCodeEnum.class);
+            for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+                agreementsByToolCode.put(toolCode, totals.countsByToolCode[toolCode.ordinal()]);
+            }
+            return JournalSummary.builder()
+                    .recordCount(totals.recordCount)
+                    .lastSequence(totals.lastSequence)
+                    .finalChargeTotal(MoneyUtils.toBigDecimal(totals.finalChargeCents))
+                    .agreementsByToolCode(agreementsByToolCode)
+                    .replayedRecordCount(replayedRecordCount)
+                    .recoveryMillis(TimeUnit.NANOSECONDS.toMillis(recoveryNanos)).build();
+        }
+    }
+
+    /**
+     * Writes everything queued, takes a final snapshot and closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        failLeftovers();
+        try {
+            writeSnapshot();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /// Only called once the writer has stopped, so nothing else consumes the ring buffer
+    private void failLeftovers() {
+        leftoverLock.lock();
+        try {
+            PendingRecord pendingRecord;
+            while ((pendingRecord = ringBuffer.poll()) != null) {
+                pendingRecord.future.completeExceptionally(closedException());
+            }
+        } finally {
+            leftoverLock.unlock();
+        }
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("Agreement journal is closed");
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        //Flush whatever was queued before shutdown
+        int written;
+        do {
+            written = writeBatch();
+        } while (written > 0);
+    }
+
+    private int writeBatch() {
+        batch.clear();
+        int drained = ringBuffer.drain(batch::add, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        writeBuffer.clear();
+        long sequence = totals.lastSequence;
+        for (PendingRecord pendingRecord : batch) {
+            try {
+                encode(pendingRecord, sequence + 1);
+                pendingRecord.encoded = true;
+                sequence++;
+            } catch (RuntimeException e) {
+                pendingRecord.future.completeExceptionally(e);
+            }
+        }
+        writeBuffer.flip();
+        long batchStart = position;
+        try {
+            while (writeBuffer.hasRemaining()) {
+                position += channel.write(writeBuffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            position = batchStart;
+            try {
+                channel.truncate(batchStart);
+            } catch (IOException ignored) {
+                //Opening the journal cuts off a partly written batch anyway
+            }
+            batch.forEach(pendingRecord -> pendingRecord.future.completeExceptionally(e));
+            return drained;
+        }
+
+        synchronized (totals) {
+            for (PendingRecord pendingRecord : batch) {
+                //A record in the file is always counted, its future may have been completed by a caller already
+                if (pendingRecord.encoded) {
+                    totals.add(pendingRecord.sequence, pendingRecord.toolCodeOrdinal, pendingRecord.finalChargeCents);
+                }
+            }
+            totals.journalOffset = position;
+        }
+        for (PendingRecord pendingRecord : batch) {
+            pendingRecord.future.complete(pendingRecord.sequence);
+        }
+        recordsSinceSnapshot += drained;
+        if (recordsSinceSnapshot >= snapshotInterval) {
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                //Records are safe in the journal, a missing snapshot only means a longer replay
+            }
+        }
+        return drained;
+    }
+
+    /// Appends one record to the write buffer, everything is converted before writing so a failure leaves
+    /// the buffer as it was
+    private void encode(final PendingRecord pendingRecord, final long sequence) {
+        RentalAgreement agreement = pendingRecord.agreement;
+        byte[] toolCode = nameBytes(agreement.getToolCode().name());
+        byte[] toolType = nameBytes(agreement.getToolType().name());
+        byte[] toolBrand = nameBytes(agreement.getToolBrand().name());
+        long dailyChargeCents = MoneyUtils.toCents(agreement.getDailyCharge());
+        long subTotalCents = MoneyUtils.toCents(agreement.getSubTotal());
+        int discountPercent = agreement.getDiscountPercent().intValueExact();
+        long discountCents = MoneyUtils.toCents(agreement.getDiscountAmount());
+        long finalChargeCents = MoneyUtils.toCents(agreement.getDiscountCharge());
+        int recordStart = writeBuffer.position();
+        int payloadStart = recordStart + RECORD_HEADER_SIZE;
+        writeBuffer.position(payloadStart)
+                .putLong(sequence)
+                .putInt(agreement.getRentalDays())
+                .putLong(agreement.getCheckoutDate().toEpochDay())
+                .putLong(agreement.getDueDate().toEpochDay())
+                .putLong(dailyChargeCents)
+                .putInt(agreement.getChargeableDays())
+                .putLong(subTotalCents)
+                .putInt(discountPercent)
+                .putLong(discountCents)
+                .putLong(finalChargeCents);
+        putName(writeBuffer, toolCode);
+        putName(writeBuffer, toolType);
+        putName(writeBuffer, toolBrand);
+        int payloadLength = writeBuffer.position() - payloadStart;
+
+        checksum.reset();
+        checksum.update(writeBuffer.duplicate().position(payloadStart).limit(payloadStart + payloadLength));
+        writeBuffer.putInt(recordStart, payloadLength).putInt(recordStart + 4, (int) checksum.getValue());
+
+        pendingRecord.sequence = sequence;
+        pendingRecord.toolCodeOrdinal = agreement.getToolCode().ordinal();
+        pendingRecord.finalChargeCents = finalChargeCents;
+    }
+
+    private static RentalAgreement decode(final ByteBuffer payload) {
+        long sequence = payload.getLong();
+        int rentalDays = payload.getInt();
+        LocalDate checkoutDate = LocalDate.ofEpochDay(payload.getLong());
+        LocalDate dueDate = LocalDate.ofEpochDay(payload.getLong());
+        long dailyChargeCents = payload.getLong();
+        int chargeableDays = payload.getInt();
+        long subTotalCents = payload.getLong();
+        int discountPercent = payload.getInt();
+        long discountCents = payload.getLong();
+        long finalChargeCents = payload.getLong();
+        return RentalAgreement.builder()
+                .toolCode(ToolCodeEnum.valueOf(getName(payload)))
+                .toolType(ToolTypeEnum.valueOf(getName(payload)))
+                .toolBrand(ToolBrandEnum.valueOf(getName(payload)))
+                .rentalDays(rentalDays)
+                .checkoutDate(checkoutDate)
+                .dueDate(dueDate)
+                .dailyCharge(MoneyUtils.toBigDecimal(dailyChargeCents))
+                .chargeableDays(chargeableDays)
+                .subTotal(MoneyUtils.toBigDecimal(subTotalCents))
+                .discountPercent(MoneyUtils.toDisplayPercent(discountPercent))
+                .discountAmount(MoneyUtils.toBigDecimal(discountCents))
+                .discountCharge(MoneyUtils.toBigDecimal(finalChargeCents)).build();
+    }
+
+    /**
+     * Hands the payload of every valid record from the offset on to the consumer, stopping at the first record
+     * which is cut short or fails its checksum
+     * @return offset just past the last valid record
+     */
+    private static long scan(final FileChannel channel, final long fromOffset, final Consumer<ByteBuffer> consumer)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        CRC32C recordChecksum = new CRC32C();
+        long fileSize = channel.size();
+        long readOffset = fromOffset;
+        long validEnd = fromOffset;
+        buffer.flip();
+        while (true) {
+            if (buffer.remaining() < RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE && readOffset < fileSize) {
+                buffer.compact();
+                while (buffer.hasRemaining() && readOffset < fileSize) {
+                    int read = channel.read(buffer, readOffset);
+                    if (read < 0) {
+                        break;
+                    }
+                    readOffset += read;
+                }
+                buffer.flip();
+            }
+            if (buffer.remaining() < RECORD_HEADER_SIZE) {
+                return validEnd;
+            }
+            int recordStart = buffer.position();
+            int payloadLength = buffer.getInt(recordStart);
+            int expectedChecksum = buffer.getInt(recordStart + 4);
+            if (payloadLength < FIXED_PAYLOAD_SIZE + 3 || payloadLength > MAX_PAYLOAD_SIZE
+                    || buffer.remaining() < RECORD_HEADER_SIZE + payloadLength) {
+                return validEnd;
+            }
+            int payloadStart = recordStart + RECORD_HEADER_SIZE;
+            ByteBuffer payload = buffer.duplicate().position(payloadStart).limit(payloadStart + payloadLength);
+            recordChecksum.reset();
+            recordChecksum.update(payload.duplicate());
+            if ((int) recordChecksum.getValue() != expectedChecksum) {
+                return validEnd;
+            }
+            consumer.accept(payload);
+            buffer.position(payloadStart + payloadLength);
+            validEnd += RECORD_HEADER_SIZE + payloadLength;
+        }
+    }
+
+    private static void checkHeader(final FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < FILE_HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not an agreement journal or an unsupported format version");
+        }
+    }
+
+    /// Written to a temporary file and moved into place, so a crash leaves either the old or the new snapshot
+    private void writeSnapshot() throws IOException {
+        ByteBuffer snapshot;
+        synchronized (totals) {
+            snapshot = ByteBuffer.allocate(64 + TOOL_CODE_NAMES.length * (256 + 8));
+            snapshot.putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION)
+                    .putLong(totals.journalOffset)
+                    .putLong(totals.recordCount)
+                    .putLong(totals.lastSequence)
+                    .putLong(totals.finalChargeCents)
+                    .putInt(TOOL_CODE_NAMES.length);
+            for (int i = 0; i < TOOL_CODE_NAMES.length; i++) {
+                putName(snapshot, TOOL_CODE_NAMES[i]);
+                snapshot.putLong(totals.countsByToolCode[i]);
+            }
+        }
+        CRC32C snapshotChecksum = new CRC32C();
+        snapshotChecksum.update(snapshot.array(), 0, snapshot.position());
+        snapshot.putInt((int) snapshotChecksum.getValue()).flip();
+
+        Path temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel snapshotChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                snapshotChannel.write(snapshot);
+            }
+            snapshotChannel.force(true);
+        }
+        Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordsSinceSnapshot = 0;
+    }
+
+    /// Returns null if there is no usable snapshot, the journal is then replayed from the start
+    private static Totals readSnapshot(final Path snapshotPath, final long journalSize) throws IOException {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        try {
+            if (snapshot.getInt() != SNAPSHOT_MAGIC || snapshot.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            Totals totals = new Totals();
+            totals.journalOffset = snapshot.getLong();
+            totals.recordCount = snapshot.getLong();
+            totals.lastSequence = snapshot.getLong();
+            totals.finalChargeCents = snapshot.getLong();
+            int toolCodeCount = snapshot.getInt();
+            for (int i = 0; i < toolCodeCount; i++) {
+                String toolCode = getName(snapshot);
+                long count = snapshot.getLong();
+                for (ToolCodeEnum value : ToolCodeEnum.values()) {
+                    if (value.name().equals(toolCode)) {
+                        totals.countsByToolCode[value.ordinal()] = count;
+                    }
+                }
+            }
+            CRC32C snapshotChecksum = new CRC32C();
+            snapshotChecksum.update(snapshot.array(), 0, snapshot.position());
+            if (snapshot.getInt() != (int) snapshotChecksum.getValue() || totals.journalOffset > journalSize
+                    || totals.journalOffset < FILE_HEADER_SIZE) {
+                return null;
+            }
+            return totals;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] nameBytes(final String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Name too long for the agreement journal: " + name);
+        }
+        return bytes;
+    }
+
+    private static void putName(final ByteBuffer buffer, final byte[] name) {
+        buffer.put((byte) name.length).put(name);
+    }
+
+    private static String getName(final ByteBuffer buffer) {
+        byte[] name = new byte[buffer.get() & 0xFF];
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /// An agreement waiting to be written, the writer fills in what it needs for the totals
+    private static final class PendingRecord {
+
+        private final RentalAgreement agreement;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long sequence;
+        private int toolCodeOrdinal;
+        private long finalChargeCents;
+        private boolean encoded;
+
+        private PendingRecord(final RentalAgreement agreement) {
+            this.agreement = agreement;
+        }
+    }
+
+    /// Running totals of the journal and the offset they cover, what a snapshot holds
+    private static final class Totals {
+
+        private long journalOffset = FILE_HEADER_SIZE;
+        private long recordCount;
+        private long lastSequence;
+        private long finalChargeCents;
+        private final long[] countsByToolCode = new long[ToolCodeEnum.values().length];
+
+        private void add(final long sequence, final int toolCodeOrdinal, final long finalCharge) {
+            recordCount++;
+            lastSequence = sequence;
+            finalChargeCents += finalCharge;
+            countsByToolCode[toolCodeOrdinal]++;
+        }
+
+        /// Applies a record read back from the journal without decoding the whole agreement
+        private void apply(final ByteBuffer payload) {
+            int start = payload.position();
+            recordCount++;
+            lastSequence = payload.getLong(start);
+            finalChargeCents += payload.getLong(start + FINAL_CHARGE_OFFSET);
+            int nameLength = payload.get(start + FIXED_PAYLOAD_SIZE) & 0xFF;
+            for (int i = 0; i < TOOL_CODE_NAMES.length; i++) {
+                if (nameMatches(payload, start + FIXED_PAYLOAD_SIZE + 1, nameLength, TOOL_CODE_NAMES[i])) {
+                    countsByToolCode[i]++;
+                    break;
+                }
+            }
+            journalOffset += RECORD_HEADER_SIZE + (payload.limit() - start);
+        }
+
+        private static boolean nameMatches(final ByteBuffer payload, final int offset, final int length,
+                                           final byte[] name) {
+            if (length != name.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (payload.get(offset + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
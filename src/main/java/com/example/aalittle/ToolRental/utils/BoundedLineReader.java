@@ -0,0 +1,96 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()} but never holds more than a set number of characters of
+ * a line. The rest of a longer line is read and thrown away, so a line without an end can not use up the heap.
+ * Lines end in \n or \r\n. Not thread safe.
+ */
+public final class BoundedLineReader {
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean tooLong;
+
+    /**
+     * @param reader the characters to read
+     * @param maxLineLength longest line returned whole, not counting the line end
+     */
+    public BoundedLineReader(final Reader reader, final int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Reads the next line, see {@link #isTooLong()} for whether it was cut short
+     * @return the line without its line end, or null at the end of the input. A line longer than the maximum is
+     * returned as an empty string.
+     * @throws IOException if the input can not be read
+     */
+    public String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        tooLong = false;
+        boolean readAny = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                return readAny ? finish(line) : null;
+            }
+            readAny = true;
+            char next = buffer[position++];
+            if (next == '\n') {
+                return finish(line);
+            }
+            if (tooLong) {
+                continue;
+            }
+            //One over the maximum, a trailing \r of a \r\n line end is taken off before the length is checked
+            if (line.length() > maxLineLength) {
+                tooLong = true;
+                line.setLength(0);
+            } else {
+                line.append(next);
+            }
+        }
+    }
+
+    /**
+     * @return true if the last line read was longer than the maximum and was thrown away
+     */
+    public boolean isTooLong() {
+        return tooLong;
+    }
+
+    /**
+     * @return true if a character can be read without blocking
+     * @throws IOException if the input can not be read
+     */
+    public boolean ready() throws IOException {
+        return position < limit || reader.ready();
+    }
+
+    private String finish(final StringBuilder line) {
+        if (!tooLong && line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        if (line.length() > maxLineLength) {
+            tooLong = true;
+            return "";
+        }
+        return tooLong ? "" : line.toString();
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.model.ToolData;
+
+import java.time.LocalDate;
+
+/**
+ * Counts chargeable rental days without walking the rental period day by day
+ */
+public class ChargeableDayUtils {
+
+    private static final int DAYS_IN_WEEK = 7;
+    private static final String DAY_LETTERS = "MTWTFSS";
+
+    public static final int ALL_DAYS_MASK = (1 << DAYS_IN_WEEK) - 1;
+    /// Monday to Friday
+    public static final int WEEKDAYS_MASK = 0b0011111;
+    /// Saturday and Sunday
+    public static final int WEEKEND_MASK = 0b1100000;
+
+    /// Chargeable days in dayCount (0 - 6) days from firstDay, at (mask * 7 + firstDay) * 7 + dayCount
+    private static final byte[] CHARGEABLE_REMAINDER = new byte[(ALL_DAYS_MASK + 1) * DAYS_IN_WEEK * DAYS_IN_WEEK];
+
+    static {
+        for (int mask = 0; mask <= ALL_DAYS_MASK; mask++) {
+            for (int firstDay = 0; firstDay < DAYS_IN_WEEK; firstDay++) {
+                int row = (mask * DAYS_IN_WEEK + firstDay) * DAYS_IN_WEEK;
+                for (int dayCount = 1; dayCount < DAYS_IN_WEEK; dayCount++) {
+                    int dayOfWeek = (firstDay + dayCount - 1) % DAYS_IN_WEEK;
+                    CHARGEABLE_REMAINDER[row + dayCount] = (byte) (CHARGEABLE_REMAINDER[row + dayCount - 1]
+                            + ((mask >>> dayOfWeek) & 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the days of a run of consecutive days which fall on a charged day of the week
+     * @param chargeableDayMask the charged days of the week, bit DayOfWeek.ordinal() per day
+     * @param firstDay the first day of the run
+     * @param dayCount number of days in the run
+     * @return number of days in the run on a charged day of the week
+     */
+    public static int countDaysInMask(final int chargeableDayMask, final LocalDate firstDay, final int dayCount) {
+        return (dayCount / DAYS_IN_WEEK) * Integer.bitCount(chargeableDayMask)
+                + CHARGEABLE_REMAINDER[(chargeableDayMask * DAYS_IN_WEEK + firstDay.getDayOfWeek().ordinal())
+                * DAYS_IN_WEEK + dayCount % DAYS_IN_WEEK];
+    }
+
+    /**
+     * Reads the charged days of the week written as MTWTFSS with a - for each free day, e.g. MTWTF-- or -TWTFS-
+     * @param chargeableDays the charged days of the week
+     * @return the chargeable day mask
+     * @throws IllegalArgumentException if the days are not written as MTWTFSS
+     */
+    public static int parseChargeableDays(final String chargeableDays) {
+        if (chargeableDays.length() != DAYS_IN_WEEK) {
+            throw new IllegalArgumentException("chargeable days must be written as MTWTFSS but was " + chargeableDays);
+        }
+        int mask = 0;
+        for (int day = 0; day < DAYS_IN_WEEK; day++) {
+            char letter = Character.toUpperCase(chargeableDays.charAt(day));
+            if (letter == DAY_LETTERS.charAt(day)) {
+                mask |= 1 << day;
+            } else if (letter != '-') {
+                throw new IllegalArgumentException("chargeable days must be written as MTWTFSS but was "
+                        + chargeableDays);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Counts the chargeable days of a rental, the checkout day itself is not charged
+     * @param toolData the {@link ToolData} holding the charge policy
+     * @param rentalStartDate the checkout date
+     * @param rentalDayCount number of rental days
+     * @param holidayIndex a {@link HolidayIndex} covering the rental, only read when holidays are not charged
+     * @return number of chargeable days
+     */
+    public static int countChargeableDays(final ToolData toolData, final LocalDate rentalStartDate,
+                                          final int rentalDayCount, final HolidayIndex holidayIndex) {
+        return countChargeableDays(toolData.getChargeableDayMask(), toolData.isHolidayCharge(), rentalStartDate,
+                rentalDayCount, holidayIndex);
+    }
+
+    /**
+     * Counts the chargeable days of a rental for a charge policy given field by field, e.g. to count only the
+     * chargeable weekend days of a tool with its mask and the weekend of its pricing plan
+     * @param chargeableDayMask the charged days of the week, bit DayOfWeek.ordinal() per day
+     * @param holidayCharge whether holidays are charged
+     * @param rentalStartDate the checkout date
+     * @param rentalDayCount number of rental days
+     * @param holidayIndex a {@link HolidayIndex} covering the rental, only read when holidays are not charged
+     * @return number of chargeable days
+     */
+    public static int countChargeableDays(final int chargeableDayMask, final boolean holidayCharge,
+                                          final LocalDate rentalStartDate, final int rentalDayCount,
+                                          final HolidayIndex holidayIndex) {
+        LocalDate firstRentalDay = rentalStartDate.plusDays(1);
+        int chargeableDays = countDaysInMask(chargeableDayMask, firstRentalDay, rentalDayCount);
+        if (!holidayCharge) {
+            //Only holidays landing on an otherwise chargeable day reduce the count
+            chargeableDays -= holidayIndex.countInRange(firstRentalDay, rentalStartDate.plusDays(rentalDayCount),
+                    chargeableDayMask);
+        }
+        return chargeableDays;
+    }
+
+    /**
+     * Running count of chargeable days after a given day. A rental checked out k days after that day for n days
+     * has prefixSums[k + n] - prefixSums[k] chargeable days, so any number of checkout dates can be compared
+     * after one pass over the days.
+     * @param toolData the {@link ToolData} holding the charge policy
+     * @param firstDay the day before the first counted day
+     * @param dayCount number of days to count
+     * @param holidayIndex a {@link HolidayIndex} covering the days, only read when holidays are not charged
+     * @return dayCount + 1 running counts, entry i is the number of chargeable days among the first i days
+     */
+    public static int[] chargeableDayPrefixSums(final ToolData toolData, final LocalDate firstDay,
+                                                final int dayCount, final HolidayIndex holidayIndex) {
+        return chargeableDayPrefixSums(toolData.getChargeableDayMask(), toolData.isHolidayCharge(), firstDay,
+                dayCount, holidayIndex);
+    }
+
+    /**
+     * Running count of chargeable days for a charge policy given field by field
+     * @param chargeableDayMask the charged days of the week, bit DayOfWeek.ordinal() per day
+     * @param holidayCharge whether holidays are charged
+     * @param firstDay the day before the first counted day
+     * @param dayCount number of days to count
+     * @param holidayIndex a {@link HolidayIndex} covering the days, only read when holidays are not charged
+     * @return dayCount + 1 running counts, entry i is the number of chargeable days among the first i days
+     */
+    public static int[] chargeableDayPrefixSums(final int chargeableDayMask, final boolean holidayCharge,
+                                                final LocalDate firstDay, final int dayCount,
+                                                final HolidayIndex holidayIndex) {
+        LocalDate firstCountedDay = firstDay.plusDays(1);
+        long firstEpochDay = firstCountedDay.toEpochDay();
+        //Walk the holidays alongside the days rather than looking each day up
+        boolean skipHolidays = !holidayCharge;
+        int holiday = skipHolidays ? holidayIndex.fromIndex(firstCountedDay) : 0;
+        int holidayEnd = skipHolidays ? holidayIndex.toIndex(firstDay.plusDays(dayCount)) : 0;
+
+        int[] prefixSums = new int[dayCount + 1];
+        int dayOfWeek = firstCountedDay.getDayOfWeek().ordinal();
+        for (int i = 0; i < dayCount; i++) {
+            boolean chargeable = ((chargeableDayMask >>> dayOfWeek) & 1) != 0;
+            if (holiday < holidayEnd && holidayIndex.epochDayAt(holiday) == firstEpochDay + i) {
+                chargeable = false;
+                holiday++;
+            }
+            prefixSums[i + 1] = prefixSums[i] + (chargeable ? 1 : 0);
+            dayOfWeek = dayOfWeek == DAYS_IN_WEEK - 1 ? 0 : dayOfWeek + 1;
+        }
+        return prefixSums;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.io.PrintStream;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes to System.out one caller at a time behind a {@link ReentrantLock}. Callers queue on the lock rather than on
+ * the monitor inside {@link PrintStream}, so a virtual thread waiting its turn unmounts instead of pinning its carrier.
+ */
+public class ConsoleUtils {
+
+    private static final ReentrantLock CONSOLE_LOCK = new ReentrantLock();
+
+    /**
+     * Prints text and flushes it
+     * @param text the text to print, formatted before calling so no formatting happens under the lock
+     */
+    public static void print(final CharSequence text) {
+        CONSOLE_LOCK.lock();
+        try {
+            PrintStream out = System.out;
+            out.print(text);
+            out.flush();
+        } finally {
+            CONSOLE_LOCK.unlock();
+        }
+    }
+}
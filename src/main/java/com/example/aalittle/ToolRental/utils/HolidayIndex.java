@@ -0,0 +1,226 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.HolidayEnum;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Immutable index of chargeable holidays over a contiguous range of years.
+ * Holidays are stored once per observed day as a sorted array of epoch days with a parallel
+ * array of the {@link HolidayEnum} they came from, so lookups are a binary search and do not allocate.
+ */
+public final class HolidayIndex {
+
+    private final int firstYear;
+    private final int lastYear;
+    private final HolidayEnum[] holidaySet;
+    private final int[] epochDays;
+    private final HolidayEnum[] holidays;
+    /// Sorted (epochDay << 8 | ordinal) keys the index was built from, kept so extending only loads new years
+    private final long[] keys;
+    /// Running count of holidays per day of week, entry (i * 7 + dayOfWeek) counts holidays before index i
+    private final int[] dayOfWeekCounts;
+
+    private HolidayIndex(final int firstYear, final int lastYear, final HolidayEnum[] holidaySet,
+                         final long[] loaded) {
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.holidaySet = holidaySet;
+        this.keys = loaded.clone();
+        Arrays.sort(keys);
+        //Keep one holiday per day, the index only needs to know a day is a holiday
+        int[] days = new int[keys.length];
+        HolidayEnum[] unique = new HolidayEnum[keys.length];
+        HolidayEnum[] allHolidays = HolidayEnum.values();
+        int size = 0;
+        for (long key : keys) {
+            int epochDay = (int) (key >> 8);
+            if (size == 0 || days[size - 1] != epochDay) {
+                days[size] = epochDay;
+                unique[size] = allHolidays[(int) (key & 0xFF)];
+                size++;
+            }
+        }
+        this.epochDays = Arrays.copyOf(days, size);
+        this.holidays = Arrays.copyOf(unique, size);
+        this.dayOfWeekCounts = new int[(epochDays.length + 1) * 7];
+        for (int i = 0; i < epochDays.length; i++) {
+            System.arraycopy(dayOfWeekCounts, i * 7, dayOfWeekCounts, (i + 1) * 7, 7);
+            dayOfWeekCounts[(i + 1) * 7 + dayOfWeekIndex(epochDays[i])]++;
+        }
+    }
+
+    /**
+     * Builds an index covering the given years (inclusive)
+     * @param firstYear first year to load
+     * @param lastYear last year to load
+     * @param chargeableHolidays the holidays to index
+     * @return a {@link HolidayIndex}
+     */
+    public static HolidayIndex build(final int firstYear, final int lastYear,
+                                        final Set<HolidayEnum> chargeableHolidays) {
+        HolidayEnum[] holidaySet = chargeableHolidays.toArray(new HolidayEnum[0]);
+        return new HolidayIndex(firstYear, lastYear, holidaySet, load(firstYear, lastYear, holidaySet));
+    }
+
+    /**
+     * Returns an index which covers at least the given years, loading only the years not already present
+     * @param fromYear first year which must be covered
+     * @param toYear last year which must be covered
+     * @return this index if the years are already covered, otherwise a new wider {@link HolidayIndex}
+     */
+    public HolidayIndex extend(final int fromYear, final int toYear) {
+        if (covers(fromYear, toYear)) {
+            return this;
+        }
+        int newFirstYear = Math.min(firstYear, fromYear);
+        int newLastYear = Math.max(lastYear, toYear);
+        long[] loaded = new long[0];
+        if (newFirstYear < firstYear) {
+            loaded = concat(loaded, load(newFirstYear, firstYear - 1, holidaySet));
+        }
+        loaded = concat(loaded, keys);
+        if (newLastYear > lastYear) {
+            loaded = concat(loaded, load(lastYear + 1, newLastYear, holidaySet));
+        }
+        return new HolidayIndex(newFirstYear, newLastYear, holidaySet, loaded);
+    }
+
+    /**
+     * @return true if every year between fromYear and toYear (inclusive) is loaded
+     */
+    public boolean covers(final int fromYear, final int toYear) {
+        return fromYear >= firstYear && toYear <= lastYear;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * @param date a date inside the covered years
+     * @return true if a chargeable holiday is observed on the date
+     */
+    public boolean isHoliday(final LocalDate date) {
+        return Arrays.binarySearch(epochDays, (int) date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * Counts the holidays observed between two dates
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @return number of holiday days in the range, 0 if start is after end
+     */
+    public int countInRange(final LocalDate startDate, final LocalDate endDate) {
+        return Math.max(0, toIndex(endDate) - fromIndex(startDate));
+    }
+
+    /**
+     * Counts the holidays observed on a given day of the week between two dates
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @param dayOfWeek the day of the week to count
+     * @return number of holiday days in the range falling on the day of the week, 0 if start is after end
+     */
+    public int countInRange(final LocalDate startDate, final LocalDate endDate, final DayOfWeek dayOfWeek) {
+        int from = fromIndex(startDate);
+        int to = toIndex(endDate);
+        if (to <= from) {
+            return 0;
+        }
+        int day = dayOfWeek.ordinal();
+        return dayOfWeekCounts[to * 7 + day] - dayOfWeekCounts[from * 7 + day];
+    }
+
+    /**
+     * Counts the holidays observed on any of several days of the week between two dates
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @param dayOfWeekMask the days of the week to count, bit DayOfWeek.ordinal() per day
+     * @return number of holiday days in the range falling on one of the days, 0 if start is after end
+     */
+    public int countInRange(final LocalDate startDate, final LocalDate endDate, final int dayOfWeekMask) {
+        int from = fromIndex(startDate);
+        int to = toIndex(endDate);
+        if (to <= from) {
+            return 0;
+        }
+        int count = 0;
+        for (int mask = dayOfWeekMask; mask != 0; mask &= mask - 1) {
+            int day = Integer.numberOfTrailingZeros(mask);
+            count += dayOfWeekCounts[to * 7 + day] - dayOfWeekCounts[from * 7 + day];
+        }
+        return count;
+    }
+
+    /**
+     * @param startDate the start of a range (inclusive)
+     * @return index of the first holiday on or after the date
+     */
+    public int fromIndex(final LocalDate startDate) {
+        return lowerBound(startDate.toEpochDay());
+    }
+
+    /**
+     * @param endDate the end of a range (inclusive)
+     * @return index one past the last holiday on or before the date
+     */
+    public int toIndex(final LocalDate endDate) {
+        return lowerBound(endDate.toEpochDay() + 1);
+    }
+
+    public int epochDayAt(final int index) {
+        return epochDays[index];
+    }
+
+    public HolidayEnum holidayAt(final int index) {
+        return holidays[index];
+    }
+
+    private int lowerBound(final long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /// 1970-01-01 was a Thursday, shifting by 3 makes Monday 0 to line up with DayOfWeek.ordinal()
+    private static int dayOfWeekIndex(final long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    /// Works out the observed day of every holiday held in the years, see {@link HolidayEnum#ruleFor(int)}
+    private static long[] load(final int fromYear, final int toYear, final HolidayEnum[] holidaySet) {
+        long[] loaded = new long[(toYear - fromYear + 1) * holidaySet.length];
+        int size = 0;
+        for (int year = fromYear; year <= toYear; year++) {
+            for (HolidayEnum holiday : holidaySet) {
+                HolidayRule rule = holiday.ruleFor(year);
+                if (rule != null) {
+                    loaded[size++] = (rule.observedEpochDay(year) << 8) | holiday.ordinal();
+                }
+            }
+        }
+        return Arrays.copyOf(loaded, size);
+    }
+
+    private static long[] concat(final long[] first, final long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.HolidayObservanceEnum;
+
+import java.time.DayOfWeek;
+import java.time.Month;
+
+/**
+ * Immutable rule placing a holiday in a year, either on a fixed date or on the nth weekday of a month.
+ * Dates are worked out as epoch days with integer arithmetic, no calendar objects are created.
+ */
+public final class HolidayRule {
+
+    private static final int LAST = -1;
+
+    private final int month;
+    /// Day of the month for a fixed date rule, 0 for a weekday rule
+    private final int dayOfMonth;
+    private final int dayOfWeek;
+    /// Which weekday of the month, 1 for the first, LAST for the last
+    private final int weekOfMonth;
+    private final HolidayObservanceEnum observance;
+    private final int validFrom;
+    private final int validTo;
+
+    private HolidayRule(final int month, final int dayOfMonth, final int dayOfWeek, final int weekOfMonth,
+                        final HolidayObservanceEnum observance, final int validFrom, final int validTo) {
+        this.month = month;
+        this.dayOfMonth = dayOfMonth;
+        this.dayOfWeek = dayOfWeek;
+        this.weekOfMonth = weekOfMonth;
+        this.observance = observance;
+        this.validFrom = validFrom;
+        this.validTo = validTo;
+    }
+
+    /**
+     * @param month month of the holiday
+     * @param dayOfMonth day of the month of the holiday
+     * @param observance which day the holiday is observed on when it falls on a weekend
+     * @return a rule for a holiday held on the same date every year
+     */
+    public static HolidayRule fixed(final Month month, final int dayOfMonth, final HolidayObservanceEnum observance) {
+        return new HolidayRule(month.getValue(), dayOfMonth, 0, 0, observance, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param weekOfMonth 1 for the first weekday of the month, 2 for the second and so on
+     * @param dayOfWeek day of the week of the holiday
+     * @param month month of the holiday
+     * @return a rule for a holiday held on the nth weekday of a month
+     */
+    public static HolidayRule nthWeekday(final int weekOfMonth, final DayOfWeek dayOfWeek, final Month month) {
+        if (weekOfMonth < 1 || weekOfMonth > 4) {
+            throw new IllegalArgumentException("Week of month must be 1 - 4, use lastWeekday for the last");
+        }
+        return new HolidayRule(month.getValue(), 0, dayOfWeek.ordinal(), weekOfMonth, HolidayObservanceEnum.ON_DATE,
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param dayOfWeek day of the week of the holiday
+     * @param month month of the holiday
+     * @return a rule for a holiday held on the last weekday of a month
+     */
+    public static HolidayRule lastWeekday(final DayOfWeek dayOfWeek, final Month month) {
+        return new HolidayRule(month.getValue(), 0, dayOfWeek.ordinal(), LAST, HolidayObservanceEnum.ON_DATE,
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param year first year the rule applies to
+     * @return a copy of this rule starting in the year
+     */
+    public HolidayRule validFrom(final int year) {
+        return new HolidayRule(month, dayOfMonth, dayOfWeek, weekOfMonth, observance, year, validTo);
+    }
+
+    /**
+     * @param year last year the rule applies to
+     * @return a copy of this rule ending in the year
+     */
+    public HolidayRule validTo(final int year) {
+        return new HolidayRule(month, dayOfMonth, dayOfWeek, weekOfMonth, observance, validFrom, year);
+    }
+
+    public boolean appliesTo(final int year) {
+        return year >= validFrom && year <= validTo;
+    }
+
+    /**
+     * Works out the observed day of the holiday, which can be in the year before (January 1st on a Saturday)
+     * @param year a year the rule applies to
+     * @return the epoch day the holiday is observed on
+     */
+    public long observedEpochDay(final int year) {
+        if (dayOfMonth > 0) {
+            long epochDay = epochDay(year, month, dayOfMonth);
+            if (observance == HolidayObservanceEnum.NEAREST_WEEKDAY) {
+                int weekday = dayOfWeek(epochDay);
+                if (weekday == DayOfWeek.SATURDAY.ordinal()) {
+                    return epochDay - 1;
+                }
+                if (weekday == DayOfWeek.SUNDAY.ordinal()) {
+                    return epochDay + 1;
+                }
+            }
+            return epochDay;
+        }
+        if (weekOfMonth == LAST) {
+            long lastDay = month == 12 ? epochDay(year + 1, 1, 1) - 1 : epochDay(year, month + 1, 1) - 1;
+            return lastDay - Math.floorMod(dayOfWeek(lastDay) - dayOfWeek, 7);
+        }
+        long firstDay = epochDay(year, month, 1);
+        return firstDay + Math.floorMod(dayOfWeek - dayOfWeek(firstDay), 7) + 7L * (weekOfMonth - 1);
+    }
+
+    /// Monday is 0 to line up with DayOfWeek.ordinal(), 1970-01-01 was a Thursday
+    static int dayOfWeek(final long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    /// Days since 1970-01-01 of a proleptic Gregorian date, counted from March so the leap day ends the year
+    static long epochDay(final int year, final int month, final int day) {
+        long shiftedYear = month <= 2 ? year - 1L : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.aalittle.ToolRental.utils;
 
-import java.util.Arrays;
-import java.util.HashSet;
+import com.example.aalittle.ToolRental.enums.HolidayEnum;
+
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 
 public class HolidayUtils {
 
-    public static final Set<String> HOLIDAY_SET  =
-            new HashSet<>(Arrays.asList("labour day", "independence day"));
+    public static final Set<HolidayEnum> HOLIDAY_SET  =
+            Collections.unmodifiableSet(EnumSet.of(HolidayEnum.LABOR_DAY, HolidayEnum.INDEPENDENCE_DAY));
 }
@@ -0,0 +1,199 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Groups requests arriving close together into batches. Request threads hand requests to a ring buffer, a single
+ * collector thread takes the first waiting request, keeps collecting until the window after it closes or the batch
+ * is full and hands the batch to an executor, so batches run side by side while the next one is collected.
+ * A request which finds the buffer full is run as a batch of its own on the calling thread.
+ * @param <T> request type
+ * @param <R> result type
+ */
+public class MicroBatcher<T, R> implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Function<List<T>, List<R>> batchFunction;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final MpscRingBuffer<Request<T, R>> ringBuffer;
+    private final Thread collectorThread;
+    private volatile boolean running = true;
+    /// Set while the collector thread is about to park with nothing to do, submitters then wake it
+    private volatile boolean idle;
+    /// The ring buffer has a single consumer, submitters draining it after close take turns
+    private final ReentrantLock leftoverLock = new ReentrantLock();
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedCount = new LongAdder();
+
+    /**
+     * Starts the collector thread
+     * @param name name of the collector thread
+     * @param batchFunction computes results for a batch, one result per request in the same order
+     * @param executor runs the batches
+     * @param capacity number of requests which may wait to be collected
+     * @param maxBatchSize a batch is handed over as soon as it holds this many requests
+     * @param windowNanos a batch is handed over this long after its first request was collected
+     */
+    public MicroBatcher(final String name, final Function<List<T>, List<R>> batchFunction, final Executor executor,
+                        final int capacity, final int maxBatchSize, final long windowNanos) {
+        if (maxBatchSize < 1 || windowNanos < 0) {
+            throw new IllegalArgumentException("Batch size must be 1 or more and the window 0 or more");
+        }
+        this.batchFunction = batchFunction;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = windowNanos;
+        this.ringBuffer = new MpscRingBuffer<>(capacity);
+        collectorThread = new Thread(this::collectLoop, name);
+        collectorThread.setDaemon(true);
+        collectorThread.start();
+    }
+
+    /**
+     * Queues a request for the next batch
+     * @param request the request
+     * @return the result of the request, completed exceptionally if its batch failed
+     */
+    public CompletableFuture<R> submit(final T request) {
+        Request<T, R> pending = new Request<>(request, new CompletableFuture<>());
+        if (!running || !ringBuffer.offer(pending)) {
+            run(List.of(pending));
+            return pending.result;
+        }
+        if (!running) {
+            //Closed after the check above, the collector may have drained for the last time before the offer
+            runLeftovers();
+            return pending.result;
+        }
+        if (idle) {
+            LockSupport.unpark(collectorThread);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Stops collecting, requests already queued still run. A request queued while closing is run by the thread which
+     * submitted it once the collector has stopped.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(collectorThread);
+        collectorThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * @return number of batches run
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * @return number of requests run in a batch
+     */
+    public long getBatchedCount() {
+        return batchedCount.sum();
+    }
+
+    private void collectLoop() {
+        while (running) {
+            Request<T, R> first = ringBuffer.poll();
+            if (first == null) {
+                idle = true;
+                //Check again after publishing idle, a request offered before that would otherwise wait a whole park
+                first = ringBuffer.poll();
+                if (first == null) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    idle = false;
+                    continue;
+                }
+                idle = false;
+            }
+            List<Request<T, R>> batch = new ArrayList<>(maxBatchSize);
+            batch.add(first);
+            long deadline = System.nanoTime() + windowNanos;
+            while (batch.size() < maxBatchSize) {
+                ringBuffer.drain(batch::add, maxBatchSize - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= maxBatchSize || remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            handOver(batch);
+        }
+        //Run whatever was queued before close
+        List<Request<T, R>> batch = new ArrayList<>();
+        while (ringBuffer.drain(batch::add, maxBatchSize) > 0) {
+            run(batch);
+            batch = new ArrayList<>();
+        }
+    }
+
+    /// Waits for the collector to finish so this thread is the only consumer, then runs what it left queued
+    private void runLeftovers() {
+        boolean interrupted = false;
+        while (collectorThread.isAlive()) {
+            try {
+                collectorThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        leftoverLock.lock();
+        try {
+            List<Request<T, R>> batch = new ArrayList<>();
+            while (ringBuffer.drain(batch::add, maxBatchSize) > 0) {
+                run(batch);
+                batch = new ArrayList<>();
+            }
+        } finally {
+            leftoverLock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handOver(final List<Request<T, R>> batch) {
+        try {
+            executor.execute(() -> run(batch));
+        } catch (RejectedExecutionException e) {
+            run(batch);
+        }
+    }
+
+    private void run(final List<Request<T, R>> batch) {
+        batchCount.increment();
+        batchedCount.add(batch.size());
+        try {
+            List<T> requests = new ArrayList<>(batch.size());
+            for (Request<T, R> pending : batch) {
+                requests.add(pending.request);
+            }
+            List<R> results = batchFunction.apply(requests);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private record Request<T, R>(T request, CompletableFuture<R> result) {
+    }
+}
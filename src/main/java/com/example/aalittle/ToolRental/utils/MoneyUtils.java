@@ -0,0 +1,67 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Money arithmetic on long cents. Amounts only become {@link BigDecimal} when they are handed out in an agreement.
+ */
+public class MoneyUtils {
+
+    private static final int CENTS_SCALE = 2;
+    private static final int MAX_CACHED_PERCENT = 100;
+
+    /// Discount percents exactly as they were always shown, e.g. 10 is "10.0" and 25 is "25.00"
+    private static final BigDecimal[] DISPLAY_PERCENTS = new BigDecimal[MAX_CACHED_PERCENT + 1];
+
+    static {
+        for (int percent = 0; percent <= MAX_CACHED_PERCENT; percent++) {
+            DISPLAY_PERCENTS[percent] = legacyDisplayPercent(percent);
+        }
+    }
+
+    /**
+     * Converts an amount to cents
+     * @param amount an amount in whole cents, e.g. 1.49
+     * @return the amount in cents, e.g. 149
+     * @throws ArithmeticException if the amount has fractions of a cent
+     */
+    public static long toCents(final BigDecimal amount) {
+        return amount.movePointRight(CENTS_SCALE).longValueExact();
+    }
+
+    /**
+     * @param cents an amount in cents
+     * @return the amount as a {@link BigDecimal} with 2 decimal places
+     */
+    public static BigDecimal toBigDecimal(final long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+    /**
+     * Calculates a whole percent of an amount, rounded HALF_UP to the cent
+     * @param cents an amount in cents
+     * @param percent the percent to take
+     * @return the percent of the amount in cents
+     */
+    public static long percentOf(final long cents, final int percent) {
+        long hundredthsOfCents = Math.multiplyExact(cents, (long) percent);
+        long rounded = (Math.abs(hundredthsOfCents) + 50) / 100;
+        return hundredthsOfCents < 0 ? -rounded : rounded;
+    }
+
+    /**
+     * @param percent a whole percent
+     * @return the percent in the form agreements have always shown it
+     */
+    public static BigDecimal toDisplayPercent(final int percent) {
+        if (percent >= 0 && percent <= MAX_CACHED_PERCENT) {
+            return DISPLAY_PERCENTS[percent];
+        }
+        return legacyDisplayPercent(percent);
+    }
+
+    /// Percents used to go through a double, the scale of the result depends on how that double prints
+    private static BigDecimal legacyDisplayPercent(final int percent) {
+        return BigDecimal.valueOf(((double) percent / (double) 100)).multiply(BigDecimal.valueOf(100));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock free queue for many producer threads and a single consumer thread.
+ * Every slot carries a sequence number telling producers and the consumer whose turn it is,
+ * so a producer only competes with other producers on one compare and set.
+ * @param <E> element type
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    /// Only the consumer thread moves the head, it is published to producers through the slot sequences
+    private volatile long head;
+
+    /**
+     * @param requestedCapacity number of slots, rounded up to a power of two
+     */
+    public MpscRingBuffer(final int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be 1 or more");
+        }
+        capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room, safe to call from any thread
+     * @param element the element to add, must not be null
+     * @return false if the buffer is full
+     */
+    public boolean offer(final E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element, must only be called from the consumer thread
+     * @return the oldest element or null if the buffer is empty
+     */
+    public E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.set(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Removes up to limit elements in order, must only be called from the consumer thread
+     * @param consumer receives each removed element
+     * @param limit maximum number of elements to remove
+     * @return number of elements removed
+     */
+    public int drain(final Consumer<? super E> consumer, final int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return approximate number of elements waiting
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
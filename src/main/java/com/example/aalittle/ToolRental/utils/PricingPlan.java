@@ -0,0 +1,263 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.PricingRuleTypeEnum;
+import com.example.aalittle.ToolRental.model.PricingRule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The pricing rules of a tool compiled into a flat program over a few registers. The rules are checked and turned
+ * into amounts in cents once when the tool data is built, so a quote runs a short loop over a long array and does
+ * not look anything up or allocate however many rules the tool has.
+ * <p>
+ * Every instruction is {@link #INSTRUCTION_SIZE} longs: an opcode followed by its operands. Steps always run in the
+ * same order whatever order the rules were written in: daily charges, weekend and holiday extras, the largest long
+ * rental discount, the customer discount and last the minimum charge.
+ */
+public final class PricingPlan {
+
+    /// Register inputs, set by the caller before {@link #evaluate(long[])}
+    public static final int CHARGEABLE_DAYS = 0;
+    /// Chargeable days on the weekend of the weekend multiplier, see {@link #weekendDayMask()}
+    public static final int CHARGEABLE_WEEKEND_DAYS = 1;
+    public static final int CHARGEABLE_HOLIDAYS = 2;
+    public static final int RENTAL_DAYS = 3;
+    public static final int DISCOUNT_PERCENT = 4;
+    /// Register outputs, the final charge is SUB_TOTAL - DISCOUNT
+    public static final int SUB_TOTAL = 5;
+    public static final int DISCOUNT = 6;
+    public static final int REGISTER_COUNT = 7;
+
+    private static final int INSTRUCTION_SIZE = 4;
+    /// SUB_TOTAL += cents per day * register
+    private static final int ADD_PER_DAY = 0;
+    /// If RENTAL_DAYS >= minimum days, DISCOUNT = percent of SUB_TOTAL and jump past the other tiers
+    private static final int TIER_DISCOUNT = 1;
+    /// DISCOUNT += DISCOUNT_PERCENT of what is left after DISCOUNT
+    private static final int CUSTOMER_DISCOUNT = 2;
+    /// Raises SUB_TOTAL to the minimum and caps DISCOUNT so the final charge is not below it
+    private static final int MINIMUM_CHARGE = 3;
+
+    private static final String RULE_SEPARATOR = ";";
+    private static final String VALUE_SEPARATOR = ":";
+    /// Rule types a tool may only have once
+    private static final Set<PricingRuleTypeEnum> SINGLE_RULES = EnumSet.of(
+            PricingRuleTypeEnum.WEEKEND_MULTIPLIER, PricingRuleTypeEnum.HOLIDAY_SURCHARGE,
+            PricingRuleTypeEnum.MINIMUM_CHARGE);
+
+    private final long[] program;
+    private final boolean needsWeekendDays;
+    private final boolean needsHolidays;
+    private final int weekendDayMask;
+
+    private PricingPlan(final long[] program, final boolean needsWeekendDays, final boolean needsHolidays,
+                        final int weekendDayMask) {
+        this.program = program;
+        this.needsWeekendDays = needsWeekendDays;
+        this.needsHolidays = needsHolidays;
+        this.weekendDayMask = weekendDayMask;
+    }
+
+    /**
+     * Compiles the pricing rules of a tool
+     * @param dailyChargeCents the daily charge of the tool in cents
+     * @param pricingRules the {@link PricingRule}s of the tool in any order, may be empty
+     * @return a {@link PricingPlan}
+     * @throws IllegalArgumentException if a rule is out of range or a rule type which may only be given once repeats
+     */
+    public static PricingPlan compile(final long dailyChargeCents, final List<PricingRule> pricingRules) {
+        Set<PricingRuleTypeEnum> seen = EnumSet.noneOf(PricingRuleTypeEnum.class);
+        List<PricingRule> tiers = new ArrayList<>();
+        PricingRule weekendMultiplier = null;
+        PricingRule holidaySurcharge = null;
+        PricingRule minimumCharge = null;
+        for (PricingRule pricingRule : pricingRules) {
+            PricingRuleTypeEnum type = pricingRule.getType();
+            if (type == null || pricingRule.getAmount() == null || pricingRule.getAmount().signum() < 0) {
+                throw new IllegalArgumentException("pricing rule " + pricingRule
+                        + " needs a type and an amount of 0 or more");
+            }
+            if (SINGLE_RULES.contains(type) && !seen.add(type)) {
+                throw new IllegalArgumentException(type + " may only be given once");
+            }
+            switch (type) {
+                case WEEKEND_MULTIPLIER -> {
+                    if (pricingRule.getWeekendDayMask() == 0
+                            || (pricingRule.getWeekendDayMask() & ~ChargeableDayUtils.ALL_DAYS_MASK) != 0) {
+                        throw new IllegalArgumentException(type + " needs one or more weekend days");
+                    }
+                    weekendMultiplier = pricingRule;
+                }
+                case HOLIDAY_SURCHARGE -> holidaySurcharge = pricingRule;
+                case MINIMUM_CHARGE -> minimumCharge = pricingRule;
+                case LONG_RENTAL_DISCOUNT -> {
+                    if (pricingRule.getMinimumRentalDays() < 1
+                            || pricingRule.getAmount().compareTo(BigDecimal.valueOf(100)) > 0) {
+                        throw new IllegalArgumentException(type
+                                + " needs 1 or more rental days and a percent of 100 or under");
+                    }
+                    for (PricingRule tier : tiers) {
+                        if (tier.getMinimumRentalDays() == pricingRule.getMinimumRentalDays()) {
+                            throw new IllegalArgumentException(type + " repeats " + tier.getMinimumRentalDays()
+                                    + " rental days");
+                        }
+                    }
+                    tiers.add(pricingRule);
+                }
+            }
+        }
+
+        List<long[]> instructions = new ArrayList<>();
+        instructions.add(new long[]{ADD_PER_DAY, dailyChargeCents, CHARGEABLE_DAYS, 0});
+        if (weekendMultiplier != null) {
+            //Weekend days are already counted once at the daily charge, add the difference
+            long weekendChargeCents = MoneyUtils.toCents(MoneyUtils.toBigDecimal(dailyChargeCents)
+                    .multiply(weekendMultiplier.getAmount()).setScale(2, RoundingMode.HALF_UP));
+            instructions.add(new long[]{ADD_PER_DAY, weekendChargeCents - dailyChargeCents,
+                    CHARGEABLE_WEEKEND_DAYS, 0});
+        }
+        if (holidaySurcharge != null) {
+            instructions.add(new long[]{ADD_PER_DAY, MoneyUtils.toCents(holidaySurcharge.getAmount()),
+                    CHARGEABLE_HOLIDAYS, 0});
+        }
+        //Largest tier first, the first one which applies skips the rest
+        tiers.sort(Comparator.comparingInt(PricingRule::getMinimumRentalDays).reversed());
+        for (int i = 0; i < tiers.size(); i++) {
+            PricingRule tier = tiers.get(i);
+            long percent = tier.getAmount().intValueExact();
+            instructions.add(new long[]{TIER_DISCOUNT, tier.getMinimumRentalDays(), percent,
+                    (long) (instructions.size() + tiers.size() - i) * INSTRUCTION_SIZE});
+        }
+        instructions.add(new long[]{CUSTOMER_DISCOUNT, 0, 0, 0});
+        if (minimumCharge != null) {
+            instructions.add(new long[]{MINIMUM_CHARGE, MoneyUtils.toCents(minimumCharge.getAmount()), 0, 0});
+        }
+
+        long[] program = new long[instructions.size() * INSTRUCTION_SIZE];
+        for (int i = 0; i < instructions.size(); i++) {
+            System.arraycopy(instructions.get(i), 0, program, i * INSTRUCTION_SIZE, INSTRUCTION_SIZE);
+        }
+        return new PricingPlan(program, weekendMultiplier != null, holidaySurcharge != null,
+                weekendMultiplier != null ? weekendMultiplier.getWeekendDayMask() : ChargeableDayUtils.WEEKEND_MASK);
+    }
+
+    /**
+     * Reads pricing rules written as TYPE:amount separated by ;, long rental discounts are written as
+     * LONG_RENTAL_DISCOUNT:minimumRentalDays:percent, e.g. WEEKEND_MULTIPLIER:1.5;LONG_RENTAL_DISCOUNT:7:10.
+     * A weekend multiplier applies to Saturday and Sunday unless its weekend is given as MTWTFSS with a - for each
+     * weekday, e.g. WEEKEND_MULTIPLIER:1.5:----FS- for a Friday and Saturday weekend.
+     * @param pricingRules the pricing rules, blank for none
+     * @return the {@link PricingRule}s in the order they were written
+     * @throws IllegalArgumentException if a rule can not be read
+     */
+    public static List<PricingRule> parseRules(final String pricingRules) {
+        List<PricingRule> rules = new ArrayList<>();
+        if (pricingRules.isBlank()) {
+            return rules;
+        }
+        for (String rule : pricingRules.split(RULE_SEPARATOR)) {
+            String[] values = rule.trim().split(VALUE_SEPARATOR, -1);
+            PricingRuleTypeEnum type = PricingRuleTypeEnum.valueOf(values[0].trim());
+            int valueCount = type == PricingRuleTypeEnum.LONG_RENTAL_DISCOUNT ? 3 : 2;
+            boolean weekendGiven = type == PricingRuleTypeEnum.WEEKEND_MULTIPLIER && values.length == 3;
+            if (values.length != valueCount && !weekendGiven) {
+                throw new IllegalArgumentException("pricing rule " + rule.trim() + " must have " + valueCount
+                        + " values separated by " + VALUE_SEPARATOR);
+            }
+            if (weekendGiven) {
+                rules.add(new PricingRule(type, 0, new BigDecimal(values[1].trim()),
+                        ChargeableDayUtils.parseChargeableDays(values[2].trim())));
+            } else {
+                rules.add(valueCount == 3
+                        ? new PricingRule(type, Integer.parseInt(values[1].trim()), new BigDecimal(values[2].trim()))
+                        : new PricingRule(type, 0, new BigDecimal(values[1].trim())));
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Runs the plan, the output registers are overwritten and the input registers are left as they are
+     * @param registers {@link #REGISTER_COUNT} registers with the inputs set
+     * @throws ArithmeticException if an amount does not fit in a long
+     */
+    public void evaluate(final long[] registers) {
+        registers[SUB_TOTAL] = 0;
+        registers[DISCOUNT] = 0;
+        int pc = 0;
+        while (pc < program.length) {
+            long first = program[pc + 1];
+            long second = program[pc + 2];
+            switch ((int) program[pc]) {
+                case ADD_PER_DAY -> registers[SUB_TOTAL] = Math.addExact(registers[SUB_TOTAL],
+                        Math.multiplyExact(first, registers[(int) second]));
+                case TIER_DISCOUNT -> {
+                    if (registers[RENTAL_DAYS] >= first) {
+                        registers[DISCOUNT] = MoneyUtils.percentOf(registers[SUB_TOTAL], (int) second);
+                        pc = (int) program[pc + 3];
+                        continue;
+                    }
+                }
+                case CUSTOMER_DISCOUNT -> registers[DISCOUNT] += MoneyUtils.percentOf(
+                        registers[SUB_TOTAL] - registers[DISCOUNT], (int) registers[DISCOUNT_PERCENT]);
+                case MINIMUM_CHARGE -> {
+                    registers[SUB_TOTAL] = Math.max(registers[SUB_TOTAL], first);
+                    registers[DISCOUNT] = Math.min(registers[DISCOUNT], registers[SUB_TOTAL] - first);
+                }
+                default -> throw new IllegalStateException("Unknown pricing opcode " + program[pc]);
+            }
+            pc += INSTRUCTION_SIZE;
+        }
+    }
+
+    /**
+     * Runs only the per day steps of the plan, the daily charges and the weekend and holiday extras, as for days
+     * kept past the due date which earn no discount and are not raised to the minimum charge. DISCOUNT is left at 0.
+     * @param registers {@link #REGISTER_COUNT} registers with the day count inputs set
+     * @throws ArithmeticException if an amount does not fit in a long
+     */
+    public void evaluateDayCharges(final long[] registers) {
+        registers[SUB_TOTAL] = 0;
+        registers[DISCOUNT] = 0;
+        //Per day steps always come first
+        for (int pc = 0; pc < program.length && program[pc] == ADD_PER_DAY; pc += INSTRUCTION_SIZE) {
+            registers[SUB_TOTAL] = Math.addExact(registers[SUB_TOTAL],
+                    Math.multiplyExact(program[pc + 1], registers[(int) program[pc + 2]]));
+        }
+    }
+
+    /**
+     * @return true when CHARGEABLE_WEEKEND_DAYS is read, otherwise it may be left at 0
+     */
+    public boolean needsWeekendDays() {
+        return needsWeekendDays;
+    }
+
+    /**
+     * @return the days of the week counted in CHARGEABLE_WEEKEND_DAYS, bit DayOfWeek.ordinal() per day, Saturday
+     * and Sunday when the plan has no weekend multiplier
+     */
+    public int weekendDayMask() {
+        return weekendDayMask;
+    }
+
+    /**
+     * @return true when CHARGEABLE_HOLIDAYS is read, otherwise it may be left at 0
+     */
+    public boolean needsHolidays() {
+        return needsHolidays;
+    }
+
+    /**
+     * @return true when, for a given rental length and discount, the charge only grows with the chargeable days
+     */
+    public boolean dependsOnlyOnChargeableDays() {
+        return !needsWeekendDays && !needsHolidays;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issued rental agreements laid out column by column for aggregate queries. Each column is a primitive array in a
+ * segment of fixed size: checkout epoch days, tool code and brand ordinals, chargeable days and money in cents.
+ * Agreements are appended to the active segment, which is sealed once full. Every segment keeps the range of its
+ * checkout days and the tools and brands it holds, so a query skips segments it can not match and does not filter
+ * the rows of segments it matches entirely.
+ * <p>
+ * Appends are serialised by a lock, queries take no lock. A segment publishes its rows through its volatile size,
+ * so a query sees every row appended before it started and possibly some appended while it runs.
+ */
+public class RentalHistory {
+
+    /// Totals of a group are stored side by side in this order
+    private static final int AGREEMENTS = 0;
+    private static final int CHARGEABLE_DAYS = 1;
+    private static final int SUB_TOTAL = 2;
+    private static final int DISCOUNT = 3;
+    private static final int COLUMNS = 4;
+
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    /// Sealed segments and the active segment, replaced together so a query never sees a segment twice or not at all
+    private volatile Segments segments;
+
+    /**
+     * @param segmentSize agreements per segment
+     */
+    public RentalHistory(final int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be 1 or more");
+        }
+        this.segmentSize = segmentSize;
+        this.segments = new Segments(new Segment[0], new Segment(segmentSize));
+    }
+
+    /**
+     * Appends an agreement
+     * @param rentalAgreement an issued {@link RentalAgreement}
+     */
+    public void append(final RentalAgreement rentalAgreement) {
+        append(rentalAgreement.getToolCode(), rentalAgreement.getToolBrand(),
+                rentalAgreement.getCheckoutDate().toEpochDay(), rentalAgreement.getChargeableDays(),
+                MoneyUtils.toCents(rentalAgreement.getSubTotal()),
+                MoneyUtils.toCents(rentalAgreement.getDiscountAmount()));
+    }
+
+    /**
+     * Appends an agreement
+     * @param toolCode tool of the agreement
+     * @param toolBrand brand of the tool
+     * @param checkoutDay checkout epoch day
+     * @param chargeableDays chargeable days
+     * @param subTotalCents pre-discount charge in cents
+     * @param discountCents discount in cents
+     */
+    public void append(final ToolCodeEnum toolCode, final ToolBrandEnum toolBrand, final long checkoutDay,
+                       final int chargeableDays, final long subTotalCents, final long discountCents) {
+        appendLock.lock();
+        try {
+            Segments current = segments;
+            current.active.append(toolCode.ordinal(), toolBrand.ordinal(), Math.toIntExact(checkoutDay),
+                    chargeableDays, subTotalCents, discountCents);
+            if (current.active.size == segmentSize) {
+                Segment[] sealed = Arrays.copyOf(current.sealed, current.sealed.length + 1);
+                sealed[sealed.length - 1] = current.active;
+                segments = new Segments(sealed, new Segment(segmentSize));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of agreements appended
+     */
+    public long size() {
+        Segments current = segments;
+        return (long) current.sealed.length * segmentSize + current.active.size;
+    }
+
+    /**
+     * @return number of segments holding agreements, sealed or not
+     */
+    public int getSegmentCount() {
+        Segments current = segments;
+        return current.sealed.length + (current.active.size > 0 ? 1 : 0);
+    }
+
+    /**
+     * @return earliest checkout epoch day, or 0 if the history is empty
+     */
+    public long getFirstDay() {
+        Segments current = segments;
+        int firstDay = Integer.MAX_VALUE;
+        for (Segment segment : current.all()) {
+            if (segment.size > 0) {
+                firstDay = Math.min(firstDay, segment.minDay);
+            }
+        }
+        return firstDay == Integer.MAX_VALUE ? 0 : firstDay;
+    }
+
+    /**
+     * @return latest checkout epoch day, or 0 if the history is empty
+     */
+    public long getLastDay() {
+        Segments current = segments;
+        int lastDay = Integer.MIN_VALUE;
+        for (Segment segment : current.all()) {
+            if (segment.size > 0) {
+                lastDay = Math.max(lastDay, segment.maxDay);
+            }
+        }
+        return lastDay == Integer.MIN_VALUE ? 0 : lastDay;
+    }
+
+    /**
+     * Totals the agreements matching a filter by group, scanning segments in parallel
+     * @param fromDay first checkout epoch day included
+     * @param toDay last checkout epoch day included
+     * @param toolCodeMask bit per {@link ToolCodeEnum} ordinal of the tools included
+     * @param toolBrandMask bit per {@link ToolBrandEnum} ordinal of the brands included
+     * @param groupBy what the totals are grouped by, date groups run from fromDay to toDay
+     * @param pool runs the scan
+     * @return the {@link Totals}
+     */
+    public Totals aggregate(final long fromDay, final long toDay, final int toolCodeMask, final int toolBrandMask,
+                            final HistoryGroupByEnum groupBy, final ForkJoinPool pool) {
+        if (fromDay > toDay) {
+            throw new IllegalArgumentException("From day must not be after to day");
+        }
+        int groupCount = switch (groupBy) {
+            case TOOL_CODE -> ToolCodeEnum.values().length;
+            case TOOL_BRAND -> ToolBrandEnum.values().length;
+            case CHECKOUT_DATE -> Math.toIntExact(toDay - fromDay + 1);
+        };
+        //Days outside the int range can not match anything stored
+        Query query = new Query((int) Math.max(fromDay, Integer.MIN_VALUE), (int) Math.min(toDay, Integer.MAX_VALUE),
+                toolCodeMask, toolBrandMask, groupBy, groupCount);
+        Segment[] all = segments.all();
+        //A few leaves per worker spreads uneven segments without allocating totals per segment
+        int leafSize = Math.max(1, all.length / (pool.getParallelism() * 4));
+        return new Totals(groupBy, fromDay, pool.invoke(new SegmentScan(all, 0, all.length, leafSize, query)));
+    }
+
+    /**
+     * Totals of each group of an aggregate query, group i is the tool code or brand ordinal i or the day i days
+     * after the first day of the query
+     */
+    public static final class Totals {
+
+        private final HistoryGroupByEnum groupBy;
+        private final long fromDay;
+        private final long[] values;
+
+        private Totals(final HistoryGroupByEnum groupBy, final long fromDay, final long[] values) {
+            this.groupBy = groupBy;
+            this.fromDay = fromDay;
+            this.values = values;
+        }
+
+        public HistoryGroupByEnum getGroupBy() {
+            return groupBy;
+        }
+
+        /**
+         * @return checkout epoch day of group 0 when grouped by date
+         */
+        public long getFromDay() {
+            return fromDay;
+        }
+
+        public int getGroupCount() {
+            return values.length / COLUMNS;
+        }
+
+        public long getAgreementCount(final int group) {
+            return values[group * COLUMNS + AGREEMENTS];
+        }
+
+        public long getChargeableDays(final int group) {
+            return values[group * COLUMNS + CHARGEABLE_DAYS];
+        }
+
+        public long getSubTotalCents(final int group) {
+            return values[group * COLUMNS + SUB_TOTAL];
+        }
+
+        public long getDiscountCents(final int group) {
+            return values[group * COLUMNS + DISCOUNT];
+        }
+    }
+
+    private record Segments(Segment[] sealed, Segment active) {
+
+        private Segment[] all() {
+            Segment[] all = Arrays.copyOf(sealed, sealed.length + 1);
+            all[sealed.length] = active;
+            return all;
+        }
+    }
+
+    private record Query(int fromDay, int toDay, int toolCodeMask, int toolBrandMask, HistoryGroupByEnum groupBy,
+                         int groupCount) {
+    }
+
+    /// One fixed size block of rows, the zone map fields only ever widen and are written before size
+    private static final class Segment {
+
+        private final int[] checkoutDays;
+        private final byte[] toolCodes;
+        private final byte[] toolBrands;
+        private final int[] chargeableDays;
+        private final long[] subTotalCents;
+        private final long[] discountCents;
+        private volatile int size;
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+        private int toolCodeMask;
+        private int toolBrandMask;
+
+        private Segment(final int capacity) {
+            checkoutDays = new int[capacity];
+            toolCodes = new byte[capacity];
+            toolBrands = new byte[capacity];
+            chargeableDays = new int[capacity];
+            subTotalCents = new long[capacity];
+            discountCents = new long[capacity];
+        }
+
+        /// Only called under the append lock
+        private void append(final int toolCode, final int toolBrand, final int checkoutDay, final int chargeable,
+                            final long subTotal, final long discount) {
+            int row = size;
+            checkoutDays[row] = checkoutDay;
+            toolCodes[row] = (byte) toolCode;
+            toolBrands[row] = (byte) toolBrand;
+            chargeableDays[row] = chargeable;
+            subTotalCents[row] = subTotal;
+            discountCents[row] = discount;
+            minDay = Math.min(minDay, checkoutDay);
+            maxDay = Math.max(maxDay, checkoutDay);
+            toolCodeMask |= 1 << toolCode;
+            toolBrandMask |= 1 << toolBrand;
+            size = row + 1;
+        }
+
+        private void scan(final Query query, final long[] totals) {
+            //Read size first, every row and zone map update below it is then visible
+            int count = size;
+            int segmentMinDay = minDay;
+            int segmentMaxDay = maxDay;
+            int segmentToolCodes = toolCodeMask;
+            int segmentToolBrands = toolBrandMask;
+            if (count == 0 || segmentMaxDay < query.fromDay || segmentMinDay > query.toDay
+                    || (segmentToolCodes & query.toolCodeMask) == 0 || (segmentToolBrands & query.toolBrandMask) == 0) {
+                return;
+            }
+            boolean filterRows = segmentMinDay < query.fromDay || segmentMaxDay > query.toDay
+                    || (segmentToolCodes & ~query.toolCodeMask) != 0 || (segmentToolBrands & ~query.toolBrandMask) != 0;
+            for (int row = 0; row < count; row++) {
+                int day = checkoutDays[row];
+                int toolCode = toolCodes[row];
+                int toolBrand = toolBrands[row];
+                if (filterRows && (day < query.fromDay || day > query.toDay || (query.toolCodeMask >>> toolCode & 1) == 0
+                        || (query.toolBrandMask >>> toolBrand & 1) == 0)) {
+                    continue;
+                }
+                int group = switch (query.groupBy) {
+                    case TOOL_CODE -> toolCode;
+                    case TOOL_BRAND -> toolBrand;
+                    case CHECKOUT_DATE -> day - query.fromDay;
+                } * COLUMNS;
+                totals[group + AGREEMENTS]++;
+                totals[group + CHARGEABLE_DAYS] += chargeableDays[row];
+                totals[group + SUB_TOTAL] += subTotalCents[row];
+                totals[group + DISCOUNT] += discountCents[row];
+            }
+        }
+    }
+
+    /// Splits the segments in halves down to leaves of a few segments, each leaf totals into its own array
+    private static final class SegmentScan extends RecursiveTask<long[]> {
+
+        private final Segment[] segments;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Query query;
+
+        private SegmentScan(final Segment[] segments, final int from, final int to, final int leafSize,
+                            final Query query) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.query = query;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= leafSize) {
+                long[] totals = new long[query.groupCount * COLUMNS];
+                for (int i = from; i < to; i++) {
+                    segments[i].scan(query, totals);
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            SegmentScan left = new SegmentScan(segments, from, middle, leafSize, query);
+            left.fork();
+            long[] totals = new SegmentScan(segments, middle, to, leafSize, query).compute();
+            long[] leftTotals = left.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += leftTotals[i];
+            }
+            return totals;
+        }
+    }
+}
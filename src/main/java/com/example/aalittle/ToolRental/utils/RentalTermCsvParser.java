@@ -0,0 +1,267 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Reads rental terms from CSV bytes, e.g. a memory mapped file, one term per line:
+ * toolCode,checkoutDate,rentalDayCount[,discountPercent] with the checkout date as MM/dd/yy. Fields are read byte by
+ * byte in place, so no String is built for a field. Fields may be padded with spaces or wrapped in double quotes,
+ * lines may end in \n or \r\n and blank lines are skipped. Terms are checked against the limits of the rental API.
+ */
+public final class RentalTermCsvParser {
+
+    /// Longest line read, a longer one is reported rather than read on past the end of a mapped chunk
+    public static final int MAX_LINE_BYTES = 1024;
+
+    private static final int FIELD_COUNT = 4;
+    private static final int MAX_INT_DIGITS = 9;
+    private static final byte[][] TOOL_CODES = new byte[ToolCodeEnum.values().length][];
+    private static final byte[] HEADER = "toolCode".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            TOOL_CODES[toolCode.ordinal()] = toolCode.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Receives what is read from each line
+     */
+    public interface Sink {
+
+        /**
+         * @param line index of the line among the lines read, from 0
+         * @param rentalTerm the {@link RentalTerm} on the line
+         */
+        void term(int line, RentalTerm rentalTerm);
+
+        /**
+         * @param line index of the line among the lines read, from 0
+         * @param message why the line was not read
+         */
+        void error(int line, String message);
+    }
+
+    private RentalTermCsvParser() {
+    }
+
+    /**
+     * Finds where the first whole line of a chunk starts, a line belongs to the chunk holding its first byte
+     * @param buffer the bytes, starting at most one byte before the chunk
+     * @param from index of the first byte of the chunk
+     * @return index of the first line starting at or after from, or the buffer limit if there is none
+     */
+    public static int firstLineStart(final ByteBuffer buffer, final int from) {
+        if (from == 0) {
+            return 0;
+        }
+        //Starting one byte back finds a line which starts exactly at from
+        int index = from - 1;
+        while (index < buffer.limit() && buffer.get(index) != '\n') {
+            index++;
+        }
+        return Math.min(index + 1, buffer.limit());
+    }
+
+    /**
+     * Reads every line starting in a range, the last of them may run on past the end of the range
+     * @param buffer the bytes, read with absolute gets so its position is left as it is
+     * @param from index where the first line starts
+     * @param to index after the last byte a line may start at
+     * @param endOfInput true when the buffer ends where the input ends, so a last line without a newline is whole
+     * @param skipHeader true to skip the first line if its first field is toolCode
+     * @param sink receives each term or error
+     * @return number of lines starting in the range, counting blank lines and a skipped header
+     */
+    public static int parse(final ByteBuffer buffer, final int from, final int to, final boolean endOfInput,
+                            final boolean skipHeader, final Sink sink) {
+        int[] bounds = new int[FIELD_COUNT * 2];
+        int limit = buffer.limit();
+        int line = 0;
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int nextLineStart = lineEnd + 1;
+            if (lineEnd == limit && !endOfInput) {
+                sink.error(line, "Line is longer than " + MAX_LINE_BYTES + " bytes");
+                return line + 1;
+            }
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd - lineStart > MAX_LINE_BYTES) {
+                sink.error(line, "Line is longer than " + MAX_LINE_BYTES + " bytes");
+            } else if (!isBlank(buffer, lineStart, lineEnd) && !(line == 0 && skipHeader
+                    && isHeader(buffer, lineStart, lineEnd))) {
+                String error = parseLine(buffer, lineStart, lineEnd, bounds, line, sink);
+                if (error != null) {
+                    sink.error(line, error);
+                }
+            }
+            line++;
+            lineStart = nextLineStart;
+        }
+        return line;
+    }
+
+    /// Hands the term to the sink, or returns why the line could not be read
+    private static String parseLine(final ByteBuffer buffer, final int start, final int end, final int[] bounds,
+                                    final int line, final Sink sink) {
+        int fieldCount = splitFields(buffer, start, end, bounds);
+        if (fieldCount < FIELD_COUNT - 1 || fieldCount > FIELD_COUNT) {
+            return "Expected toolCode,checkoutDate,rentalDayCount[,discountPercent]";
+        }
+        ToolCodeEnum toolCode = parseToolCode(buffer, bounds[0], bounds[1]);
+        if (toolCode == null) {
+            return "Please enter a valid tool code enum";
+        }
+        LocalDate checkoutDate = parseDate(buffer, bounds[2], bounds[3]);
+        if (checkoutDate == null) {
+            return "Checkout date must be a valid MM/dd/yy date";
+        }
+        int rentalDayCount = parseInt(buffer, bounds[4], bounds[5]);
+        if (rentalDayCount < 1) {
+            return "Rental day count must be 1 or more";
+        }
+        if (rentalDayCount > RentalTerm.MAX_RENTAL_DAY_COUNT) {
+            return "Rental day count must be " + RentalTerm.MAX_RENTAL_DAY_COUNT + " or under";
+        }
+        int discountPercent = fieldCount == FIELD_COUNT ? parseInt(buffer, bounds[6], bounds[7]) : 0;
+        if (discountPercent < 0) {
+            return "Discount Percent must be 0 or more";
+        }
+        if (discountPercent > 100) {
+            return "Discount Percent must be 100 or under";
+        }
+        sink.term(line, new RentalTerm(toolCode, checkoutDate, rentalDayCount, discountPercent));
+        return null;
+    }
+
+    /// Start and end of each field, trimmed of spaces and quotes, returns the field count or more if there are more
+    private static int splitFields(final ByteBuffer buffer, final int start, final int end, final int[] bounds) {
+        int fieldCount = 0;
+        int fieldStart = start;
+        for (int index = start; index <= end; index++) {
+            if (index == end || buffer.get(index) == ',') {
+                if (fieldCount == FIELD_COUNT) {
+                    return fieldCount + 1;
+                }
+                int trimmedStart = fieldStart;
+                int trimmedEnd = index;
+                while (trimmedStart < trimmedEnd && buffer.get(trimmedStart) == ' ') {
+                    trimmedStart++;
+                }
+                while (trimmedEnd > trimmedStart && buffer.get(trimmedEnd - 1) == ' ') {
+                    trimmedEnd--;
+                }
+                if (trimmedEnd - trimmedStart >= 2 && buffer.get(trimmedStart) == '"'
+                        && buffer.get(trimmedEnd - 1) == '"') {
+                    trimmedStart++;
+                    trimmedEnd--;
+                }
+                bounds[fieldCount * 2] = trimmedStart;
+                bounds[fieldCount * 2 + 1] = trimmedEnd;
+                fieldCount++;
+                fieldStart = index + 1;
+            }
+        }
+        return fieldCount;
+    }
+
+    private static ToolCodeEnum parseToolCode(final ByteBuffer buffer, final int start, final int end) {
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            if (matches(buffer, start, end, TOOL_CODES[toolCode.ordinal()], false)) {
+                return toolCode;
+            }
+        }
+        return null;
+    }
+
+    /// Month and day of 1 or 2 digits, a year of 2 digits is in the 2000s as the rental API reads it
+    private static LocalDate parseDate(final ByteBuffer buffer, final int start, final int end) {
+        int firstSlash = indexOf(buffer, start, end, (byte) '/');
+        int secondSlash = firstSlash < 0 ? -1 : indexOf(buffer, firstSlash + 1, end, (byte) '/');
+        if (secondSlash < 0 || firstSlash - start > 2 || secondSlash - firstSlash - 1 > 2) {
+            return null;
+        }
+        int month = parseInt(buffer, start, firstSlash);
+        int day = parseInt(buffer, firstSlash + 1, secondSlash);
+        int yearDigits = end - secondSlash - 1;
+        int year = parseInt(buffer, secondSlash + 1, end);
+        if (yearDigits == 2) {
+            year += 2000;
+        } else if (yearDigits != 4) {
+            return null;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /// A whole number of up to 9 digits, -1 for anything else
+    private static int parseInt(final ByteBuffer buffer, final int start, final int end) {
+        if (end <= start || end - start > MAX_INT_DIGITS) {
+            return -1;
+        }
+        int value = 0;
+        for (int index = start; index < end; index++) {
+            int digit = buffer.get(index) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final int start, final int end, final byte value) {
+        for (int index = start; index < end; index++) {
+            if (buffer.get(index) == value) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(final ByteBuffer buffer, final int start, final int end, final byte[] expected,
+                                   final boolean ignoreCase) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            int actual = buffer.get(start + i);
+            if (actual != expected[i] && !(ignoreCase && Character.toLowerCase(actual)
+                    == Character.toLowerCase(expected[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHeader(final ByteBuffer buffer, final int start, final int end) {
+        int fieldEnd = indexOf(buffer, start, end, (byte) ',');
+        int[] bounds = new int[2];
+        splitFields(buffer, start, fieldEnd < 0 ? end : fieldEnd, bounds);
+        return matches(buffer, bounds[0], bounds[1], HEADER, true);
+    }
+
+    private static boolean isBlank(final ByteBuffer buffer, final int start, final int end) {
+        for (int index = start; index < end; index++) {
+            if (buffer.get(index) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs at most one computation per key at a time. A thread asking for a key which is already being computed waits
+ * for that computation and shares its result instead of starting its own. Nothing is kept once a computation ends,
+ * so later calls compute again, pair it with a cache to keep results.
+ * @param <K> key type, must implement equals and hashCode
+ * @param <V> value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder computedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * Computes the value for the key, or waits for the computation already running for it
+     * @param key the key
+     * @param computation computes the value, only run by the first of the concurrent callers
+     * @return the computed value, the same instance for every caller sharing a computation
+     * @throws RuntimeException whatever the shared computation threw
+     */
+    public V execute(final K key, final Function<? super K, ? extends V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCount.increment();
+            return await(existing);
+        }
+        computedCount.increment();
+        try {
+            V value = computation.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return number of computations run
+     */
+    public long getComputedCount() {
+        return computedCount.sum();
+    }
+
+    /**
+     * @return number of calls which waited for another caller's computation
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    private static <V> V await(final CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Size bounded least recently used cache split into independently locked segments,
+ * so threads working on different keys rarely contend. Values are computed outside the segment lock.
+ * @param <K> key type, must implement equals and hashCode
+ * @param <V> value type
+ */
+public class StripedLruCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of entries held across all segments
+     * @param concurrencyLevel expected number of concurrently updating threads, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(final int maximumSize, final int concurrencyLevel) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache maximum size must be 1 or more");
+        }
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrencyLevel, maximumSize)));
+        segments = new Segment[segmentCount];
+        segmentMask = segmentCount - 1;
+        //Spread any remainder over the first segments so the total never exceeds maximumSize
+        for (int i = 0; i < segmentCount; i++) {
+            int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment<>(capacity, evictionCount);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, computing and caching it if absent
+     * @param key the cache key
+     * @param loader computes the value on a miss, a null result is returned but not cached
+     * @return the cached or computed value
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V value = segment.find(key);
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+        missCount.increment();
+        V computed = loader.apply(key);
+        if (computed == null) {
+            return null;
+        }
+        return segment.store(key, computed);
+    }
+
+    /**
+     * Removes every entry, counters are kept
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clearAll();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.count();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Segment<K, V> segmentFor(final K key) {
+        int hash = key.hashCode();
+        //Mix the high bits in, record and enum hash codes are often poor in the low bits
+        hash ^= (hash >>> 16);
+        return segments[hash & segmentMask];
+    }
+
+    /// LinkedHashMap in access order gives LRU ordering, removeEldestEntry evicts once over capacity
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacity;
+        private final LongAdder evictionCount;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Segment(final int capacity, final LongAdder evictionCount) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictionCount = evictionCount;
+        }
+
+        private V find(final K key) {
+            lock.lock();
+            try {
+                return get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /// Keeps the first stored value if another thread computed the same key meanwhile
+        private V store(final K key, final V value) {
+            lock.lock();
+            try {
+                V existing = putIfAbsent(key, value);
+                return existing != null ? existing : value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clearAll() {
+            lock.lock();
+            try {
+                clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int count() {
+            lock.lock();
+            try {
+                return size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            if (size() > capacity) {
+                evictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of whole ticks, e.g. epoch days. Each level has 64 slots and a slot of one level spans
+ * the whole of the level below, so 7 levels cover every tick up to 2^42. A timer sits in the lowest level where its
+ * deadline and the current tick share every higher digit, in the slot of its own digit on that level.
+ * <p>
+ * Scheduling and cancelling link or unlink a timer in a slot list. Advancing a tick expires the level 0 slot of the
+ * new tick, and each time a level wraps the next slot of the level above is moved down first. A timer moves down at
+ * most once per level, so expiring costs the same per timer however many timers are scheduled.
+ * Not thread safe, callers guard the wheel with a lock.
+ * @param <T> value carried by a timer
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 7;
+    private static final long MAX_TICK = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /// First timer of each slot list, by level then slot
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param currentTick tick the wheel starts at
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(final long currentTick) {
+        checkTick(currentTick);
+        this.currentTick = currentTick;
+        this.slots = new Timer[LEVELS][SLOTS];
+    }
+
+    /**
+     * Schedules a timer
+     * @param deadline tick the timer expires on
+     * @param value value handed over when the timer expires
+     * @return the {@link Timer}, or null if the deadline is not after the current tick and the timer has expired
+     */
+    public Timer<T> schedule(final long deadline, final T value) {
+        if (deadline <= currentTick) {
+            return null;
+        }
+        checkTick(deadline);
+        Timer<T> timer = new Timer<>(deadline, value);
+        link(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a timer so it never expires
+     * @param timer a {@link Timer} returned by {@link #schedule(long, Object)}
+     * @return false if the timer had already expired or been cancelled
+     */
+    public boolean cancel(final Timer<T> timer) {
+        if (timer.level < 0) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward tick by tick, expiring every timer whose deadline is passed
+     * @param tick tick to move to, earlier ticks are ignored
+     * @param expired receives the value of each expired timer, in deadline order
+     * @return number of timers expired
+     */
+    public int advanceTo(final long tick, final Consumer<? super T> expired) {
+        checkTick(tick);
+        int expiredCount = 0;
+        while (currentTick < tick) {
+            if (size == 0) {
+                currentTick = tick;
+                break;
+            }
+            currentTick++;
+            //Move down from the highest level which wrapped, so a timer can drop through several levels at once
+            int wrapped = 0;
+            while (wrapped + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (wrapped + 1))) - 1)) == 0) {
+                wrapped++;
+            }
+            for (int level = wrapped; level > 0; level--) {
+                Timer<T> timer = detachSlot(level, slotOf(currentTick, level));
+                while (timer != null) {
+                    Timer<T> next = timer.next;
+                    if (timer.deadline == currentTick) {
+                        expire(timer, expired);
+                        expiredCount++;
+                    } else {
+                        link(timer);
+                    }
+                    timer = next;
+                }
+            }
+            Timer<T> timer = detachSlot(0, slotOf(currentTick, 0));
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                expire(timer, expired);
+                expiredCount++;
+                timer = next;
+            }
+        }
+        return expiredCount;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * @return number of timers scheduled and not yet expired or cancelled
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A scheduled deadline, cancel it through {@link #cancel(Timer)}
+     * @param <T> value carried by the timer
+     */
+    public static final class Timer<T> {
+
+        private final long deadline;
+        private final T value;
+        private Timer<T> previous;
+        private Timer<T> next;
+        /// Level and slot holding the timer, level is -1 once it has expired or been cancelled
+        private int level;
+        private int slot;
+
+        private Timer(final long deadline, final T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    private void link(final Timer<T> timer) {
+        //The highest digit where deadline and current tick differ picks the level
+        long differing = timer.deadline ^ currentTick;
+        int level = (63 - Long.numberOfLeadingZeros(differing)) / SLOT_BITS;
+        int slot = slotOf(timer.deadline, level);
+        Timer<T> head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(final Timer<T> timer) {
+        if (timer.previous == null) {
+            slots[timer.level][timer.slot] = timer.next;
+        } else {
+            timer.previous.next = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    /// Empties a slot and returns its old list, whose timers are then expired or linked again one by one
+    private Timer<T> detachSlot(final int level, final int slot) {
+        Timer<T> head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private void expire(final Timer<T> timer, final Consumer<? super T> expired) {
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+        size--;
+        expired.accept(timer.value);
+    }
+
+    private static int slotOf(final long tick, final int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+
+    private static void checkTick(final long tick) {
+        if (tick < 0 || tick > MAX_TICK) {
+            throw new IllegalArgumentException("Tick must be between 0 and " + MAX_TICK);
+        }
+    }
+}
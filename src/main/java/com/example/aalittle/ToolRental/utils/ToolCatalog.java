@@ -0,0 +1,214 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.PricingRule;
+import com.example.aalittle.ToolRental.model.ToolData;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every rentable tool. Tool codes are kept in an open addressing table with the
+ * {@link ToolData} of each tool built up front, so a lookup is a hash probe over two arrays and does not allocate.
+ * Changes never touch a snapshot, they build a new one which callers swap in.
+ */
+public final class ToolCatalog {
+
+    private static final String SEPARATOR = ",";
+    private static final int COLUMN_COUNT = 6;
+    /// The pricingRules column may be left off
+    private static final int COLUMN_COUNT_WITH_RULES = 7;
+    /// Older catalogs give weekdayCharge,weekendCharge in place of chargeableDays
+    private static final int LEGACY_COLUMN_COUNT = 7;
+
+    private final long version;
+    private final int size;
+    private final int mask;
+    private final String[] codes;
+    private final ToolData[] toolData;
+    /// Tools the rental API can ask for, indexed by ordinal so those lookups skip hashing altogether
+    private final ToolData[] byToolCode = new ToolData[ToolCodeEnum.values().length];
+
+    private ToolCatalog(final Map<String, ToolData> tools, final long version) {
+        this.version = version;
+        this.size = tools.size();
+        //Keep the table at most half full so probes stay short
+        int capacity = Integer.highestOneBit(Math.max(2, tools.size() * 2 - 1)) << 1;
+        this.mask = capacity - 1;
+        this.codes = new String[capacity];
+        this.toolData = new ToolData[capacity];
+        tools.forEach((code, data) -> {
+            int slot = slotFor(code);
+            codes[slot] = code;
+            toolData[slot] = data;
+        });
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            byToolCode[toolCode.ordinal()] = find(toolCode.name());
+        }
+    }
+
+    /**
+     * Builds a catalog from tools keyed by tool code
+     * @param tools the {@link ToolData} of every tool
+     * @param version the version of the new catalog
+     * @return a {@link ToolCatalog}
+     */
+    public static ToolCatalog of(final Map<String, ToolData> tools, final long version) {
+        return new ToolCatalog(tools, version);
+    }
+
+    /**
+     * Reads a catalog with one tool per line, blank lines and lines starting with # are skipped:
+     * toolCode,toolType,toolBrand,dailyCharge,chargeableDays,holidayCharge[,pricingRules]
+     * where chargeableDays is written as MTWTFSS with a - for each free day and pricingRules as
+     * {@link PricingPlan#parseRules(String)} reads them. Lines in the older
+     * toolCode,toolType,toolBrand,dailyCharge,weekdayCharge,weekendCharge,holidayCharge form are read too,
+     * they are told apart from lines with pricing rules by the true or false in the fifth column.
+     * @param reader the catalog data
+     * @param version the version of the new catalog
+     * @return a {@link ToolCatalog}
+     * @throws IllegalArgumentException naming the line if a line can not be read
+     */
+    public static ToolCatalog read(final BufferedReader reader, final long version) throws IOException {
+        Map<String, ToolData> tools = new LinkedHashMap<>();
+        //Many tools share a price, keep one BigDecimal per distinct price
+        Map<String, BigDecimal> dailyCharges = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] columns = trimmed.split(SEPARATOR, -1);
+            if (columns.length != COLUMN_COUNT && columns.length != COLUMN_COUNT_WITH_RULES) {
+                throw new IllegalArgumentException("Tool catalog line " + lineNumber + " must be "
+                        + "toolCode,toolType,toolBrand,dailyCharge,chargeableDays,holidayCharge[,pricingRules] "
+                        + "with chargeableDays as MTWTFSS, or "
+                        + "toolCode,toolType,toolBrand,dailyCharge,weekdayCharge,weekendCharge,holidayCharge");
+            }
+            try {
+                String code = columns[0].trim();
+                boolean legacy = columns.length == LEGACY_COLUMN_COUNT && isFlag(columns[4]);
+                int chargeableDayMask = !legacy
+                        ? ChargeableDayUtils.parseChargeableDays(columns[4].trim())
+                        : (parseFlag(columns[4]) ? ChargeableDayUtils.WEEKDAYS_MASK : 0)
+                                | (parseFlag(columns[5]) ? ChargeableDayUtils.WEEKEND_MASK : 0);
+                boolean holidayCharge = parseFlag(columns[legacy ? 6 : 5]);
+                List<PricingRule> pricingRules = columns.length == COLUMN_COUNT_WITH_RULES && !legacy
+                        ? PricingPlan.parseRules(columns[6]) : List.of();
+                ToolData data = new ToolData(ToolTypeEnum.valueOf(columns[1].trim()),
+                        ToolBrandEnum.valueOf(columns[2].trim()),
+                        dailyCharges.computeIfAbsent(columns[3].trim(), BigDecimal::new),
+                        chargeableDayMask, holidayCharge, pricingRules);
+                if (code.isEmpty() || tools.putIfAbsent(code, data) != null) {
+                    throw new IllegalArgumentException("tool code is blank or repeated");
+                }
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new IllegalArgumentException("Tool catalog line " + lineNumber + " is invalid: "
+                        + e.getMessage(), e);
+            }
+        }
+        return new ToolCatalog(tools, version);
+    }
+
+    /**
+     * Copy on write update, this catalog is left as it is
+     * @param code the tool code to add or replace
+     * @param data the new {@link ToolData}
+     * @param newVersion the version of the new catalog
+     * @return a new {@link ToolCatalog} holding the change
+     */
+    public ToolCatalog with(final String code, final ToolData data, final long newVersion) {
+        Map<String, ToolData> tools = toMap();
+        tools.put(code, data);
+        return new ToolCatalog(tools, newVersion);
+    }
+
+    /**
+     * @return the tools of the rental API which have no row in this catalog, empty if every one has
+     */
+    public List<ToolCodeEnum> missingToolCodes() {
+        List<ToolCodeEnum> missing = new ArrayList<>();
+        for (ToolCodeEnum toolCode : ToolCodeEnum.values()) {
+            if (byToolCode[toolCode.ordinal()] == null) {
+                missing.add(toolCode);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @param toolCode an enum which represents a tool
+     * @return the {@link ToolData} of the tool or null if it is not in the catalog
+     */
+    public ToolData find(final ToolCodeEnum toolCode) {
+        return byToolCode[toolCode.ordinal()];
+    }
+
+    /**
+     * @param code a tool code
+     * @return the {@link ToolData} of the tool or null if it is not in the catalog
+     */
+    public ToolData find(final String code) {
+        int slot = slotFor(code);
+        return codes[slot] == null ? null : toolData[slot];
+    }
+
+    /**
+     * @return the tools of this catalog keyed by tool code, a copy which may be changed freely
+     */
+    public Map<String, ToolData> toMap() {
+        Map<String, ToolData> tools = new LinkedHashMap<>(size * 2);
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (codes[slot] != null) {
+                tools.put(codes[slot], toolData[slot]);
+            }
+        }
+        return tools;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /// Linear probing, returns the slot holding the code or the empty slot where it belongs
+    private int slotFor(final String code) {
+        int hash = code.hashCode();
+        hash ^= (hash >>> 16);
+        int slot = hash & mask;
+        while (codes[slot] != null && !codes[slot].equals(code)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean isFlag(final String column) {
+        String value = column.trim();
+        return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+    }
+
+    private static boolean parseFlag(final String column) {
+        String value = column.trim();
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("expected true or false but was " + value);
+    }
+}
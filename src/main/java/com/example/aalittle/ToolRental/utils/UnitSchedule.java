@@ -0,0 +1,58 @@
+package com.example.aalittle.ToolRental.utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reservations of one physical unit. Reservations of a unit never overlap, so keeping them sorted by their
+ * first day means only the neighbours of a range can overlap it and every operation is a logarithmic tree lookup.
+ * Days are epoch days and ranges are half open, a unit due back on a day can go out again the same day.
+ * Not thread safe, callers guard each schedule with a lock.
+ */
+public class UnitSchedule {
+
+    /// First day of each reservation mapped to its end day (exclusive) and reservation id
+    private final TreeMap<Long, long[]> reservations = new TreeMap<>();
+
+    /**
+     * @param startDay first reserved day
+     * @param endDay day after the last reserved day
+     * @return true if no reservation of this unit overlaps the range
+     */
+    public boolean isFree(final long startDay, final long endDay) {
+        Map.Entry<Long, long[]> before = reservations.floorEntry(startDay);
+        if (before != null && before.getValue()[0] > startDay) {
+            return false;
+        }
+        Long next = reservations.ceilingKey(startDay);
+        return next == null || next >= endDay;
+    }
+
+    /**
+     * Reserves the unit, callers must check {@link #isFree(long, long)} first
+     * @param startDay first reserved day
+     * @param endDay day after the last reserved day
+     * @param reservationId id of the reservation
+     */
+    public void reserve(final long startDay, final long endDay, final long reservationId) {
+        reservations.put(startDay, new long[]{endDay, reservationId});
+    }
+
+    /**
+     * @param startDay first reserved day of the reservation
+     * @param reservationId id of the reservation
+     * @return true if the reservation was held by this unit and has been removed
+     */
+    public boolean release(final long startDay, final long reservationId) {
+        long[] reservation = reservations.get(startDay);
+        if (reservation == null || reservation[1] != reservationId) {
+            return false;
+        }
+        reservations.remove(startDay);
+        return true;
+    }
+
+    public int size() {
+        return reservations.size();
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.aalittle.ToolRental.validation;
 
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -13,15 +19,55 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalErrorHandler {
 
+    @Autowired
+    private RentalMetrics rentalMetrics;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String,Object>> handleValidationException(MethodArgumentNotValidException ex) {
+        return badRequest(ex.getBindingResult());
+    }
 
-        Map<String, Object> errorResponse = new HashMap<>();
+    /**
+     * Same response as {@link #handleValidationException} for a request body which fails validation
+     * when the application runs reactive
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String,Object>> handleReactiveValidationException(WebExchangeBindException ex) {
+        return badRequest(ex.getBindingResult());
+    }
+
+    /**
+     * Same response as {@link #handleValidationException} for a request parameter which fails validation on a
+     * {@code @Validated} controller, keyed by the parameter name
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String,Object>> handleConstraintViolationException(ConstraintViolationException ex) {
         Map<String,String> fieldErrors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation -> {
+            String field = null;
+            for (Path.Node node : violation.getPropertyPath()) {
+                field = node.getName();
+            }
+            fieldErrors.put(field, violation.getMessage());
+            rentalMetrics.countValidationFailure(field);
+        });
+        return badRequest(fieldErrors);
+    }
+
+    private ResponseEntity<Map<String,Object>> badRequest(BindingResult bindingResult) {
 
-        ex.getBindingResult().getFieldErrors().forEach(fieldError -> {
+        Map<String,String> fieldErrors = new HashMap<>();
+
+        bindingResult.getFieldErrors().forEach(fieldError -> {
                     fieldErrors.put(fieldError.getField(), fieldError.getDefaultMessage());
+                    rentalMetrics.countValidationFailure(fieldError.getField());
                 });
+        return badRequest(fieldErrors);
+    }
+
+    private ResponseEntity<Map<String,Object>> badRequest(Map<String,String> fieldErrors) {
+
+        Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("date", LocalDate.now());
         errorResponse.put("status", HttpStatus.BAD_REQUEST);
         errorResponse.put("message", fieldErrors);
@@ -0,0 +1,82 @@
+package com.example.aalittle.ToolRental.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Schedulers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveRentalControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveRentalController reactiveRentalController;
+
+    @Test
+    public void testDefaults_quoteOnCallingThread() {
+        assertSame(Schedulers.immediate(), ReflectionTestUtils.getField(reactiveRentalController, "quoteScheduler"));
+    }
+
+    @Test
+    public void testRentItems_returnsAgreement() {
+        webTestClient.post().uri("/api/rentItems/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"toolCode\":\"LADW\",\"checkoutDate\":\"07/02/20\",\"rentalDayCount\":3,"
+                        + "\"discountPercent\":10}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.chargeableDays").isEqualTo(2)
+                .jsonPath("$.discountCharge").isEqualTo(3.58);
+    }
+
+    @Test
+    public void testRentItemsWithInvalidDiscount_returnsSameErrorAsServlet() {
+        webTestClient.post().uri("/api/rentItems/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"toolCode\":\"JAKR\",\"checkoutDate\":\"09/03/15\",\"rentalDayCount\":5,"
+                        + "\"discountPercent\":101}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("BAD_REQUEST")
+                .jsonPath("$.message.discountPercent").isEqualTo("Discount Percent must be 100 or under");
+    }
+
+    @Test
+    public void testRentItemsStream_writesOneLinePerTermInOrder() {
+        String body = String.join("\n",
+                "{\"toolCode\":\"LADW\",\"checkoutDate\":\"07/02/20\",\"rentalDayCount\":3,\"discountPercent\":10}",
+                "{\"toolCode\":\"JAKR\",\"checkoutDate\":\"09/03/15\",\"rentalDayCount\":5,\"discountPercent\":101}",
+                "",
+                "not json",
+                "{\"toolCode\":\"CHNS\",\"checkoutDate\":\"07/02/15\",\"rentalDayCount\":5,\"discountPercent\":25}");
+
+        String response = webTestClient.post().uri("/api/rentItems/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        String[] lines = response.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"chargeableDays\":2"));
+        assertTrue(lines[1].contains("\"discountPercent\":\"Discount Percent must be 100 or under\""));
+        assertTrue(lines[2].contains("\"rentalTerm\""));
+        assertTrue(lines[3].contains("\"chargeableDays\":3"));
+    }
+}
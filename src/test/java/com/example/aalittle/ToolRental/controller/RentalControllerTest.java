@@ -0,0 +1,94 @@
+package com.example.aalittle.ToolRental.controller;
+
+import com.example.aalittle.ToolRental.model.RentalQuoteResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class RentalControllerTest {
+
+    @Autowired
+    private RentalController rentalController;
+
+    @Test
+    public void testRentItemsBatch_invalidTermDoesNotFailBatch() {
+        List<RentalQuoteResult> results = rentalController.rentItemsBatch(List.of(
+                LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10,
+                JAKR_DATE_SEPTEMBER_3_15_DAYS_5_DISCOUNT_101,
+                CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25));
+
+        assertEquals(3, results.size());
+        assertNull(results.get(0).getErrors());
+        assertEquals(2, results.get(0).getRentalAgreement().getChargeableDays());
+        assertNull(results.get(1).getRentalAgreement());
+        assertEquals("Discount Percent must be 100 or under", results.get(1).getErrors().get("discountPercent"));
+        assertNull(results.get(2).getErrors());
+        assertEquals(3, results.get(2).getRentalAgreement().getChargeableDays());
+    }
+
+    @Test
+    public void testRentItemsBatch_nullTerm_returnsError() {
+        List<RentalQuoteResult> results = rentalController.rentItemsBatch(
+                Arrays.asList(null, LADW_SINGLE_DAY_MONDAY));
+
+        assertEquals(2, results.size());
+        assertNotNull(results.get(0).getErrors());
+        assertNotNull(results.get(1).getRentalAgreement());
+    }
+
+    @Test
+    public void testRentItemsStream_writesOneLinePerTermInOrder() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/rentItems/stream");
+        request.setContentType("application/x-ndjson");
+        request.setContent(String.join("\n",
+                "{\"toolCode\":\"LADW\",\"checkoutDate\":\"07/02/20\",\"rentalDayCount\":3,\"discountPercent\":10}",
+                "{\"toolCode\":\"JAKR\",\"checkoutDate\":\"09/03/15\",\"rentalDayCount\":5,\"discountPercent\":101}",
+                "",
+                "{\"toolCode\":\"NOPE\",\"checkoutDate\":\"09/03/15\",\"rentalDayCount\":5,\"discountPercent\":1}",
+                "not json",
+                "{\"toolCode\":\"CHNS\",\"checkoutDate\":\"07/02/15\",\"rentalDayCount\":5,\"discountPercent\":25}")
+                .getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rentalController.rentItemsStream(request, response);
+
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("application/x-ndjson", response.getContentType().split(";")[0]);
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"chargeableDays\":2"));
+        assertTrue(lines[1].contains("\"discountPercent\":\"Discount Percent must be 100 or under\""));
+        assertTrue(lines[2].contains("\"toolCode\""));
+        assertTrue(lines[3].contains("\"rentalTerm\""));
+        assertTrue(lines[4].contains("\"chargeableDays\":3"));
+    }
+
+    @Test
+    public void testRentItemsStream_tooLongLine_writesErrorAndCarriesOn() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/rentItems/stream");
+        request.setContentType("application/x-ndjson");
+        request.setContent(String.join("\n",
+                "{\"toolCode\":\"LADW\",\"checkoutDate\":\"07/02/20\",\"rentalDayCount\":3,\"padding\":\""
+                        + " ".repeat(100_000) + "\"}",
+                "{\"toolCode\":\"CHNS\",\"checkoutDate\":\"07/02/15\",\"rentalDayCount\":5,\"discountPercent\":25}")
+                .getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rentalController.rentItemsStream(request, response);
+
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"rentalTerm\":\"Line is longer than 8192 characters\""));
+        assertTrue(lines[1].contains("\"chargeableDays\":3"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.aalittle.ToolRental.controller;
+
+import com.example.aalittle.ToolRental.metrics.RentalMetrics;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalQuoteResult;
+import com.example.aalittle.ToolRental.service.ToolRentalCalculationService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25;
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.JAKR_DATE_SEPTEMBER_3_15_DAYS_5_DISCOUNT_101;
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RentalRequestSupportTest {
+
+    @Test
+    public void testQuoteBatch_termWhichCanNotBePriced_failsOnlyThatTerm() {
+        ToolRentalCalculationService toolRentalCalculationService = mock(ToolRentalCalculationService.class);
+        RentalAgreement rentalAgreement = RentalAgreement.builder().build();
+        when(toolRentalCalculationService.calculateToolRentals(anyList()))
+                .thenThrow(new IllegalStateException("Pricing failed"));
+        when(toolRentalCalculationService.calculateToolRental(LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10))
+                .thenReturn(rentalAgreement);
+        when(toolRentalCalculationService.calculateToolRental(CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25))
+                .thenThrow(new IllegalStateException("Pricing failed"));
+        RentalRequestSupport rentalRequestSupport = new RentalRequestSupport();
+        rentalRequestSupport.toolRentalCalculationService = toolRentalCalculationService;
+        rentalRequestSupport.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        rentalRequestSupport.rentalMetrics = RentalMetrics.disabled();
+
+        List<RentalQuoteResult> results = rentalRequestSupport.quoteBatch(List.of(
+                LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10, JAKR_DATE_SEPTEMBER_3_15_DAYS_5_DISCOUNT_101,
+                CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25));
+
+        assertEquals(3, results.size());
+        assertSame(rentalAgreement, results.get(0).getRentalAgreement());
+        assertTrue(results.get(1).getErrors().containsKey("discountPercent"));
+        assertEquals(Map.of("rentalTerm", "Could not be priced"), results.get(2).getErrors());
+    }
+}
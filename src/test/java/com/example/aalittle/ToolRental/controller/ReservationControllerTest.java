@@ -0,0 +1,39 @@
+package com.example.aalittle.ToolRental.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReservationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testAvailability_returnsFreeUnits() throws Exception {
+        mockMvc.perform(get("/api/reservations/availability")
+                        .param("toolCode", "JAKD")
+                        .param("checkoutDate", "03/01/93")
+                        .param("rentalDayCount", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableUnits").isNumber());
+    }
+
+    @Test
+    public void testAvailabilityWithZeroDays_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/reservations/availability")
+                        .param("toolCode", "JAKD")
+                        .param("checkoutDate", "03/01/93")
+                        .param("rentalDayCount", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message.rentalDayCount").exists());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.aalittle.ToolRental.metrics;
+
+import com.example.aalittle.ToolRental.enums.RentalStageEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RentalMetricsTest {
+
+    @Test
+    public void testCountQuote_countsPerToolCode() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RentalMetrics rentalMetrics = new RentalMetrics(meterRegistry, true);
+
+        rentalMetrics.countQuote(ToolCodeEnum.LADW);
+        rentalMetrics.countQuote(ToolCodeEnum.LADW);
+        rentalMetrics.countQuote(ToolCodeEnum.CHNS);
+
+        assertEquals(2, meterRegistry.get("tool.rental.quotes").tag("tool_code", "LADW").counter().count());
+        assertEquals(1, meterRegistry.get("tool.rental.quotes").tag("tool_code", "CHNS").counter().count());
+        assertEquals(0, meterRegistry.get("tool.rental.quotes").tag("tool_code", "JAKD").counter().count());
+    }
+
+    @Test
+    public void testRecordStage_recordsIntoStageTimer() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RentalMetrics rentalMetrics = new RentalMetrics(meterRegistry, true);
+
+        rentalMetrics.recordStage(RentalStageEnum.PRICING, rentalMetrics.start());
+
+        assertEquals(1, meterRegistry.get("tool.rental.stage").tag("stage", "pricing").timer().count());
+        assertEquals(0, meterRegistry.get("tool.rental.stage").tag("stage", "validation").timer().count());
+    }
+
+    @Test
+    public void testCountValidationFailure_countsPerField() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RentalMetrics rentalMetrics = new RentalMetrics(meterRegistry, true);
+
+        rentalMetrics.countValidationFailure("discountPercent");
+        rentalMetrics.countValidationFailure("discountPercent");
+
+        assertEquals(2, meterRegistry.get("tool.rental.validation.failures")
+                .tag("field", "discountPercent").counter().count());
+    }
+
+    @Test
+    public void testDisabled_registersNothing() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RentalMetrics rentalMetrics = new RentalMetrics(meterRegistry, false);
+
+        rentalMetrics.countQuote(ToolCodeEnum.LADW);
+        rentalMetrics.recordStage(RentalStageEnum.PRICING, rentalMetrics.start());
+
+        assertFalse(rentalMetrics.isEnabled());
+        assertTrue(meterRegistry.getMeters().isEmpty());
+        assertEquals(0, rentalMetrics.start());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.AuditFullPolicyEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.LADW_SINGLE_DAY_MONDAY;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AgreementAuditServiceTest {
+
+    @Autowired
+    private AgreementAuditService agreementAuditService;
+
+    @Autowired
+    private ToolRentalCalculationService toolRentalCalculationService;
+
+    @Test
+    public void testCalculateToolRental_agreementIsWrittenInBackground() throws InterruptedException {
+        assertTrue(agreementAuditService.isEnabled());
+        long recordedCount = agreementAuditService.getRecordedCount();
+
+        toolRentalCalculationService.calculateToolRental(LADW_SINGLE_DAY_MONDAY);
+
+        assertEquals(recordedCount + 1, agreementAuditService.getRecordedCount());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (agreementAuditService.getWrittenCount() + agreementAuditService.getDroppedCount()
+                < agreementAuditService.getRecordedCount() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(agreementAuditService.getRecordedCount(),
+                agreementAuditService.getWrittenCount() + agreementAuditService.getDroppedCount());
+    }
+
+    @Test
+    public void testRecord_blockPolicyWithDeadWriter_dropsInsteadOfWaiting() throws InterruptedException {
+        AgreementAuditService blockingAuditService = new AgreementAuditService();
+        ReflectionTestUtils.setField(blockingAuditService, "enabled", true);
+        ReflectionTestUtils.setField(blockingAuditService, "capacity", 2);
+        ReflectionTestUtils.setField(blockingAuditService, "batchSize", 1);
+        ReflectionTestUtils.setField(blockingAuditService, "fullPolicy", AuditFullPolicyEnum.BLOCK);
+        blockingAuditService.start();
+        Thread writerThread = (Thread) ReflectionTestUtils.getField(blockingAuditService, "writerThread");
+
+        //An agreement with no dates can not be printed, the writer thread dies on it
+        blockingAuditService.record(RentalAgreement.builder().build());
+        writerThread.join(5_000);
+        assertFalse(writerThread.isAlive());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 3; i++) {
+                blockingAuditService.record(RentalAgreement.builder().build());
+            }
+        });
+        assertEquals(4, blockingAuditService.getRecordedCount());
+        assertTrue(blockingAuditService.getDroppedCount() >= 1);
+    }
+}
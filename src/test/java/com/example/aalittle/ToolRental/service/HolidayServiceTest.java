@@ -1,5 +1,5 @@
 package com.example.aalittle.ToolRental.service;
-import de.focus_shift.jollyday.core.Holiday;
+import com.example.aalittle.ToolRental.model.ObservedHoliday;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +9,8 @@ import java.time.LocalDate;
 import java.util.Set;
 
 import static com.example.aalittle.ToolRental.utils.HolidayUtils.HOLIDAY_SET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -33,7 +35,7 @@ public class HolidayServiceTest {
     public void testFindHolidaysInRangeWithStartAfterEnd_returnsEmpty() {
         LocalDate startDate = LocalDate.of(2026,7,1);
         LocalDate endDate = LocalDate.of(2025,7,30);
-        Set<Holiday> holidayList = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidayList = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidayList.isEmpty());
     }
 
@@ -41,16 +43,16 @@ public class HolidayServiceTest {
     public void testHolidayServiceWithIndependenceDayDates_returnsHoliday() {
         LocalDate startDate = LocalDate.of(2025,7,1);
         LocalDate endDate = LocalDate.of(2025,7,30);
-        Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidaysInRange.stream()
-                .anyMatch(holiday -> HOLIDAY_SET.contains(holiday.getDescription().toLowerCase())));
+                .anyMatch(holiday -> HOLIDAY_SET.contains(holiday.getHoliday())));
     }
 
     @Test
     public void testHolidayServiceWithIndependenceDayOnSaturday_returnsHolidayOnFriday() {
         LocalDate startDate = LocalDate.of(2020,7,2);
         LocalDate endDate = LocalDate.of(2025,7,5);
-        Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidaysInRange.stream()
                 .anyMatch(holiday -> holiday.getDate().equals(LocalDate.of(2020,7,3))));
     }
@@ -59,7 +61,7 @@ public class HolidayServiceTest {
     public void testHolidayServiceWithIndependenceDayOnSunday_returnsHolidayOnMonday() {
         LocalDate startDate = LocalDate.of(2021,7,2);
         LocalDate endDate = LocalDate.of(2021,7,5);
-        Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidaysInRange.stream()
                 .anyMatch(holiday -> holiday.getDate().equals(LocalDate.of(2021,7,5))));
     }
@@ -68,25 +70,57 @@ public class HolidayServiceTest {
     public void testHolidayServiceWithLabourDayDates_returnsHoliday() {
         LocalDate startDate = LocalDate.of(2025,9,1);
         LocalDate endDate = LocalDate.of(2025,9,30);
-        Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidaysInRange.stream()
-                .anyMatch(holiday -> HOLIDAY_SET.contains(holiday.getDescription().toLowerCase())));
+                .anyMatch(holiday -> HOLIDAY_SET.contains(holiday.getHoliday())));
     }
 
     @Test
     public void testHolidayServiceWithSameHolidayDates_returnsHoliday() {
         LocalDate startDate = LocalDate.of(2025,7,4);
         LocalDate endDate = LocalDate.of(2025,7,4);
-        Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidaysInRange.stream()
-                .anyMatch(holiday -> HOLIDAY_SET.contains(holiday.getDescription().toLowerCase())));
+                .anyMatch(holiday -> HOLIDAY_SET.contains(holiday.getHoliday())));
     }
 
     @Test
     public void testHolidayServiceWithNoHolidayDates_returnsEmpty() {
         LocalDate startDate = LocalDate.of(2025,8,1);
         LocalDate endDate = LocalDate.of(2025,8,30);
-        Set<Holiday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
         assertTrue(holidaysInRange.isEmpty());
     }
+
+    @Test
+    public void testIsHolidayWithObservedIndependenceDay_returnsTrue() {
+        assertTrue(holidayService.isHoliday(LocalDate.of(2020,7,3)));
+        assertFalse(holidayService.isHoliday(LocalDate.of(2020,7,4)));
+    }
+
+    @Test
+    public void testCountHolidaysInRangeWithWholeYear_returnsTwo() {
+        LocalDate startDate = LocalDate.of(2025,1,1);
+        LocalDate endDate = LocalDate.of(2025,12,31);
+        assertEquals(2, holidayService.countHolidaysInRange(startDate,endDate));
+    }
+
+    @Test
+    public void testFindHolidaysInRangeOutsidePreloadedYears_returnsHoliday() {
+        LocalDate startDate = LocalDate.of(2038,7,1);
+        LocalDate endDate = LocalDate.of(2038,7,30);
+        Set<ObservedHoliday> holidaysInRange = holidayService.findHolidaysInRange(startDate,endDate);
+        assertTrue(holidaysInRange.stream()
+                .anyMatch(holiday -> holiday.getDate().equals(LocalDate.of(2038,7,5))));
+        assertEquals(1, holidayService.countHolidaysInRange(startDate,endDate));
+    }
+
+    @Test
+    public void testCountHolidaysInRangeBeyondRetainedYears_leavesIndexUnchanged() {
+        LocalDate startDate = LocalDate.now().plusYears(HolidayService.RETAINED_YEARS + 1).withDayOfYear(1);
+        int lastYear = holidayService.getLoadedHolidayIndex().getLastYear();
+
+        assertEquals(20, holidayService.countHolidaysInRange(startDate, startDate.plusYears(10).minusDays(1)));
+        assertEquals(lastYear, holidayService.getLoadedHolidayIndex().getLastYear());
+    }
 }
@@ -0,0 +1,92 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.LateFee;
+import com.example.aalittle.ToolRental.model.LateFeeReport;
+import com.example.aalittle.ToolRental.model.Reservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "tool-rental.late-fee.chunk-size=64")
+public class LateFeeServiceTest {
+
+    @Autowired
+    private LateFeeService lateFeeService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    public void testCalculateLateFee_chargesChargeableDaysAfterDueDate() {
+        //Due Thursday 7/2/26, back Tuesday 7/7, the observed July 4th and the weekend are free for a jackhammer
+        Reservation reservation = reservation(1, ToolCodeEnum.JAKD, LocalDate.of(2026, 7, 2));
+
+        LateFee lateFee = lateFeeService.calculateLateFee(reservation, LocalDate.of(2026, 7, 7));
+
+        assertEquals(5, lateFee.getLateDays());
+        assertEquals(2, lateFee.getChargeableLateDays());
+        assertEquals(new BigDecimal("5.98"), lateFee.getLateFee());
+        LateFee onTime = lateFeeService.calculateLateFee(reservation, LocalDate.of(2026, 7, 2));
+        assertEquals(0, onTime.getLateDays());
+        assertEquals(new BigDecimal("0.00"), onTime.getLateFee());
+    }
+
+    @Test
+    public void testCalculateLateFees_matchesOneAtATime() {
+        Random random = new Random(23);
+        LocalDate asOfDate = LocalDate.of(2027, 1, 10);
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            //A few are not due yet and are charged nothing
+            reservations.add(reservation(i, ToolCodeEnum.values()[random.nextInt(ToolCodeEnum.values().length)],
+                    asOfDate.minusDays(random.nextInt(800) - 10)));
+        }
+
+        LateFeeReport report = lateFeeService.calculateLateFees(reservations, asOfDate);
+
+        BigDecimal total = new BigDecimal("0.00");
+        int overdueCount = 0;
+        for (int i = 0; i < reservations.size(); i++) {
+            LateFee expected = lateFeeService.calculateLateFee(reservations.get(i), asOfDate);
+            assertEquals(expected, report.getLateFees().get(i));
+            total = total.add(expected.getLateFee());
+            overdueCount += expected.getLateDays() > 0 ? 1 : 0;
+        }
+        assertEquals(total, report.getTotalLateFee());
+        assertEquals(overdueCount, report.getOverdueCount());
+    }
+
+    @Test
+    public void testCalculateOverdueLateFees_pricesBookedReservations() {
+        Reservation overdue = reservationService.book(ToolCodeEnum.LADW, LocalDate.of(2004, 9, 1), 2);
+        LocalDate asOfDate = overdue.getDueDate().plusDays(3);
+
+        LateFeeReport report = lateFeeService.calculateOverdueLateFees(asOfDate);
+
+        //Due Friday 9/3/04, a ladder is charged the weekend but not Labor Day on Monday
+        LateFee lateFee = report.getLateFees().stream()
+                .filter(fee -> fee.getReservationId() == overdue.getReservationId())
+                .findFirst().orElseThrow();
+        assertEquals(2, lateFee.getChargeableLateDays());
+        assertEquals(new BigDecimal("3.98"), lateFee.getLateFee());
+    }
+
+    private static Reservation reservation(final long reservationId, final ToolCodeEnum toolCode,
+                                           final LocalDate dueDate) {
+        return Reservation.builder()
+                .reservationId(reservationId)
+                .toolCode(toolCode)
+                .unitNumber(1)
+                .checkoutDate(dueDate.minusDays(3))
+                .dueDate(dueDate).build();
+    }
+}
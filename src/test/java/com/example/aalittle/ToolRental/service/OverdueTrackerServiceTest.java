@@ -0,0 +1,80 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.Reservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class OverdueTrackerServiceTest {
+
+    @Autowired
+    private OverdueTrackerService overdueTrackerService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private Queue<Reservation> overdueReservations;
+
+    @TestConfiguration
+    static class OverdueListenerConfig {
+
+        @Bean
+        Queue<Reservation> overdueReservations() {
+            return new ConcurrentLinkedQueue<>();
+        }
+
+        @Bean
+        OverdueListener collectingOverdueListener(final Queue<Reservation> overdueReservations) {
+            return overdueReservations::add;
+        }
+    }
+
+    //The tracker only moves forward and is shared across the test context, only one test moves it
+
+    @Test
+    public void testAdvanceTo_flagsReservationsOnceTheirDueDateHasPassed() {
+        Reservation early = reservationService.book(ToolCodeEnum.JAKD, LocalDate.of(2070, 3, 1), 3);
+        Reservation late = reservationService.book(ToolCodeEnum.JAKD, LocalDate.of(2070, 3, 1), 10);
+
+        //Due back on 3/4, so not overdue that day
+        overdueTrackerService.advanceTo(LocalDate.of(2070, 3, 4));
+        assertFalse(overdueReservations.contains(early));
+
+        overdueTrackerService.advanceTo(LocalDate.of(2070, 3, 5));
+        assertTrue(overdueReservations.contains(early));
+        assertFalse(overdueReservations.contains(late));
+
+        overdueTrackerService.advanceTo(LocalDate.of(2070, 3, 20));
+        assertTrue(overdueReservations.contains(late));
+    }
+
+    @Test
+    public void testCancel_stopsTracking() {
+        int trackedCount = overdueTrackerService.getTrackedCount();
+        Reservation returned = reservationService.book(ToolCodeEnum.JAKR, LocalDate.of(2095, 8, 1), 2);
+        assertEquals(trackedCount + 1, overdueTrackerService.getTrackedCount());
+
+        assertTrue(reservationService.cancel(returned.getReservationId()));
+
+        assertEquals(trackedCount, overdueTrackerService.getTrackedCount());
+        assertFalse(overdueTrackerService.untrack(returned.getReservationId()));
+    }
+
+    @Test
+    public void testBookPastDueDate_flagsStraightAway() {
+        Reservation pastDue = reservationService.book(ToolCodeEnum.CHNS, LocalDate.of(2001, 2, 3), 1);
+
+        assertTrue(overdueReservations.contains(pastDue));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.model.RentalCsvSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"tool-rental.csv.chunk-bytes=16", "tool-rental.csv.batch-size=2"})
+public class RentalCsvServiceTest {
+
+    @Autowired
+    private RentalCsvService rentalCsvService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testPriceFile_writesAgreementsInInputOrder() throws Exception {
+        //Chunks of 16 bytes split most lines, terms from the rental agreement tests
+        Path input = directory.resolve("terms.csv");
+        Files.writeString(input, "toolCode,checkoutDate,rentalDayCount,discountPercent\r\n"
+                + "JAKR,09/03/15,5,101\r\nLADW,07/02/20,3,10\r\n\r\nCHNS,07/02/15,5,25\nJAKD,09/03/15,6,0\n"
+                + "XXXX,09/03/15,5,0\nJAKR,07/02/15,9,0\nJAKR,07/02/20,4,50");
+        Path output = directory.resolve("agreements.csv");
+
+        RentalCsvSummary summary = rentalCsvService.priceFile(input, output);
+
+        assertEquals(List.of(
+                "toolCode,toolType,toolBrand,rentalDays,checkoutDate,dueDate,dailyCharge,chargeableDays,subTotal,"
+                        + "discountPercent,discountAmount,finalCharge",
+                "LADW,LADDER,WERNER,3,07/02/20,07/05/20,1.99,2,3.98,10,0.40,3.58",
+                "CHNS,CHAINSAW,STIHL,5,07/02/15,07/07/15,1.49,3,4.47,25,1.12,3.35",
+                "JAKD,JACKHAMMER,DEWALT,6,09/03/15,09/09/15,2.99,3,8.97,0,0.00,8.97",
+                "JAKR,JACKHAMMER,RIGID,9,07/02/15,07/11/15,2.99,5,14.95,0,0.00,14.95",
+                "JAKR,JACKHAMMER,RIGID,4,07/02/20,07/06/20,2.99,1,2.99,50,1.50,1.49"), Files.readAllLines(output));
+        assertEquals(7, summary.getRowCount());
+        assertEquals(5, summary.getPricedCount());
+        assertEquals(2, summary.getRejectedCount());
+        assertEquals(List.of("line 2: Discount Percent must be 100 or under",
+                "line 7: Please enter a valid tool code enum"), summary.getErrors());
+        assertEquals(Files.size(input), summary.getInputBytes());
+    }
+
+    @Test
+    public void testPriceFile_emptyFile_writesHeaderOnly() throws Exception {
+        Path input = Files.createFile(directory.resolve("empty.csv"));
+        Path output = directory.resolve("empty.agreements.csv");
+
+        RentalCsvSummary summary = rentalCsvService.priceFile(input, output);
+
+        assertEquals(0, summary.getRowCount());
+        assertEquals(1, Files.readAllLines(output).size());
+    }
+}
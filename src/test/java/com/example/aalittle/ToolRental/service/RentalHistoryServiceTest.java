@@ -0,0 +1,72 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.model.RevenueGroup;
+import com.example.aalittle.ToolRental.model.RevenueReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "tool-rental.rental-history.enabled=true")
+public class RentalHistoryServiceTest {
+
+    @Autowired
+    private RentalHistoryService rentalHistoryService;
+
+    @Autowired
+    private ToolRentalCalculationService toolRentalCalculationService;
+
+    @Test
+    public void testAggregateRevenue_totalsIssuedAgreementsByToolCode() {
+        //Dates no other test checks out on, so the totals only hold these agreements
+        LocalDate checkoutDate = LocalDate.of(2031, 3, 4);
+        toolRentalCalculationService.calculateToolRental(new RentalTerm(ToolCodeEnum.LADW, checkoutDate, 3, 10));
+        toolRentalCalculationService.calculateToolRentals(List.of(
+                new RentalTerm(ToolCodeEnum.LADW, checkoutDate, 3, 10),
+                new RentalTerm(ToolCodeEnum.JAKR, checkoutDate.plusDays(1), 2, 0)));
+
+        RevenueReport report = rentalHistoryService.aggregateRevenue(checkoutDate, checkoutDate.plusDays(1), null,
+                null, HistoryGroupByEnum.TOOL_CODE);
+
+        //Ladder 3 weekdays at 1.99 less 10%, jackhammer 2 weekdays at 2.99
+        assertEquals(3, report.getAgreementCount());
+        assertEquals(2, report.getGroups().size());
+        RevenueGroup ladders = report.getGroups().get(0);
+        assertEquals("LADW", ladders.getGroup());
+        assertEquals(2, ladders.getAgreementCount());
+        assertEquals(6, ladders.getChargeableDays());
+        assertEquals(new BigDecimal("11.94"), ladders.getSubTotal());
+        assertEquals(new BigDecimal("1.20"), ladders.getDiscountAmount());
+        assertEquals(new BigDecimal("10.74"), ladders.getRevenue());
+        assertEquals("JAKR", report.getGroups().get(1).getGroup());
+        assertEquals(new BigDecimal("16.72"), report.getRevenue());
+    }
+
+    @Test
+    public void testAggregateRevenue_filtersAndGroupsByDate() {
+        LocalDate checkoutDate = LocalDate.of(2032, 5, 4);
+        toolRentalCalculationService.calculateToolRental(new RentalTerm(ToolCodeEnum.CHNS, checkoutDate, 1, 0));
+        toolRentalCalculationService.calculateToolRental(new RentalTerm(ToolCodeEnum.JAKD, checkoutDate, 1, 0));
+        toolRentalCalculationService.calculateToolRental(
+                new RentalTerm(ToolCodeEnum.CHNS, checkoutDate.plusDays(2), 1, 0));
+
+        RevenueReport report = rentalHistoryService.aggregateRevenue(checkoutDate, checkoutDate.plusDays(2),
+                Set.of(ToolCodeEnum.CHNS), Set.of(ToolBrandEnum.STIHL), HistoryGroupByEnum.CHECKOUT_DATE);
+
+        assertEquals(2, report.getAgreementCount());
+        assertEquals(List.of(checkoutDate.toString(), checkoutDate.plusDays(2).toString()),
+                report.getGroups().stream().map(RevenueGroup::getGroup).toList());
+        assertThrows(IllegalArgumentException.class, () -> rentalHistoryService.aggregateRevenue(
+                checkoutDate.plusDays(1), checkoutDate, null, null, HistoryGroupByEnum.TOOL_CODE));
+    }
+}
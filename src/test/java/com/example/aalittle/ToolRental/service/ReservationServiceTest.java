@@ -0,0 +1,112 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.Reservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    //Every test books its own dates, the service is shared across the test context
+
+    @Test
+    public void testBook_usesNextFreeUnitUntilAllAreTaken() {
+        LocalDate checkoutDate = LocalDate.of(2090, 1, 10);
+        List<Reservation> booked = new ArrayList<>();
+        Reservation reservation;
+        while ((reservation = reservationService.book(ToolCodeEnum.CHNS, checkoutDate, 5)) != null) {
+            booked.add(reservation);
+        }
+
+        assertEquals(3, booked.size());
+        assertEquals(1, booked.get(0).getUnitNumber());
+        assertEquals(LocalDate.of(2090, 1, 15), booked.get(0).getDueDate());
+        assertFalse(reservationService.isAvailable(ToolCodeEnum.CHNS, LocalDate.of(2090, 1, 14), 1));
+        //Due back on the 15th so free again that day, and the day before the checkout is untouched
+        assertTrue(reservationService.isAvailable(ToolCodeEnum.CHNS, LocalDate.of(2090, 1, 15), 3));
+        assertEquals(3, reservationService.countAvailableUnits(ToolCodeEnum.CHNS, LocalDate.of(2090, 1, 9), 1));
+    }
+
+    @Test
+    public void testCancel_freesUnit() {
+        LocalDate checkoutDate = LocalDate.of(2091, 6, 1);
+        Reservation first = reservationService.book(ToolCodeEnum.LADW, checkoutDate, 10);
+        //All three units are out over the 7th
+        reservationService.book(ToolCodeEnum.LADW, checkoutDate.plusDays(2), 30);
+        reservationService.book(ToolCodeEnum.LADW, checkoutDate.plusDays(3), 30);
+        assertNull(reservationService.book(ToolCodeEnum.LADW, checkoutDate.plusDays(6), 1));
+
+        assertTrue(reservationService.cancel(first.getReservationId()));
+        assertFalse(reservationService.cancel(first.getReservationId()));
+        assertNull(reservationService.getReservation(first.getReservationId()));
+
+        Reservation rebooked = reservationService.book(ToolCodeEnum.LADW, checkoutDate.plusDays(6), 1);
+        assertEquals(first.getUnitNumber(), rebooked.getUnitNumber());
+    }
+
+    @Test
+    public void testConcurrentBookings_neverDoubleBookAUnit() throws InterruptedException {
+        LocalDate firstDay = LocalDate.of(2095, 1, 1);
+        int threads = 16;
+        int bookingsPerThread = 2_000;
+        Queue<Reservation> booked = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < bookingsPerThread; i++) {
+                    ToolCodeEnum toolCode = ToolCodeEnum.values()[random.nextInt(ToolCodeEnum.values().length)];
+                    Reservation reservation = reservationService.book(toolCode,
+                            firstDay.plusDays(random.nextInt(365)), 1 + random.nextInt(14));
+                    if (reservation != null) {
+                        //Cancel some so bookings and cancels race each other too
+                        if (random.nextInt(4) == 0 && reservationService.cancel(reservation.getReservationId())) {
+                            continue;
+                        }
+                        booked.add(reservation);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        //Count, per tool unit and day, how many kept reservations hold it
+        int[][][] holders = new int[ToolCodeEnum.values().length][3][365 + 14];
+        for (Reservation reservation : booked) {
+            for (LocalDate day = reservation.getCheckoutDate(); day.isBefore(reservation.getDueDate());
+                 day = day.plusDays(1)) {
+                int count = ++holders[reservation.getToolCode().ordinal()][reservation.getUnitNumber() - 1]
+                        [(int) (day.toEpochDay() - firstDay.toEpochDay())];
+                assertEquals(1, count, "Unit double booked on " + day);
+            }
+        }
+        assertFalse(booked.isEmpty());
+    }
+}
@@ -3,8 +3,14 @@ package com.example.aalittle.ToolRental.service;
 import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,6 +20,9 @@ public class ToolDataRetrievalServiceTest {
     @Autowired
     private ToolDataRetrievalService toolDataRetrievalService;
 
+    @TempDir
+    private Path tempDir;
+
     @Test
     public void testRetrieveToolDataWithNullCode_returnsNull() {
         assertEquals(null, toolDataRetrievalService.retrieveToolData(null));
@@ -23,4 +32,21 @@ public class ToolDataRetrievalServiceTest {
     public void testRetrieveToolDataWithValidCode_returnsData() {
         assertNotNull(toolDataRetrievalService.retrieveToolData(ToolCodeEnum.JAKD));
     }
+
+    @Test
+    public void testReloadCatalogMissingTool_keepsCurrentCatalog() throws IOException {
+        Path catalog = tempDir.resolve("tool-catalog.csv");
+        Files.writeString(catalog, "CHNS,CHAINSAW,STIHL,1.49,MTWTF--,true\n");
+        Object location = ReflectionTestUtils.getField(toolDataRetrievalService, "catalogLocation");
+        long version = toolDataRetrievalService.getVersion();
+        ReflectionTestUtils.setField(toolDataRetrievalService, "catalogLocation", catalog.toUri().toString());
+        try {
+            assertThrows(IllegalArgumentException.class, () -> toolDataRetrievalService.reloadCatalog());
+        } finally {
+            ReflectionTestUtils.setField(toolDataRetrievalService, "catalogLocation", location);
+        }
+
+        assertEquals(version, toolDataRetrievalService.getVersion());
+        assertNotNull(toolDataRetrievalService.retrieveToolData(ToolCodeEnum.LADW));
+    }
 }
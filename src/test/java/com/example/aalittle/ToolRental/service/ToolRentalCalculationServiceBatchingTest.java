@@ -0,0 +1,64 @@
+package com.example.aalittle.ToolRental.service;
+
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.*;
+
+@SpringBootTest(properties = {"tool-rental.quote-batching.enabled=true", "tool-rental.quote-cache.enabled=false"})
+public class ToolRentalCalculationServiceBatchingTest {
+
+    @Autowired
+    private ToolRentalCalculationService toolRentalCalculationService;
+
+    @Test
+    public void testCalculateToolRental_batched_calculatesCorrectly() {
+        long batchedCount = toolRentalCalculationService.getQuoteCacheStats().getBatchedCount();
+
+        RentalAgreement agreement = toolRentalCalculationService.calculateToolRental(
+                LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10);
+
+        assertEquals(2, agreement.getChargeableDays());
+        assertEquals(new BigDecimal("3.58"), agreement.getDiscountCharge());
+        assertEquals(batchedCount + 1, toolRentalCalculationService.getQuoteCacheStats().getBatchedCount());
+    }
+
+    @Test
+    public void testConcurrentCalculateToolRental_batched_matchesBulkQuotes() throws Exception {
+        List<RentalTerm> rentalTerms = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rentalTerms.add(LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10);
+            rentalTerms.add(CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25);
+            rentalTerms.add(JAKD_DATE_SEPTEMBER_3_15_DAYS_6_DISCOUNT_0);
+            rentalTerms.add(JAKR_DATE_JULY_2_20_DAYS_4_DISCOUNT_50);
+        }
+        List<RentalAgreement> expected = toolRentalCalculationService.calculateToolRentals(rentalTerms);
+        long batchedCount = toolRentalCalculationService.getQuoteCacheStats().getBatchedCount();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<RentalAgreement>> quotes = new ArrayList<>();
+            for (RentalTerm rentalTerm : rentalTerms) {
+                quotes.add(executorService.submit(() -> toolRentalCalculationService.calculateToolRental(rentalTerm)));
+            }
+            for (int i = 0; i < rentalTerms.size(); i++) {
+                assertEquals(expected.get(i), quotes.get(i).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals(batchedCount + rentalTerms.size(),
+                toolRentalCalculationService.getQuoteCacheStats().getBatchedCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.aalittle.ToolRental.service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventSettings;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.*;
+
+@SpringBootTest(properties = {"tool-rental.quote-cache.enabled=false"})
+public class ToolRentalCalculationServiceEventsTest {
+
+    private static final String EVENT_PREFIX = "com.example.aalittle.ToolRental.";
+
+    @Autowired
+    private ToolRentalCalculationService toolRentalCalculationService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testCalculateToolRental_withPreset_recordsEveryStage() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                getClass().getResourceAsStream("/jfr/tool-rental.jfc")), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording(configuration)) {
+            //The preset only keeps slow stages, keep every one here
+            for (String stage : List.of("ToolLookup", "HolidayResolution", "ChargeableDays", "Pricing",
+                    "AgreementEmission")) {
+                EventSettings settings = recording.enable(EVENT_PREFIX + stage);
+                settings.withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            toolRentalCalculationService.calculateToolRental(LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10);
+            recording.stop();
+            Path file = tempDir.resolve("rental.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        Map<String, RecordedEvent> eventsByStage = new HashMap<>();
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.startsWith(EVENT_PREFIX) && "LADW".equals(event.getString("toolCode"))) {
+                eventsByStage.put(name.substring(EVENT_PREFIX.length()), event);
+            }
+        }
+        assertEquals(Set.of("ToolLookup", "HolidayResolution", "ChargeableDays", "Pricing", "AgreementEmission"),
+                eventsByStage.keySet());
+        RecordedEvent pricing = eventsByStage.get("Pricing");
+        assertEquals("2020-07-02", pricing.getString("checkoutDate"));
+        assertEquals(3, pricing.getInt("rentalDayCount"));
+        assertEquals(10, pricing.getInt("discountPercent"));
+        //Independence Day 2020 is observed on Friday the 3rd
+        assertEquals(1, pricing.getInt("holidayCount"));
+        assertEquals(2, pricing.getInt("chargeableDays"));
+        assertEquals(358, pricing.getLong("finalChargeCents"));
+        assertEquals(2, eventsByStage.get("ChargeableDays").getInt("dayCount"));
+        assertEquals(1, eventsByStage.get("AgreementEmission").getInt("holidayCount"));
+    }
+
+    @Test
+    public void testCalculateToolRentals_withPreset_recordsOneBatchEmission() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_PREFIX + "AgreementBatchEmission").withThreshold(Duration.ZERO);
+            recording.start();
+            toolRentalCalculationService.calculateToolRentals(List.of(LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10,
+                    CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25, LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10));
+            recording.stop();
+            Path file = tempDir.resolve("rental.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> batches = events.stream()
+                .filter(event -> event.getEventType().getName().equals(EVENT_PREFIX + "AgreementBatchEmission"))
+                .toList();
+        assertEquals(1, batches.size());
+        assertEquals(3, batches.get(0).getInt("agreementCount"));
+        assertEquals(2, batches.get(0).getInt("toolCount"));
+        assertEquals(5, batches.get(0).getInt("maxRentalDayCount"));
+        assertEquals(11, batches.get(0).getLong("totalRentalDayCount"));
+    }
+
+    @Test
+    public void testCalculateToolRental_withoutPreset_recordsNoStage() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.start();
+            toolRentalCalculationService.calculateToolRental(LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10);
+            recording.stop();
+            Path file = tempDir.resolve("rental.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().startsWith(EVENT_PREFIX)));
+    }
+}
@@ -4,13 +4,19 @@ package com.example.aalittle.ToolRental.service;
 import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
 import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
 import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.CheckoutSearchTerm;
 import com.example.aalittle.ToolRental.model.RentalAgreement;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import com.example.aalittle.ToolRental.model.ToolData;
+import com.example.aalittle.ToolRental.utils.PricingPlan;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static com.example.aalittle.ToolRental.utils.RentalTermPayloads.*;
@@ -21,6 +27,9 @@ public class ToolRentalCalculationServiceTest {
     @Autowired
     private ToolRentalCalculationService toolRentalCalculationService;
 
+    @Autowired
+    private ToolDataRetrievalService toolDataRetrievalService;
+
 // ==================== MANDATORY TESTS ====================
 
     @Test
@@ -247,6 +256,28 @@ public class ToolRentalCalculationServiceTest {
         assertTrue(agreement.getDiscountCharge().compareTo(BigDecimal.ZERO) > 0);
     }
 
+    @Test
+    public void testVeryLongRentalPeriod_100Years_jackhammer() {
+        RentalAgreement agreement = toolRentalCalculationService.calculateToolRental(
+                JAKD_100_YEARS);
+
+        assertNotNull(agreement);
+        assertEquals(36500, agreement.getRentalDays());
+        assertEquals(LocalDate.of(2099, 12, 7), agreement.getDueDate());
+        assertEquals(25871, agreement.getChargeableDays());
+        assertEquals(new BigDecimal("77354.29"), agreement.getSubTotal());
+    }
+
+    @Test
+    public void testVeryLongRentalPeriod_100Years_ladder() {
+        RentalAgreement agreement = toolRentalCalculationService.calculateToolRental(
+                LADW_100_YEARS);
+
+        assertNotNull(agreement);
+        assertEquals(36500, agreement.getRentalDays());
+        assertEquals(36300, agreement.getChargeableDays());
+    }
+
 // ==================== HOLIDAY SPECIFIC TESTS ====================
 
     @Test
@@ -439,4 +470,216 @@ public class ToolRentalCalculationServiceTest {
         assertEquals(LocalDate.of(2024, 12, 30), agreement.getCheckoutDate());
         assertEquals(LocalDate.of(2025, 1, 4), agreement.getDueDate());
     }
-}
\ No newline at end of file
+
+// ==================== BATCH TESTS ====================
+
+    @Test
+    public void testCalculateToolRentals_matchesSingleCalculationsInOrder() {
+        List<RentalTerm> rentalTerms = List.of(LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10,
+                JAKR_DATE_JULY_2_20_DAYS_4_DISCOUNT_50, CHNS_DATE_JULY_2_15_DAYS_5_DISCOUNT_25,
+                LADW_DATE_JULY_2_20_DAYS_3_DISCOUNT_10);
+
+        List<RentalAgreement> agreements = toolRentalCalculationService.calculateToolRentals(rentalTerms);
+
+        assertEquals(rentalTerms.size(), agreements.size());
+        for (int i = 0; i < rentalTerms.size(); i++) {
+            assertEquals(toolRentalCalculationService.calculateToolRental(rentalTerms.get(i)), agreements.get(i));
+        }
+    }
+
+    @Test
+    public void testCalculateToolRentals_sameDatesDifferentPolicies() {
+// JAKD and JAKR share a charge policy, LADW does not, all three rent 7/2/20 for 4 days
+        List<RentalAgreement> agreements = toolRentalCalculationService.calculateToolRentals(List.of(
+                JAKR_DATE_JULY_2_20_DAYS_4_DISCOUNT_50,
+                new RentalTerm(ToolCodeEnum.JAKD, LocalDate.of(2020, 7, 2), 4, 0),
+                new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 4, 0)));
+
+        assertEquals(1, agreements.get(0).getChargeableDays());
+        assertEquals(1, agreements.get(1).getChargeableDays());
+        assertEquals(3, agreements.get(2).getChargeableDays());
+    }
+
+    @Test
+    public void testCalculateToolRentalsAboveFanOutThreshold_matchesSingleCalculationsInOrder() {
+        List<RentalTerm> rentalTerms = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rentalTerms.add(new RentalTerm(ToolCodeEnum.values()[i % ToolCodeEnum.values().length],
+                    LocalDate.of(2020, 6, 1).plusDays(i % 97), 1 + i % 13, i % 101));
+        }
+
+        List<RentalAgreement> agreements = toolRentalCalculationService.calculateToolRentals(rentalTerms);
+
+        assertEquals(rentalTerms.size(), agreements.size());
+        for (int i = 0; i < rentalTerms.size(); i++) {
+            assertEquals(toolRentalCalculationService.calculateToolRental(rentalTerms.get(i)), agreements.get(i));
+        }
+    }
+
+    @Test
+    public void testCalculateToolRentals_emptyList_returnsEmpty() {
+        assertTrue(toolRentalCalculationService.calculateToolRentals(List.of()).isEmpty());
+    }
+
+// ==================== QUOTE CACHE TESTS ====================
+
+    @Test
+    public void testRepeatedQuote_servedFromCache() {
+        RentalTerm rentalTerm = new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2023, 3, 9), 11, 5);
+        RentalAgreement first = toolRentalCalculationService.calculateToolRental(rentalTerm);
+        long hitCount = toolRentalCalculationService.getQuoteCacheStats().getHitCount();
+
+        RentalAgreement second = toolRentalCalculationService.calculateToolRental(rentalTerm);
+
+        assertEquals(first, second);
+        assertEquals(hitCount + 1, toolRentalCalculationService.getQuoteCacheStats().getHitCount());
+    }
+
+    @Test
+    public void testCachedQuote_changedByCaller_leavesCacheUnchanged() {
+        RentalTerm rentalTerm = new RentalTerm(ToolCodeEnum.CHNS, LocalDate.of(2023, 3, 10), 11, 5);
+        RentalAgreement first = toolRentalCalculationService.calculateToolRental(rentalTerm);
+        BigDecimal discountCharge = first.getDiscountCharge();
+
+        first.setDiscountCharge(BigDecimal.ZERO);
+        RentalAgreement second = toolRentalCalculationService.calculateToolRental(rentalTerm);
+
+        assertNotSame(first, second);
+        assertEquals(discountCharge, second.getDiscountCharge());
+    }
+
+    @Test
+    public void testToolDataUpdate_invalidatesCache() {
+        RentalTerm rentalTerm = new RentalTerm(ToolCodeEnum.JAKR, LocalDate.of(2023, 3, 9), 11, 5);
+        RentalAgreement first = toolRentalCalculationService.calculateToolRental(rentalTerm);
+
+        toolDataRetrievalService.updateToolData(ToolCodeEnum.JAKR,
+                toolDataRetrievalService.retrieveToolData(ToolCodeEnum.JAKR));
+        long missCount = toolRentalCalculationService.getQuoteCacheStats().getMissCount();
+        RentalAgreement second = toolRentalCalculationService.calculateToolRental(rentalTerm);
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(missCount + 1, toolRentalCalculationService.getQuoteCacheStats().getMissCount());
+    }
+
+    @Test
+    public void testFindCheapestCheckoutDates_ranksByChargeAndDate() {
+// Jackhammer: weekday charge YES, weekend charge NO, holiday charge NO
+// 7/3/20 (Fri) is the observed July 4th
+// Checkout 7/2 charges nothing (7/3 holiday, 7/4 Sat, 7/5 Sun)
+// Checkout 7/1 and 7/3 charge one day, 7/4 two days, 7/5 - 7/7 three days
+        CheckoutSearchTerm checkoutSearchTerm = new CheckoutSearchTerm(ToolCodeEnum.JAKD, LocalDate.of(2020, 7, 1),
+                7, 3, 0, 4);
+
+        List<RentalAgreement> rentalAgreements =
+                toolRentalCalculationService.findCheapestCheckoutDates(checkoutSearchTerm);
+
+        assertEquals(4, rentalAgreements.size());
+        assertEquals(LocalDate.of(2020, 7, 2), rentalAgreements.get(0).getCheckoutDate());
+        assertEquals(0, rentalAgreements.get(0).getChargeableDays());
+        assertEquals(LocalDate.of(2020, 7, 1), rentalAgreements.get(1).getCheckoutDate());
+        assertEquals(LocalDate.of(2020, 7, 3), rentalAgreements.get(2).getCheckoutDate());
+        assertEquals(new BigDecimal("2.99"), rentalAgreements.get(2).getDiscountCharge());
+        assertEquals(LocalDate.of(2020, 7, 4), rentalAgreements.get(3).getCheckoutDate());
+        assertEquals(2, rentalAgreements.get(3).getChargeableDays());
+    }
+
+    @Test
+    public void testFindCheapestCheckoutDates_matchesSingleQuotes() {
+        CheckoutSearchTerm checkoutSearchTerm = new CheckoutSearchTerm(ToolCodeEnum.LADW, LocalDate.of(2015, 8, 20),
+                60, 5, 10, null);
+
+        List<RentalAgreement> rentalAgreements =
+                toolRentalCalculationService.findCheapestCheckoutDates(checkoutSearchTerm);
+
+        assertEquals(5, rentalAgreements.size());
+        for (RentalAgreement rentalAgreement : rentalAgreements) {
+            assertEquals(toolRentalCalculationService.calculateToolRental(new RentalTerm(ToolCodeEnum.LADW,
+                    rentalAgreement.getCheckoutDate(), 5, 10)), rentalAgreement);
+            assertTrue(rentalAgreement.getChargeableDays() <= rentalAgreements.get(4).getChargeableDays());
+        }
+    }
+
+    @Test
+    public void testCalculateToolRentalWithPricingRules_appliesRules() {
+// Ladder: weekday charge YES, weekend charge YES, holiday charge NO, weekend days charged double
+// Checkout 7/2/20 (Thu), 7/3 (Fri) is the observed July 4th
+        ToolData ladder = toolDataRetrievalService.retrieveToolData(ToolCodeEnum.LADW);
+        try {
+            toolDataRetrievalService.updateToolData(ToolCodeEnum.LADW, withPricingRules(ladder,
+                    "WEEKEND_MULTIPLIER:2;LONG_RENTAL_DISCOUNT:5:10;MINIMUM_CHARGE:5.00"));
+
+// 7/4 (Sat), 7/5 (Sun) at 3.98
+            RentalAgreement weekend = toolRentalCalculationService.calculateToolRental(
+                    new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 3, 0));
+            assertEquals(2, weekend.getChargeableDays());
+            assertEquals(new BigDecimal("7.96"), weekend.getDiscountCharge());
+
+// Adds 7/6 (Mon), 7/7 (Tue) at 1.99, 11.94 with 10% off for 5 days or more
+            RentalAgreement longRental = toolRentalCalculationService.calculateToolRental(
+                    new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 5, 0));
+            assertEquals(new BigDecimal("11.94"), longRental.getSubTotal());
+            assertEquals(new BigDecimal("1.19"), longRental.getDiscountAmount());
+            assertEquals(new BigDecimal("10.75"), longRental.getDiscountCharge());
+
+// Only the free holiday, the minimum charge applies
+            RentalAgreement holiday = toolRentalCalculationService.calculateToolRental(
+                    new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 1, 0));
+            assertEquals(0, holiday.getChargeableDays());
+            assertEquals(new BigDecimal("5.00"), holiday.getDiscountCharge());
+        } finally {
+            toolDataRetrievalService.updateToolData(ToolCodeEnum.LADW, ladder);
+        }
+    }
+
+    @Test
+    public void testCalculateToolRentalWithOwnWeekend_multipliesOnlyThoseDays() {
+// Ladder with Friday and Saturday charged double
+// Checkout 7/2/20 (Thu), 7/3 (Fri) is the observed July 4th and free, 7/4 (Sat) at 3.98, 7/5 (Sun) at 1.99
+        ToolData ladder = toolDataRetrievalService.retrieveToolData(ToolCodeEnum.LADW);
+        try {
+            toolDataRetrievalService.updateToolData(ToolCodeEnum.LADW, withPricingRules(ladder,
+                    "WEEKEND_MULTIPLIER:2:----FS-"));
+
+            RentalAgreement rentalAgreement = toolRentalCalculationService.calculateToolRental(
+                    new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 3, 0));
+
+            assertEquals(2, rentalAgreement.getChargeableDays());
+            assertEquals(new BigDecimal("5.97"), rentalAgreement.getDiscountCharge());
+        } finally {
+            toolDataRetrievalService.updateToolData(ToolCodeEnum.LADW, ladder);
+        }
+    }
+
+    @Test
+    public void testFindCheapestCheckoutDatesWithWeekendMultiplier_ranksByCharge() {
+// Ladder with weekend days charged double, one day rentals
+// Checkout 7/2 charges nothing (7/3 holiday), 7/1, 7/5, 7/6 and 7/7 charge 1.99, 7/3 and 7/4 charge 3.98
+        ToolData ladder = toolDataRetrievalService.retrieveToolData(ToolCodeEnum.LADW);
+        try {
+            toolDataRetrievalService.updateToolData(ToolCodeEnum.LADW, withPricingRules(ladder,
+                    "WEEKEND_MULTIPLIER:2"));
+            CheckoutSearchTerm checkoutSearchTerm = new CheckoutSearchTerm(ToolCodeEnum.LADW,
+                    LocalDate.of(2020, 7, 1), 7, 1, 0, null);
+
+            List<RentalAgreement> rentalAgreements =
+                    toolRentalCalculationService.findCheapestCheckoutDates(checkoutSearchTerm);
+
+            assertEquals(List.of(LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 5),
+                    LocalDate.of(2020, 7, 6), LocalDate.of(2020, 7, 7)),
+                    rentalAgreements.stream().map(RentalAgreement::getCheckoutDate).toList());
+            for (RentalAgreement rentalAgreement : rentalAgreements) {
+                assertEquals(toolRentalCalculationService.calculateToolRental(new RentalTerm(ToolCodeEnum.LADW,
+                        rentalAgreement.getCheckoutDate(), 1, 0)), rentalAgreement);
+            }
+        } finally {
+            toolDataRetrievalService.updateToolData(ToolCodeEnum.LADW, ladder);
+        }
+    }
+
+    private static ToolData withPricingRules(final ToolData toolData, final String pricingRules) {
+        return new ToolData(toolData.getToolType(), toolData.getToolBrand(), toolData.getDailyCharge(),
+                toolData.getChargeableDayMask(), toolData.isHolidayCharge(), PricingPlan.parseRules(pricingRules));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgreementCsvWriterTest {
+
+    @Test
+    public void testWrite_writesOneLinePerAgreement() {
+        AgreementCsvWriter writer = new AgreementCsvWriter(0);
+
+        writer.write(agreement(ToolCodeEnum.LADW, ToolTypeEnum.LADDER, ToolBrandEnum.WERNER, 3,
+                LocalDate.of(2020, 7, 2), "1.99", 2, "3.98", "10.0", "0.40", "3.58"));
+        writer.write(agreement(ToolCodeEnum.JAKR, ToolTypeEnum.JACKHAMMER, ToolBrandEnum.RIGID, 3650,
+                LocalDate.of(2009, 12, 25), "2.99", 2608, "7797.92", "25.00", "1949.48", "5848.44"));
+
+        assertEquals("LADW,LADDER,WERNER,3,07/02/20,07/05/20,1.99,2,3.98,10,0.40,3.58\n"
+                + "JAKR,JACKHAMMER,RIGID,3650,12/25/09,12/23/19,2.99,2608,7797.92,25,1949.48,5848.44\n",
+                writer.toString());
+        assertEquals(writer.toString().length(), writer.size());
+        assertEquals(writer.size(), writer.toByteBuffer().remaining());
+    }
+
+    private static RentalAgreement agreement(final ToolCodeEnum toolCode, final ToolTypeEnum toolType,
+                                             final ToolBrandEnum toolBrand, final int rentalDays,
+                                             final LocalDate checkoutDate, final String dailyCharge,
+                                             final int chargeableDays, final String subTotal,
+                                             final String discountPercent, final String discountAmount,
+                                             final String discountCharge) {
+        return RentalAgreement.builder()
+                .toolCode(toolCode)
+                .toolType(toolType)
+                .toolBrand(toolBrand)
+                .rentalDays(rentalDays)
+                .checkoutDate(checkoutDate)
+                .dueDate(checkoutDate.plusDays(rentalDays))
+                .dailyCharge(new BigDecimal(dailyCharge))
+                .chargeableDays(chargeableDays)
+                .subTotal(new BigDecimal(subTotal))
+                .discountPercent(new BigDecimal(discountPercent))
+                .discountAmount(new BigDecimal(discountAmount))
+                .discountCharge(new BigDecimal(discountCharge)).build();
+    }
+}
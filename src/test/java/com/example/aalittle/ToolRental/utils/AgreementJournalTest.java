@@ -0,0 +1,129 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.JournalSummary;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgreementJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppend_agreementsReadBackUnchanged() throws IOException {
+        Path journalPath = directory.resolve("agreements.journal");
+        try (AgreementJournal agreementJournal = AgreementJournal.open(journalPath, 64, 16, 1000)) {
+            assertEquals(1L, agreementJournal.append(agreement(ToolCodeEnum.LADW)).join());
+            assertEquals(2L, agreementJournal.append(agreement(ToolCodeEnum.JAKR)).join());
+        }
+
+        List<RentalAgreement> readBack = new ArrayList<>();
+        assertEquals(2, AgreementJournal.readAll(journalPath, readBack::add));
+        assertEquals(List.of(agreement(ToolCodeEnum.LADW), agreement(ToolCodeEnum.JAKR)), readBack);
+    }
+
+    @Test
+    public void testOpen_recoversTotalsFromSnapshotAndTail() throws IOException {
+        Path journalPath = directory.resolve("agreements.journal");
+        Path crashedPath = Files.createDirectory(directory.resolve("crashed")).resolve("agreements.journal");
+        try (AgreementJournal agreementJournal = AgreementJournal.open(journalPath, 64, 4, 10)) {
+            List<CompletableFuture<Long>> written = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                written.add(agreementJournal.append(agreement(i % 2 == 0 ? ToolCodeEnum.LADW : ToolCodeEnum.CHNS)));
+            }
+            written.forEach(CompletableFuture::join);
+            //Copy the files while the journal is open, as if the process died here
+            Files.copy(journalPath, crashedPath);
+            Files.copy(directory.resolve("agreements.journal.snapshot"),
+                    directory.resolve("crashed/agreements.journal.snapshot"));
+        }
+        try (FileChannel channel = FileChannel.open(crashedPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 90, 1, 2}));
+        }
+        long sizeWithTornRecord = Files.size(crashedPath);
+
+        try (AgreementJournal recovered = AgreementJournal.open(crashedPath, 64, 4, 10)) {
+            JournalSummary summary = recovered.getSummary();
+            assertEquals(25, summary.getRecordCount());
+            assertEquals(25, summary.getLastSequence());
+            assertEquals(new BigDecimal("89.50"), summary.getFinalChargeTotal());
+            assertEquals(13L, summary.getAgreementsByToolCode().get(ToolCodeEnum.LADW));
+            assertEquals(12L, summary.getAgreementsByToolCode().get(ToolCodeEnum.CHNS));
+            //A snapshot was taken after at least 10 records so only the tail is replayed
+            assertTrue(summary.getReplayedRecordCount() <= 15);
+            assertEquals(sizeWithTornRecord - 6, Files.size(crashedPath));
+
+            assertEquals(26L, recovered.append(agreement(ToolCodeEnum.JAKD)).join());
+        }
+    }
+
+    @Test
+    public void testAppend_futureCompletedByCaller_recordStillCountedInSnapshot() throws IOException {
+        Path journalPath = directory.resolve("agreements.journal");
+        try (AgreementJournal agreementJournal = AgreementJournal.open(journalPath, 64, 16, 1000)) {
+            for (int i = 0; i < 10; i++) {
+                //As a caller giving up on the fsync would, the writer still writes the record
+                agreementJournal.append(agreement(ToolCodeEnum.LADW)).cancel(false);
+            }
+        }
+
+        long recordCount = AgreementJournal.readAll(journalPath, agreement -> { });
+        try (AgreementJournal reopened = AgreementJournal.open(journalPath, 64, 16, 1000)) {
+            assertEquals(recordCount, reopened.getSummary().getRecordCount());
+            assertEquals(recordCount, reopened.getSummary().getLastSequence());
+            assertEquals(recordCount + 1, reopened.append(agreement(ToolCodeEnum.JAKD)).join());
+        }
+    }
+
+    @Test
+    public void testAppend_afterClose_failsWithoutWaiting() throws IOException {
+        Path journalPath = directory.resolve("agreements.journal");
+        AgreementJournal agreementJournal = AgreementJournal.open(journalPath, 64, 16, 1000);
+        agreementJournal.close();
+
+        CompletableFuture<Long> appended = agreementJournal.append(agreement(ToolCodeEnum.LADW));
+
+        assertTrue(appended.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testOpen_notAJournal_throws() throws IOException {
+        Path journalPath = Files.writeString(directory.resolve("agreements.journal"), "not a journal");
+
+        assertThrows(IOException.class, () -> AgreementJournal.open(journalPath, 64, 16, 1000));
+    }
+
+    private static RentalAgreement agreement(final ToolCodeEnum toolCode) {
+        return RentalAgreement.builder()
+                .toolCode(toolCode)
+                .toolType(ToolTypeEnum.LADDER)
+                .toolBrand(ToolBrandEnum.WERNER)
+                .rentalDays(3)
+                .checkoutDate(LocalDate.of(2020, 7, 2))
+                .dueDate(LocalDate.of(2020, 7, 5))
+                .dailyCharge(BigDecimal.valueOf(1.99))
+                .chargeableDays(2)
+                .subTotal(new BigDecimal("3.98"))
+                .discountPercent(MoneyUtils.toDisplayPercent(10))
+                .discountAmount(new BigDecimal("0.40"))
+                .discountCharge(new BigDecimal("3.58")).build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedLineReaderTest {
+
+    @Test
+    public void testReadLine_readsLinesLikeBufferedReader() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("ab\r\n\ncd"), 2);
+
+        assertEquals("ab", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertEquals("cd", reader.readLine());
+        assertFalse(reader.isTooLong());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public void testReadLine_longLine_throwsAwayLineAndCarriesOn() throws IOException {
+        String longLine = "x".repeat(100_000);
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("abc\n" + longLine + "\nabcd\r\n" + longLine),
+                4);
+
+        assertEquals("abc", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertTrue(reader.isTooLong());
+        assertEquals("abcd", reader.readLine());
+        assertFalse(reader.isTooLong());
+        assertEquals("", reader.readLine());
+        assertTrue(reader.isTooLong());
+        assertNull(reader.readLine());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.HolidayEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.ToolData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChargeableDayUtilsTest {
+
+    private final HolidayIndex holidayIndex = HolidayIndex.build(2019, 2022,
+            EnumSet.of(HolidayEnum.INDEPENDENCE_DAY, HolidayEnum.LABOR_DAY, HolidayEnum.CHRISTMAS_DAY));
+
+    @Test
+    public void testCountChargeableDaysWithEveryMask_matchesDayByDayCount() {
+        LocalDate firstCheckoutDate = LocalDate.of(2020, 6, 28);
+        for (int mask = 0; mask <= ChargeableDayUtils.ALL_DAYS_MASK; mask++) {
+            for (boolean holidayCharge : new boolean[] {true, false}) {
+                ToolData toolData = new ToolData(ToolTypeEnum.LADDER, ToolBrandEnum.WERNER, BigDecimal.ONE,
+                        mask, holidayCharge);
+                for (int offset = 0; offset < 14; offset++) {
+                    LocalDate checkoutDate = firstCheckoutDate.plusDays(offset);
+                    for (int rentalDayCount = 0; rentalDayCount <= 45; rentalDayCount++) {
+                        assertEquals(countDayByDay(toolData, checkoutDate, rentalDayCount),
+                                ChargeableDayUtils.countChargeableDays(toolData, checkoutDate, rentalDayCount,
+                                        holidayIndex));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCountChargeableDaysWithFridaySaturdayWeekend_skipsFridayAndSaturday() {
+        ToolData toolData = new ToolData(ToolTypeEnum.LADDER, ToolBrandEnum.WERNER, BigDecimal.ONE,
+                ChargeableDayUtils.parseChargeableDays("MTWT--S"), false);
+
+        //Fri 07/03/20 is the observed Independence Day and a weekend day, Sun 07/05 and Mon 07/06 are charged
+        assertEquals(2, ChargeableDayUtils.countChargeableDays(toolData, LocalDate.of(2020, 7, 2), 4,
+                holidayIndex));
+    }
+
+    @Test
+    public void testParseChargeableDays_readsMask() {
+        assertEquals(ChargeableDayUtils.WEEKDAYS_MASK, ChargeableDayUtils.parseChargeableDays("MTWTF--"));
+        assertEquals(ChargeableDayUtils.WEEKEND_MASK, ChargeableDayUtils.parseChargeableDays("-----ss"));
+        assertEquals(ChargeableDayUtils.ALL_DAYS_MASK & ~(1 << 6), ChargeableDayUtils.parseChargeableDays("MTWTFS-"));
+        assertThrows(IllegalArgumentException.class, () -> ChargeableDayUtils.parseChargeableDays("MTWTF"));
+        assertThrows(IllegalArgumentException.class, () -> ChargeableDayUtils.parseChargeableDays("MTWTFXX"));
+    }
+
+    private int countDayByDay(final ToolData toolData, final LocalDate checkoutDate, final int rentalDayCount) {
+        int chargeableDays = 0;
+        for (int day = 1; day <= rentalDayCount; day++) {
+            LocalDate date = checkoutDate.plusDays(day);
+            if (toolData.isChargedOn(date.getDayOfWeek())
+                    && (toolData.isHolidayCharge() || !holidayIndex.isHoliday(date))) {
+                chargeableDays++;
+            }
+        }
+        return chargeableDays;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.HolidayEnum;
+import de.focus_shift.jollyday.core.HolidayManager;
+import de.focus_shift.jollyday.core.ManagerParameters;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static de.focus_shift.jollyday.core.HolidayCalendar.UNITED_STATES;
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HolidayRuleTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(2200, 12, 31);
+
+    /// Properties keys of the jollyday US calendar for each holiday
+    private static final Map<String, HolidayEnum> JOLLYDAY_KEYS = Map.ofEntries(
+            entry("NEW_YEAR", HolidayEnum.NEW_YEARS_DAY),
+            entry("MARTIN_LUTHER_KING", HolidayEnum.MARTIN_LUTHER_KING_DAY),
+            entry("PRESIDENTS_DAY", HolidayEnum.PRESIDENTS_DAY),
+            entry("MEMORIAL_DAY", HolidayEnum.MEMORIAL_DAY),
+            entry("JUNETEENTH", HolidayEnum.JUNETEENTH),
+            entry("INDEPENDENCE_DAY", HolidayEnum.INDEPENDENCE_DAY),
+            entry("LABOUR_DAY", HolidayEnum.LABOR_DAY),
+            entry("VETERANS_DAY", HolidayEnum.VETERANS_DAY),
+            entry("THANKSGIVING", HolidayEnum.THANKSGIVING),
+            entry("CHRISTMAS", HolidayEnum.CHRISTMAS_DAY));
+
+    @Test
+    public void testObservedEpochDayFrom1900To2200_matchesJollyday() {
+        Set<String> expected = new HashSet<>();
+        HolidayManager.getInstance(ManagerParameters.create(UNITED_STATES))
+                .getHolidays(FIRST_DATE, LAST_DATE).forEach(holiday -> {
+                    HolidayEnum holidayEnum = JOLLYDAY_KEYS.get(holiday.getPropertiesKey());
+                    if (holidayEnum != null) {
+                        expected.add(holiday.getDate() + " " + holidayEnum);
+                    }
+                });
+
+        Set<String> actual = new HashSet<>();
+        for (int year = FIRST_DATE.getYear() - 1; year <= LAST_DATE.getYear() + 1; year++) {
+            for (HolidayEnum holiday : HolidayEnum.values()) {
+                HolidayRule rule = holiday.ruleFor(year);
+                if (rule == null) {
+                    continue;
+                }
+                LocalDate date = LocalDate.ofEpochDay(rule.observedEpochDay(year));
+                if (!date.isBefore(FIRST_DATE) && !date.isAfter(LAST_DATE)) {
+                    actual.add(date + " " + holiday);
+                }
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testIndependenceDayOnWeekend_isObservedOnNearestWeekday() {
+        HolidayRule rule = HolidayEnum.INDEPENDENCE_DAY.ruleFor(2020);
+        assertEquals(LocalDate.of(2020, 7, 3), LocalDate.ofEpochDay(rule.observedEpochDay(2020)));
+        assertEquals(LocalDate.of(2021, 7, 5), LocalDate.ofEpochDay(rule.observedEpochDay(2021)));
+        assertEquals(LocalDate.of(2038, 7, 5), LocalDate.ofEpochDay(rule.observedEpochDay(2038)));
+        assertEquals(LocalDate.of(2025, 7, 4), LocalDate.ofEpochDay(rule.observedEpochDay(2025)));
+    }
+
+    @Test
+    public void testNewYearsDayOnSaturday_isObservedInYearBefore() {
+        HolidayRule rule = HolidayEnum.NEW_YEARS_DAY.ruleFor(2022);
+        assertEquals(LocalDate.of(2021, 12, 31), LocalDate.ofEpochDay(rule.observedEpochDay(2022)));
+    }
+
+    @Test
+    public void testWeekdayRules_returnNthAndLastWeekday() {
+        assertEquals(LocalDate.of(2025, 9, 1),
+                LocalDate.ofEpochDay(HolidayEnum.LABOR_DAY.ruleFor(2025).observedEpochDay(2025)));
+        assertEquals(LocalDate.of(2024, 11, 28),
+                LocalDate.ofEpochDay(HolidayEnum.THANKSGIVING.ruleFor(2024).observedEpochDay(2024)));
+        assertEquals(LocalDate.of(2021, 5, 31),
+                LocalDate.ofEpochDay(HolidayEnum.MEMORIAL_DAY.ruleFor(2021).observedEpochDay(2021)));
+        assertEquals(LocalDate.of(1960, 5, 30),
+                LocalDate.ofEpochDay(HolidayEnum.MEMORIAL_DAY.ruleFor(1960).observedEpochDay(1960)));
+    }
+
+    @Test
+    public void testRuleForYearBeforeHolidayExisted_returnsNull() {
+        assertNull(HolidayEnum.JUNETEENTH.ruleFor(2020));
+        assertNull(HolidayEnum.MARTIN_LUTHER_KING_DAY.ruleFor(1985));
+    }
+
+    @Test
+    public void testHolidayIndexWithConfiguredHolidays_indexesOnlyThose() {
+        HolidayIndex index = HolidayIndex.build(2025, 2025, EnumSet.of(HolidayEnum.CHRISTMAS_DAY));
+        assertEquals(1, index.countInRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+        assertEquals(HolidayEnum.CHRISTMAS_DAY, index.holidayAt(0));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MicroBatcherTest {
+
+    @Test
+    public void testSubmitWithinWindow_groupsRequestsAndKeepsResultsInOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batcher", MicroBatcherTest::square,
+                executor, 1024, 1000, TimeUnit.MILLISECONDS.toNanos(200))) {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(batcher.submit(i));
+            }
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i * i, results.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(100, batcher.getBatchedCount());
+            assertTrue(batcher.getBatchCount() < 100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSubmitBeyondMaxBatchSize_splitsBatches() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batcher", batch -> {
+            assertTrue(batch.size() <= 8);
+            return square(batch);
+        }, executor, 1024, 8, TimeUnit.MILLISECONDS.toNanos(50))) {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                results.add(batcher.submit(i));
+            }
+
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i * i, results.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertTrue(batcher.getBatchCount() >= 5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSubmitWhenBatchFails_failsEveryRequestOfTheBatch() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batcher", batch -> {
+            throw new IllegalStateException("holiday index unavailable");
+        }, executor, 16, 16, 0)) {
+            CompletableFuture<Integer> result = batcher.submit(1);
+
+            CompletionException exception = assertThrows(CompletionException.class, result::join);
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSubmitAfterClose_runsOnCallingThread() throws Exception {
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batcher", MicroBatcherTest::square,
+                Runnable::run, 16, 16, 0);
+        batcher.close();
+
+        CompletableFuture<Integer> result = batcher.submit(7);
+
+        assertTrue(result.isDone());
+        assertEquals(49, result.join());
+    }
+
+    private static List<Integer> square(final List<Integer> batch) {
+        return batch.stream().map(value -> value * value).toList();
+    }
+
+    @Test
+    public void testSubmitWhileClosing_everyRequestCompletes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batcher", MicroBatcherTest::square,
+                        executor, 1024, 8, TimeUnit.MICROSECONDS.toNanos(50));
+                List<CompletableFuture<CompletableFuture<Integer>>> submitted = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    int request = i;
+                    submitted.add(CompletableFuture.supplyAsync(() -> batcher.submit(request), executor));
+                }
+                batcher.close();
+
+                for (int i = 0; i < 200; i++) {
+                    assertEquals(i * i, submitted.get(i).get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
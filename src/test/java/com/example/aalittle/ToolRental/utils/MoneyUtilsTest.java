@@ -0,0 +1,38 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyUtilsTest {
+
+    @Test
+    public void testToCents_rejectsFractionsOfACent() {
+        assertEquals(149, MoneyUtils.toCents(new BigDecimal("1.49")));
+        assertEquals(300, MoneyUtils.toCents(new BigDecimal("3")));
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.toCents(new BigDecimal("1.495")));
+    }
+
+    @Test
+    public void testPercentOf_matchesBigDecimalHalfUp() {
+        for (int percent = 0; percent <= 100; percent++) {
+            for (long cents = 0; cents < 5000; cents += 7) {
+                BigDecimal expected = BigDecimal.valueOf(((double) percent / (double) 100))
+                        .multiply(BigDecimal.valueOf(cents, 2)).setScale(2, RoundingMode.HALF_UP);
+                assertEquals(expected, MoneyUtils.toBigDecimal(MoneyUtils.percentOf(cents, percent)));
+            }
+        }
+    }
+
+    @Test
+    public void testToDisplayPercent_keepsLegacyScale() {
+        assertEquals("10.0", MoneyUtils.toDisplayPercent(10).toString());
+        assertEquals("25.00", MoneyUtils.toDisplayPercent(25).toString());
+        assertEquals("0.0", MoneyUtils.toDisplayPercent(0).toString());
+        assertEquals("100.0", MoneyUtils.toDisplayPercent(100).toString());
+        assertEquals("101.00", MoneyUtils.toDisplayPercent(101).toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void testNewBuffer_roundsCapacityToPowerOfTwo() {
+        assertEquals(1024, new MpscRingBuffer<>(1000).getCapacity());
+        assertEquals(1, new MpscRingBuffer<>(1).getCapacity());
+    }
+
+    @Test
+    public void testOffer_whenFull_returnsFalse() {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(2);
+        assertTrue(ringBuffer.offer(1));
+        assertTrue(ringBuffer.offer(2));
+        assertFalse(ringBuffer.offer(3));
+        assertEquals(1, ringBuffer.poll());
+        assertTrue(ringBuffer.offer(3));
+    }
+
+    @Test
+    public void testDrain_returnsElementsInOrder() {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            ringBuffer.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, ringBuffer.drain(drained::add, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, ringBuffer.size());
+        assertNull(new MpscRingBuffer<Integer>(4).poll());
+    }
+
+    @Test
+    public void testOffer_manyProducers_noElementLostOrReordered() throws InterruptedException {
+        int producerCount = 8;
+        int perProducer = 50_000;
+        MpscRingBuffer<Long> ringBuffer = new MpscRingBuffer<>(256);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    while (!ringBuffer.offer(producer * perProducer + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        long[] lastSeen = new long[producerCount];
+        Arrays.fill(lastSeen, -1);
+        long received = 0;
+        while (received < (long) producerCount * perProducer) {
+            Long element = ringBuffer.poll();
+            if (element == null) {
+                continue;
+            }
+            int producer = (int) (element / perProducer);
+            assertEquals(lastSeen[producer] + 1, element % perProducer);
+            lastSeen[producer] = element % perProducer;
+            received++;
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        assertNull(ringBuffer.poll());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.PricingRuleTypeEnum;
+import com.example.aalittle.ToolRental.model.PricingRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingPlanTest {
+
+    @Test
+    public void testEvaluate_withoutRules_chargesDailyChargeLessDiscount() {
+        PricingPlan pricingPlan = PricingPlan.compile(299, List.of());
+
+        assertTrue(pricingPlan.dependsOnlyOnChargeableDays());
+        for (int chargeableDays = 0; chargeableDays < 400; chargeableDays += 13) {
+            for (int discountPercent = 0; discountPercent <= 100; discountPercent += 5) {
+                long[] registers = evaluate(pricingPlan, chargeableDays, 0, 0, chargeableDays, discountPercent);
+                assertEquals(299L * chargeableDays, registers[PricingPlan.SUB_TOTAL]);
+                assertEquals(MoneyUtils.percentOf(299L * chargeableDays, discountPercent),
+                        registers[PricingPlan.DISCOUNT]);
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluate_weekendMultiplier_chargesWeekendDaysRoundedRate() {
+        //1.99 * 1.5 = 2.985, rounded up to 2.99 a weekend day
+        PricingPlan pricingPlan = PricingPlan.compile(199, PricingPlan.parseRules("WEEKEND_MULTIPLIER:1.5"));
+
+        long[] registers = evaluate(pricingPlan, 5, 2, 0, 7, 0);
+
+        assertTrue(pricingPlan.needsWeekendDays());
+        assertFalse(pricingPlan.dependsOnlyOnChargeableDays());
+        assertEquals(ChargeableDayUtils.WEEKEND_MASK, pricingPlan.weekendDayMask());
+        assertEquals(3 * 199 + 2 * 299, registers[PricingPlan.SUB_TOTAL]);
+        assertEquals(0, registers[PricingPlan.DISCOUNT]);
+    }
+
+    @Test
+    public void testCompile_weekendMultiplierWithOwnWeekend_keepsWeekendDays() {
+        PricingPlan pricingPlan = PricingPlan.compile(199, PricingPlan.parseRules("WEEKEND_MULTIPLIER:1.5:----FS-"));
+
+        assertEquals(ChargeableDayUtils.parseChargeableDays("----FS-"), pricingPlan.weekendDayMask());
+        assertEquals(ChargeableDayUtils.WEEKEND_MASK, PricingPlan.compile(199, List.of()).weekendDayMask());
+    }
+
+    @Test
+    public void testEvaluate_holidaySurcharge_addsAmountPerChargedHoliday() {
+        PricingPlan pricingPlan = PricingPlan.compile(149, PricingPlan.parseRules("HOLIDAY_SURCHARGE:5.00"));
+
+        long[] registers = evaluate(pricingPlan, 4, 0, 2, 6, 10);
+
+        assertTrue(pricingPlan.needsHolidays());
+        assertEquals(4 * 149 + 2 * 500, registers[PricingPlan.SUB_TOTAL]);
+        assertEquals(MoneyUtils.percentOf(4 * 149 + 2 * 500, 10), registers[PricingPlan.DISCOUNT]);
+    }
+
+    @Test
+    public void testEvaluate_longRentalDiscount_appliesLargestTierThenCustomerDiscount() {
+        PricingPlan pricingPlan = PricingPlan.compile(100,
+                PricingPlan.parseRules("LONG_RENTAL_DISCOUNT:7:10;LONG_RENTAL_DISCOUNT:28:25"));
+
+        assertEquals(0, evaluate(pricingPlan, 6, 0, 0, 6, 0)[PricingPlan.DISCOUNT]);
+        assertEquals(100, evaluate(pricingPlan, 10, 0, 0, 10, 0)[PricingPlan.DISCOUNT]);
+        assertEquals(750, evaluate(pricingPlan, 30, 0, 0, 30, 0)[PricingPlan.DISCOUNT]);
+        //10% off 1000 leaves 900, then 20% of that
+        assertEquals(100 + 180, evaluate(pricingPlan, 10, 0, 0, 10, 20)[PricingPlan.DISCOUNT]);
+        assertTrue(pricingPlan.dependsOnlyOnChargeableDays());
+    }
+
+    @Test
+    public void testEvaluate_minimumCharge_raisesSubTotalAndCapsDiscount() {
+        PricingPlan pricingPlan = PricingPlan.compile(300, PricingPlan.parseRules("MINIMUM_CHARGE:4.99"));
+
+        long[] free = evaluate(pricingPlan, 0, 0, 0, 2, 0);
+        assertEquals(499, free[PricingPlan.SUB_TOTAL]);
+        assertEquals(0, free[PricingPlan.DISCOUNT]);
+
+        long[] discounted = evaluate(pricingPlan, 2, 0, 0, 2, 50);
+        assertEquals(600, discounted[PricingPlan.SUB_TOTAL]);
+        assertEquals(101, discounted[PricingPlan.DISCOUNT]);
+
+        long[] aboveMinimum = evaluate(pricingPlan, 3, 0, 0, 3, 10);
+        assertEquals(90, aboveMinimum[PricingPlan.DISCOUNT]);
+    }
+
+    @Test
+    public void testEvaluate_ruleOrderDoesNotMatter() {
+        List<PricingRule> rules = PricingPlan.parseRules(
+                "MINIMUM_CHARGE:20.00;LONG_RENTAL_DISCOUNT:3:5;WEEKEND_MULTIPLIER:2;HOLIDAY_SURCHARGE:1.25");
+        PricingPlan forward = PricingPlan.compile(249, rules);
+        List<PricingRule> reversedRules = new ArrayList<>(rules);
+        Collections.reverse(reversedRules);
+        PricingPlan reversed = PricingPlan.compile(249, reversedRules);
+
+        for (int rentalDays = 1; rentalDays < 20; rentalDays++) {
+            long[] expected = evaluate(forward, rentalDays, rentalDays / 3, rentalDays / 7, rentalDays, 15);
+            assertArrayEquals(expected, evaluate(reversed, rentalDays, rentalDays / 3, rentalDays / 7, rentalDays, 15));
+        }
+    }
+
+    @Test
+    public void testEvaluateDayCharges_skipsDiscountsAndMinimumCharge() {
+        PricingPlan pricingPlan = PricingPlan.compile(199, PricingPlan.parseRules(
+                "MINIMUM_CHARGE:20.00;LONG_RENTAL_DISCOUNT:3:5;WEEKEND_MULTIPLIER:1.5;HOLIDAY_SURCHARGE:1.25"));
+        long[] registers = new long[PricingPlan.REGISTER_COUNT];
+        registers[PricingPlan.CHARGEABLE_DAYS] = 5;
+        registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = 2;
+        registers[PricingPlan.CHARGEABLE_HOLIDAYS] = 1;
+        registers[PricingPlan.RENTAL_DAYS] = 5;
+        registers[PricingPlan.DISCOUNT_PERCENT] = 50;
+
+        pricingPlan.evaluateDayCharges(registers);
+
+        assertEquals(3 * 199 + 2 * 299 + 125, registers[PricingPlan.SUB_TOTAL]);
+        assertEquals(0, registers[PricingPlan.DISCOUNT]);
+    }
+
+    @Test
+    public void testCompile_invalidRules_throw() {
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.compile(100,
+                PricingPlan.parseRules("WEEKEND_MULTIPLIER:1.5;WEEKEND_MULTIPLIER:2")));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.compile(100,
+                PricingPlan.parseRules("LONG_RENTAL_DISCOUNT:7:10;LONG_RENTAL_DISCOUNT:7:20")));
+        assertThrows(IllegalArgumentException.class,
+                () -> PricingPlan.compile(100, PricingPlan.parseRules("LONG_RENTAL_DISCOUNT:7:101")));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.compile(100,
+                List.of(new PricingRule(PricingRuleTypeEnum.MINIMUM_CHARGE, 0, new BigDecimal("-1.00")))));
+        assertThrows(IllegalArgumentException.class,
+                () -> PricingPlan.compile(100, PricingPlan.parseRules("WEEKEND_MULTIPLIER:1.5:-------")));
+    }
+
+    @Test
+    public void testParseRules_readsEveryType() {
+        List<PricingRule> rules = PricingPlan.parseRules(
+                " WEEKEND_MULTIPLIER:1.5 ; HOLIDAY_SURCHARGE:2.50;LONG_RENTAL_DISCOUNT:14:15;MINIMUM_CHARGE:9.99");
+
+        assertEquals(List.of(
+                new PricingRule(PricingRuleTypeEnum.WEEKEND_MULTIPLIER, 0, new BigDecimal("1.5")),
+                new PricingRule(PricingRuleTypeEnum.HOLIDAY_SURCHARGE, 0, new BigDecimal("2.50")),
+                new PricingRule(PricingRuleTypeEnum.LONG_RENTAL_DISCOUNT, 14, new BigDecimal("15")),
+                new PricingRule(PricingRuleTypeEnum.MINIMUM_CHARGE, 0, new BigDecimal("9.99"))), rules);
+        assertEquals(List.of(new PricingRule(PricingRuleTypeEnum.WEEKEND_MULTIPLIER, 0, new BigDecimal("2"),
+                ChargeableDayUtils.parseChargeableDays("----FS-"))),
+                PricingPlan.parseRules("WEEKEND_MULTIPLIER:2: ----FS-"));
+        assertTrue(PricingPlan.parseRules(" ").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.parseRules("LONG_RENTAL_DISCOUNT:10"));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.parseRules("SEASONAL:1.5"));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.parseRules("WEEKEND_MULTIPLIER:1.5:SS"));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.parseRules("HOLIDAY_SURCHARGE:5.00:MTWTFSS"));
+    }
+
+    private static long[] evaluate(final PricingPlan pricingPlan, final int chargeableDays, final int weekendDays,
+                                   final int holidays, final int rentalDays, final int discountPercent) {
+        long[] registers = new long[PricingPlan.REGISTER_COUNT];
+        registers[PricingPlan.CHARGEABLE_DAYS] = chargeableDays;
+        registers[PricingPlan.CHARGEABLE_WEEKEND_DAYS] = weekendDays;
+        registers[PricingPlan.CHARGEABLE_HOLIDAYS] = holidays;
+        registers[PricingPlan.RENTAL_DAYS] = rentalDays;
+        registers[PricingPlan.DISCOUNT_PERCENT] = discountPercent;
+        pricingPlan.evaluate(registers);
+        return registers;
+    }
+}
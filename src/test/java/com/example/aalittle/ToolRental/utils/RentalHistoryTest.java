@@ -0,0 +1,147 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.HistoryGroupByEnum;
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.RentalAgreement;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RentalHistoryTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Test
+    public void testAggregate_matchesRowByRowTotals() {
+        RentalHistory rentalHistory = new RentalHistory(100);
+        List<long[]> rows = new ArrayList<>();
+        Random random = new Random(21);
+        for (int i = 0; i < 5_000; i++) {
+            //Mostly increasing dates like real checkouts, so zone maps skip some segments
+            long[] row = {18_000 + i / 10 + random.nextInt(30), random.nextInt(ToolCodeEnum.values().length),
+                    random.nextInt(ToolBrandEnum.values().length), random.nextInt(20), random.nextInt(10_000), 0};
+            row[5] = random.nextInt((int) row[4] + 1);
+            rows.add(row);
+            rentalHistory.append(ToolCodeEnum.values()[(int) row[1]], ToolBrandEnum.values()[(int) row[2]], row[0],
+                    (int) row[3], row[4], row[5]);
+        }
+
+        for (HistoryGroupByEnum groupBy : HistoryGroupByEnum.values()) {
+            assertTotals(rows, rentalHistory, 18_100, 18_300, -1, -1, groupBy);
+            assertTotals(rows, rentalHistory, 18_000, 18_600, 0b0101, -1, groupBy);
+            assertTotals(rows, rentalHistory, 18_250, 18_250, -1, 0b0010, groupBy);
+            assertTotals(rows, rentalHistory, 17_000, 17_500, -1, -1, groupBy);
+        }
+        assertEquals(5_000, rentalHistory.size());
+        assertEquals(50, rentalHistory.getSegmentCount());
+    }
+
+    @Test
+    public void testAppendAgreement_storesCents() {
+        RentalHistory rentalHistory = new RentalHistory(4);
+        rentalHistory.append(agreement(ToolCodeEnum.LADW, ToolBrandEnum.WERNER, LocalDate.of(2020, 7, 2), 2,
+                "3.98", "0.40"));
+        rentalHistory.append(agreement(ToolCodeEnum.JAKR, ToolBrandEnum.RIGID, LocalDate.of(2020, 7, 2), 1,
+                "2.99", "1.50"));
+
+        RentalHistory.Totals totals = rentalHistory.aggregate(Long.MIN_VALUE, Long.MAX_VALUE, -1, -1,
+                HistoryGroupByEnum.TOOL_CODE, POOL);
+
+        assertEquals(1, totals.getAgreementCount(ToolCodeEnum.LADW.ordinal()));
+        assertEquals(2, totals.getChargeableDays(ToolCodeEnum.LADW.ordinal()));
+        assertEquals(398, totals.getSubTotalCents(ToolCodeEnum.LADW.ordinal()));
+        assertEquals(40, totals.getDiscountCents(ToolCodeEnum.LADW.ordinal()));
+        assertEquals(150, totals.getDiscountCents(ToolCodeEnum.JAKR.ordinal()));
+        assertEquals(0, totals.getAgreementCount(ToolCodeEnum.CHNS.ordinal()));
+        assertEquals(LocalDate.of(2020, 7, 2).toEpochDay(), rentalHistory.getFirstDay());
+        assertEquals(LocalDate.of(2020, 7, 2).toEpochDay(), rentalHistory.getLastDay());
+    }
+
+    @Test
+    public void testAggregateWhileAppending_neverSeesPartialSegments() throws InterruptedException {
+        RentalHistory rentalHistory = new RentalHistory(64);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread appender = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                rentalHistory.append(ToolCodeEnum.CHNS, ToolBrandEnum.STIHL, 18_000, 1, 149, 0);
+            }
+            done.set(true);
+        });
+        appender.start();
+
+        long lastCount = 0;
+        while (!done.get()) {
+            RentalHistory.Totals totals = rentalHistory.aggregate(18_000, 18_000, -1, -1,
+                    HistoryGroupByEnum.TOOL_BRAND, POOL);
+            long count = totals.getAgreementCount(ToolBrandEnum.STIHL.ordinal());
+            //Every row counted has all its columns, and rows are never lost once seen
+            assertEquals(count, totals.getChargeableDays(ToolBrandEnum.STIHL.ordinal()));
+            assertEquals(count * 149, totals.getSubTotalCents(ToolBrandEnum.STIHL.ordinal()));
+            assertTrue(count >= lastCount);
+            lastCount = count;
+        }
+        appender.join();
+
+        assertEquals(200_000, rentalHistory.aggregate(18_000, 18_000, -1, -1, HistoryGroupByEnum.TOOL_BRAND, POOL)
+                .getAgreementCount(ToolBrandEnum.STIHL.ordinal()));
+    }
+
+    @Test
+    public void testAggregate_invalidRange_throws() {
+        RentalHistory rentalHistory = new RentalHistory(8);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> rentalHistory.aggregate(2, 1, -1, -1, HistoryGroupByEnum.TOOL_CODE, POOL));
+        assertThrows(IllegalArgumentException.class, () -> new RentalHistory(0));
+    }
+
+    private static void assertTotals(final List<long[]> rows, final RentalHistory rentalHistory, final long fromDay,
+                                     final long toDay, final int toolCodeMask, final int toolBrandMask,
+                                     final HistoryGroupByEnum groupBy) {
+        RentalHistory.Totals totals = rentalHistory.aggregate(fromDay, toDay, toolCodeMask, toolBrandMask, groupBy,
+                POOL);
+        long[][] expected = new long[totals.getGroupCount()][4];
+        for (long[] row : rows) {
+            if (row[0] < fromDay || row[0] > toDay || (toolCodeMask >>> row[1] & 1) == 0
+                    || (toolBrandMask >>> row[2] & 1) == 0) {
+                continue;
+            }
+            int group = (int) switch (groupBy) {
+                case TOOL_CODE -> row[1];
+                case TOOL_BRAND -> row[2];
+                case CHECKOUT_DATE -> row[0] - fromDay;
+            };
+            expected[group][0]++;
+            expected[group][1] += row[3];
+            expected[group][2] += row[4];
+            expected[group][3] += row[5];
+        }
+        for (int group = 0; group < expected.length; group++) {
+            assertArrayEquals(expected[group], new long[]{totals.getAgreementCount(group),
+                    totals.getChargeableDays(group), totals.getSubTotalCents(group), totals.getDiscountCents(group)});
+        }
+    }
+
+    private static RentalAgreement agreement(final ToolCodeEnum toolCode, final ToolBrandEnum toolBrand,
+                                             final LocalDate checkoutDate, final int chargeableDays,
+                                             final String subTotal, final String discountAmount) {
+        return RentalAgreement.builder()
+                .toolCode(toolCode)
+                .toolType(ToolTypeEnum.values()[0])
+                .toolBrand(toolBrand)
+                .checkoutDate(checkoutDate)
+                .chargeableDays(chargeableDays)
+                .subTotal(new BigDecimal(subTotal))
+                .discountAmount(new BigDecimal(discountAmount)).build();
+    }
+}
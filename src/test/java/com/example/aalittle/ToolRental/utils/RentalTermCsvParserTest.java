@@ -0,0 +1,107 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.RentalTerm;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RentalTermCsvParserTest {
+
+    @Test
+    public void testParse_readsTermsAndSkipsHeaderAndBlankLines() {
+        ByteBuffer buffer = bytes("toolCode,checkoutDate,rentalDayCount,discountPercent\r\n"
+                + "LADW,07/02/20,3,10\r\n\r\n \"CHNS\" , 7/2/2015 ,5,25\nJAKD,9/3/15,6");
+        List<RentalTerm> terms = new ArrayList<>();
+        List<Integer> lines = new ArrayList<>();
+
+        int lineCount = RentalTermCsvParser.parse(buffer, 0, buffer.limit(), true, true, sink(terms, lines, null));
+
+        assertEquals(5, lineCount);
+        assertEquals(List.of(
+                new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2020, 7, 2), 3, 10),
+                new RentalTerm(ToolCodeEnum.CHNS, LocalDate.of(2015, 7, 2), 5, 25),
+                new RentalTerm(ToolCodeEnum.JAKD, LocalDate.of(2015, 9, 3), 6, 0)), terms);
+        assertEquals(List.of(1, 3, 4), lines);
+    }
+
+    @Test
+    public void testParse_invalidLines_reportedWithReason() {
+        ByteBuffer buffer = bytes("JAKR,09/03/15,5,101\nXXXX,09/03/15,5,0\nJAKR,02/29/21,4,0\nJAKR,07/02/20,0,0\n"
+                + "JAKR,07/02/20,4,50,1\nJAKR,07/02/20\nJAKR,02/29/20,4,-1\nJAKR,07/02/20,36601,0\n");
+        List<String> errors = new ArrayList<>();
+
+        RentalTermCsvParser.parse(buffer, 0, buffer.limit(), true, true, sink(new ArrayList<>(), new ArrayList<>(),
+                errors));
+
+        assertEquals(List.of(
+                "0: Discount Percent must be 100 or under",
+                "1: Please enter a valid tool code enum",
+                "2: Checkout date must be a valid MM/dd/yy date",
+                "3: Rental day count must be 1 or more",
+                "4: Expected toolCode,checkoutDate,rentalDayCount[,discountPercent]",
+                "5: Expected toolCode,checkoutDate,rentalDayCount[,discountPercent]",
+                "6: Discount Percent must be 0 or more",
+                "7: Rental day count must be 36600 or under"), errors);
+    }
+
+    @Test
+    public void testParse_chunksSplitAnywhere_readEveryLineOnce() {
+        StringBuilder csv = new StringBuilder("toolCode,checkoutDate,rentalDayCount,discountPercent\n");
+        for (int i = 0; i < 200; i++) {
+            csv.append(ToolCodeEnum.values()[i % 4]).append(",07/0").append(1 + i % 9).append("/20,")
+                    .append(1 + i).append(',').append(i % 101).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.US_ASCII);
+        List<RentalTerm> expected = new ArrayList<>();
+        RentalTermCsvParser.parse(ByteBuffer.wrap(bytes), 0, bytes.length, true, true,
+                sink(expected, new ArrayList<>(), null));
+
+        for (int chunkBytes : new int[]{1, 7, 19, 64, 1000}) {
+            List<RentalTerm> terms = new ArrayList<>();
+            int lineCount = 0;
+            for (int chunkStart = 0; chunkStart < bytes.length; chunkStart += chunkBytes) {
+                //Each chunk sees the byte before it and a little after it, as a mapped chunk does
+                int chunkEnd = Math.min(bytes.length, chunkStart + chunkBytes);
+                int mapStart = Math.max(0, chunkStart - 1);
+                int mapEnd = Math.min(bytes.length, chunkEnd + RentalTermCsvParser.MAX_LINE_BYTES + 2);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, mapStart, mapEnd - mapStart).slice();
+                int from = RentalTermCsvParser.firstLineStart(buffer, chunkStart - mapStart);
+                lineCount += RentalTermCsvParser.parse(buffer, from, chunkEnd - mapStart, mapEnd == bytes.length,
+                        chunkStart == 0, sink(terms, new ArrayList<>(), null));
+            }
+            assertEquals(201, lineCount);
+            assertEquals(expected, terms);
+        }
+        assertEquals(200, expected.size());
+    }
+
+    private static ByteBuffer bytes(final String csv) {
+        return ByteBuffer.wrap(csv.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static RentalTermCsvParser.Sink sink(final List<RentalTerm> terms, final List<Integer> lines,
+                                                 final List<String> errors) {
+        return new RentalTermCsvParser.Sink() {
+            @Override
+            public void term(final int line, final RentalTerm rentalTerm) {
+                terms.add(rentalTerm);
+                lines.add(line);
+            }
+
+            @Override
+            public void error(final int line, final String message) {
+                if (errors == null) {
+                    throw new AssertionError("line " + line + ": " + message);
+                }
+                errors.add(line + ": " + message);
+            }
+        };
+    }
+}
@@ -103,6 +103,16 @@ public class RentalTermPayloads {
     public static final RentalTerm LADW_30_DAYS =
             new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2025, 1, 1), 30, 15);
 
+    // Very long rental period - 36,500 days, 1/2/00 through 12/7/99
+// 26,071 weekdays and 10,429 weekend days, 200 holidays (all observed on weekdays)
+// Jackhammer: weekdays less holidays = 25,871
+// Ladder: every day less holidays = 36,300
+    public static final RentalTerm JAKD_100_YEARS =
+            new RentalTerm(ToolCodeEnum.JAKD, LocalDate.of(2000, 1, 1), 36500, 0);
+
+    public static final RentalTerm LADW_100_YEARS =
+            new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2000, 1, 1), 36500, 0);
+
 // ==================== HOLIDAY SPECIFIC TEST PAYLOADS ====================
 
     // Independence Day on weekday (Friday 7/4/25) - Chainsaw charged on holiday
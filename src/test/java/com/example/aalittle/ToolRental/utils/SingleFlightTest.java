@@ -0,0 +1,96 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testExecuteConcurrently_sharesOneComputation() throws Exception {
+        SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("LADW", key -> {
+                    computations.incrementAndGet();
+                    awaitQuietly(release);
+                    return new Object();
+                })));
+            }
+            //Hold the computation until every other caller is waiting on it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (singleFlight.getCoalescedCount() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, singleFlight.getComputedCount());
+            assertEquals(7, singleFlight.getCoalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecuteAfterComputationEnds_computesAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        assertEquals(1, singleFlight.execute("JAKD", key -> computations.incrementAndGet()));
+        assertEquals(2, singleFlight.execute("JAKD", key -> computations.incrementAndGet()));
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    public void testExecuteWhenComputationFails_rethrowsToEveryCaller() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("CHNS", key -> {
+            awaitQuietly(release);
+            throw new IllegalStateException("catalog unavailable");
+        }));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.getComputedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        //The leader is held, so the follower can only wait on its computation
+        CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute("CHNS", key -> 1));
+        while (singleFlight.getCoalescedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLruCacheTest {
+
+    @Test
+    public void testGet_repeatedKeyIsOnlyLoadedOnce() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(10, 4);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, String> loader = key -> key + "-" + loads.incrementAndGet();
+
+        assertEquals("a-1", cache.get("a", loader));
+        assertEquals("a-1", cache.get("a", loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testGet_overCapacityEvictsLeastRecentlyUsed() {
+        StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(2, 1);
+        cache.get(1, key -> key);
+        cache.get(2, key -> key);
+        cache.get(1, key -> key);
+        cache.get(3, key -> key);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        //2 was least recently used so it is loaded again, 1 is still cached
+        cache.get(1, key -> -1);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(-2, cache.get(2, key -> -key));
+    }
+
+    @Test
+    public void testGet_nullValueIsNotCached() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(10, 4);
+        assertNull(cache.get("a", key -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAll_removesEntries() {
+        StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(100, 8);
+        for (int i = 0; i < 50; i++) {
+            cache.get(i, key -> key);
+        }
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNewCache_withZeroSize_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLruCache<>(0, 4));
+    }
+
+    @Test
+    public void testGet_repeatedKeysAreFasterThanLoading() {
+        StripedLruCache<Integer, Long> cache = new StripedLruCache<>(1000, 4);
+        //Stands in for a quote calculation, a day by day walk of a long rental
+        Function<Integer, Long> slowLoader = key -> java.time.LocalDate.of(2000, 1, 1)
+                .datesUntil(java.time.LocalDate.of(2000, 1, 1).plusDays(20_000 + key))
+                .filter(date -> date.getDayOfWeek().getValue() < 6).count();
+
+        long missStart = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            cache.get(i, slowLoader);
+        }
+        long missNanos = System.nanoTime() - missStart;
+
+        long hitStart = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            cache.get(i, slowLoader);
+        }
+        long hitNanos = System.nanoTime() - hitStart;
+
+        assertEquals(200, cache.getHitCount());
+        assertTrue(hitNanos < missNanos, "Cached lookups should be faster than loading");
+    }
+}
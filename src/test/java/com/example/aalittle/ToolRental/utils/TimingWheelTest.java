@@ -0,0 +1,104 @@
+package com.example.aalittle.ToolRental.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testAdvanceTo_expiresOnDeadline() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(100);
+        timingWheel.schedule(101, "a");
+        timingWheel.schedule(164, "b");
+        timingWheel.schedule(100 + 5000, "c");
+        List<String> expired = new ArrayList<>();
+
+        assertEquals(0, timingWheel.advanceTo(100, expired::add));
+        assertEquals(1, timingWheel.advanceTo(163, expired::add));
+        assertEquals(List.of("a"), expired);
+        assertEquals(1, timingWheel.advanceTo(5099, expired::add));
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(1, timingWheel.advanceTo(5100, expired::add));
+        assertEquals(List.of("a", "b", "c"), expired);
+        assertEquals(0, timingWheel.size());
+        assertEquals(5100, timingWheel.getCurrentTick());
+    }
+
+    @Test
+    public void testSchedule_deadlineNotAfterCurrentTick_returnsNull() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(20_000);
+
+        assertNull(timingWheel.schedule(20_000, "due"));
+        assertNull(timingWheel.schedule(-5, "long gone"));
+        assertEquals(0, timingWheel.size());
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(-1));
+    }
+
+    @Test
+    public void testCancel_timerNeverExpires() {
+        TimingWheel<String> timingWheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> cancelled = timingWheel.schedule(10, "cancelled");
+        TimingWheel.Timer<String> kept = timingWheel.schedule(10, "kept");
+        List<String> expired = new ArrayList<>();
+
+        assertTrue(timingWheel.cancel(cancelled));
+        assertFalse(timingWheel.cancel(cancelled));
+        timingWheel.advanceTo(10, expired::add);
+
+        assertEquals(List.of("kept"), expired);
+        assertFalse(timingWheel.cancel(kept));
+    }
+
+    @Test
+    public void testAdvanceTo_randomDeadlines_matchesSortedDeadlines() {
+        Random random = new Random(22);
+        long start = 19_000;
+        TimingWheel<Long> timingWheel = new TimingWheel<>(start);
+        List<TimingWheel.Timer<Long>> timers = new ArrayList<>();
+        Set<Long> cancelled = new HashSet<>();
+        for (long id = 0; id < 20_000; id++) {
+            //Deadlines from a day to a few hundred thousand days out cross every level boundary used here
+            long deadline = start + 1 + (long) Math.pow(random.nextDouble(), 3) * 300_000;
+            timers.add(timingWheel.schedule(deadline, id));
+        }
+        for (int i = 0; i < 2_000; i++) {
+            TimingWheel.Timer<Long> timer = timers.get(random.nextInt(timers.size()));
+            if (timingWheel.cancel(timer)) {
+                cancelled.add(timer.getValue());
+            }
+        }
+
+        long tick = start;
+        List<Long> expired = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        while (tick < start + 300_001) {
+            tick += 1 + random.nextInt(5_000);
+            expired.clear();
+            timingWheel.advanceTo(tick, expired::add);
+            long lastDeadline = Long.MIN_VALUE;
+            for (long id : expired) {
+                long deadline = timers.get((int) id).getDeadline();
+                assertTrue(deadline <= tick);
+                assertTrue(deadline >= lastDeadline);
+                assertFalse(cancelled.contains(id));
+                assertTrue(seen.add(id));
+                lastDeadline = deadline;
+            }
+            for (TimingWheel.Timer<Long> timer : timers) {
+                //Everything due by now has gone, nothing later has
+                if (!cancelled.contains(timer.getValue())) {
+                    assertEquals(timer.getDeadline() <= tick, seen.contains(timer.getValue()));
+                }
+            }
+        }
+        assertEquals(timers.size() - cancelled.size(), seen.size());
+        assertEquals(0, timingWheel.size());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.aalittle.ToolRental.utils;
+
+import com.example.aalittle.ToolRental.enums.ToolBrandEnum;
+import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.enums.ToolTypeEnum;
+import com.example.aalittle.ToolRental.model.ToolData;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToolCatalogTest {
+
+    private static final String CATALOG = """
+            # toolCode,toolType,toolBrand,dailyCharge,weekdayCharge,weekendCharge,holidayCharge
+            CHNS,CHAINSAW,STIHL,1.49,true,false,true
+
+            LADW,LADDER,WERNER,1.99,true,true,false
+            SKU-1,LADDER,WERNER,1.99,true,true,false
+            """;
+
+    @Test
+    public void testRead_findsToolsByCodeAndToolCode() throws IOException {
+        ToolCatalog toolCatalog = ToolCatalog.read(new BufferedReader(new StringReader(CATALOG)), 3);
+
+        assertEquals(3, toolCatalog.size());
+        assertEquals(3, toolCatalog.getVersion());
+        ToolData chainsaw = toolCatalog.find(ToolCodeEnum.CHNS);
+        assertEquals(ToolTypeEnum.CHAINSAW, chainsaw.getToolType());
+        assertEquals(ToolBrandEnum.STIHL, chainsaw.getToolBrand());
+        assertEquals(BigDecimal.valueOf(1.49), chainsaw.getDailyCharge());
+        assertTrue(chainsaw.isHolidayCharge());
+        assertSame(chainsaw, toolCatalog.find("CHNS"));
+        assertSame(toolCatalog.find("LADW").getDailyCharge(), toolCatalog.find("SKU-1").getDailyCharge());
+        assertNull(toolCatalog.find(ToolCodeEnum.JAKD));
+        assertNull(toolCatalog.find("SKU-2"));
+    }
+
+    @Test
+    public void testRead_chargeableDaysColumn_setsMask() throws IOException {
+        String catalog = "CHNS,CHAINSAW,STIHL,1.49,MTWT--S,true\nLADW,LADDER,WERNER,1.99,true,true,false\n";
+
+        ToolCatalog toolCatalog = ToolCatalog.read(new BufferedReader(new StringReader(catalog)), 1);
+
+        assertEquals(0b1001111, toolCatalog.find(ToolCodeEnum.CHNS).getChargeableDayMask());
+        assertTrue(toolCatalog.find(ToolCodeEnum.CHNS).isHolidayCharge());
+        assertEquals(ChargeableDayUtils.ALL_DAYS_MASK, toolCatalog.find(ToolCodeEnum.LADW).getChargeableDayMask());
+        assertFalse(toolCatalog.find(ToolCodeEnum.LADW).isHolidayCharge());
+    }
+
+    @Test
+    public void testRead_pricingRulesColumn_compilesRules() throws IOException {
+        String catalog = "CHNS,CHAINSAW,STIHL,1.49,MTWTF--,true,WEEKEND_MULTIPLIER:1.5;MINIMUM_CHARGE:4.99\n"
+                + "LADW,LADDER,WERNER,1.99,MTWTFSS,false,\n"
+                + "JAKD,JACKHAMMER,DEWALT,2.99,true,false,false\n";
+
+        ToolCatalog toolCatalog = ToolCatalog.read(new BufferedReader(new StringReader(catalog)), 1);
+
+        ToolData chainsaw = toolCatalog.find(ToolCodeEnum.CHNS);
+        assertEquals(PricingPlan.parseRules("WEEKEND_MULTIPLIER:1.5;MINIMUM_CHARGE:4.99"), chainsaw.getPricingRules());
+        assertTrue(chainsaw.getPricingPlan().needsWeekendDays());
+        assertTrue(toolCatalog.find(ToolCodeEnum.LADW).getPricingRules().isEmpty());
+        assertEquals(ChargeableDayUtils.WEEKDAYS_MASK, toolCatalog.find(ToolCodeEnum.JAKD).getChargeableDayMask());
+        assertTrue(toolCatalog.find(ToolCodeEnum.JAKD).getPricingRules().isEmpty());
+    }
+
+    @Test
+    public void testRead_invalidPricingRule_namesLine() {
+        String catalog = "CHNS,CHAINSAW,STIHL,1.49,MTWTF--,true,MINIMUM_CHARGE:1.00;MINIMUM_CHARGE:2.00\n";
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new BufferedReader(new StringReader(catalog)), 1));
+        assertTrue(exception.getMessage().startsWith("Tool catalog line 1"));
+    }
+
+    @Test
+    public void testRead_invalidLine_namesLine() {
+        String catalog = "CHNS,CHAINSAW,STIHL,1.49,true,false,true\nLADW,LADDER,ACME,1.99,true,true,false\n";
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new BufferedReader(new StringReader(catalog)), 1));
+        assertTrue(exception.getMessage().startsWith("Tool catalog line 2"));
+    }
+
+    @Test
+    public void testRead_wrongColumnCount_namesBothLayouts() {
+        String catalog = "CHNS,CHAINSAW,STIHL,1.49,MTWTF--\n";
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new BufferedReader(new StringReader(catalog)), 1));
+        assertTrue(exception.getMessage().contains("chargeableDays,holidayCharge[,pricingRules]"));
+        assertTrue(exception.getMessage().contains("weekdayCharge,weekendCharge,holidayCharge"));
+    }
+
+    @Test
+    public void testWith_leavesOriginalCatalogUnchanged() throws IOException {
+        ToolCatalog toolCatalog = ToolCatalog.read(new BufferedReader(new StringReader(CATALOG)), 1);
+        ToolData jackhammer = new ToolData(ToolTypeEnum.JACKHAMMER, ToolBrandEnum.DEWALT, BigDecimal.valueOf(2.99),
+                true, false, false);
+
+        ToolCatalog updated = toolCatalog.with(ToolCodeEnum.JAKD.name(), jackhammer, 2);
+
+        assertNull(toolCatalog.find(ToolCodeEnum.JAKD));
+        assertSame(jackhammer, updated.find(ToolCodeEnum.JAKD));
+        assertEquals(4, updated.size());
+        assertEquals(2, updated.getVersion());
+    }
+
+    @Test
+    public void testLargeCatalog_findsEveryTool() {
+        Map<String, ToolData> tools = new LinkedHashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            tools.put("SKU" + i, new ToolData(ToolTypeEnum.LADDER, ToolBrandEnum.WERNER,
+                    BigDecimal.valueOf(i % 1000, 2), true, true, false));
+        }
+
+        ToolCatalog toolCatalog = ToolCatalog.of(tools, 1);
+
+        assertEquals(100_000, toolCatalog.size());
+        tools.forEach((code, toolData) -> assertSame(toolData, toolCatalog.find(code)));
+        assertNull(toolCatalog.find("SKU100000"));
+    }
+
+    @Test
+    public void testMissingToolCodes_listsToolsWithoutLine() throws IOException {
+        ToolCatalog toolCatalog = ToolCatalog.read(new BufferedReader(new StringReader(CATALOG)), 1);
+
+        assertEquals(List.of(ToolCodeEnum.JAKD, ToolCodeEnum.JAKR), toolCatalog.missingToolCodes());
+    }
+}
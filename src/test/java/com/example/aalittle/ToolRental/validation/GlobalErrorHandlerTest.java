@@ -1,6 +1,7 @@
 package com.example.aalittle.ToolRental.validation;
 
 import com.example.aalittle.ToolRental.enums.ToolCodeEnum;
+import com.example.aalittle.ToolRental.model.CheckoutSearchTerm;
 import com.example.aalittle.ToolRental.model.RentalTerm;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
@@ -95,6 +96,21 @@ class GlobalErrorHandlerTest {
                 .anyMatch(v -> v.getMessage().contains("Rental day count must be 1 or more")));
     }
 
+    @Test
+    public void testRentalDays_OverMaximum_IsInvalid() {
+        RentalTerm term = new RentalTerm(
+                ToolCodeEnum.LADW,
+                LocalDate.of(2024, 6, 3),
+                Integer.MAX_VALUE, // invalid!
+                10
+        );
+        Set<ConstraintViolation<RentalTerm>> violations = validator.validate(term);
+        assertEquals(1, violations.size());
+        assertEquals("Rental day count must be 36600 or under", violations.iterator().next().getMessage());
+        assertTrue(validator.validate(new RentalTerm(ToolCodeEnum.LADW, LocalDate.of(2024, 6, 3),
+                RentalTerm.MAX_RENTAL_DAY_COUNT, 10)).isEmpty());
+    }
+
     @Test
     public void testDiscount_TooHigh_IsInvalid() {
         RentalTerm term = new RentalTerm(
@@ -187,4 +203,32 @@ class GlobalErrorHandlerTest {
         assertFalse(violations.isEmpty(), "Multiple violations should be captured");
         assertTrue(violations.size() >= 4, "Should have at least 4 violations");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCheckoutSearch_rentalDaysOverMaximum_IsInvalid() {
+        CheckoutSearchTerm term = new CheckoutSearchTerm(
+                ToolCodeEnum.LADW,
+                LocalDate.of(2024, 6, 3),
+                30,
+                Integer.MAX_VALUE,
+                10,
+                null
+        );
+        Set<ConstraintViolation<CheckoutSearchTerm>> violations = validator.validate(term);
+        assertEquals(1, violations.size());
+        assertEquals("Rental day count must be 3660 or under", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    public void testCheckoutSearch_rentalDaysAtMaximum_NoViolations() {
+        CheckoutSearchTerm term = new CheckoutSearchTerm(
+                ToolCodeEnum.LADW,
+                LocalDate.of(2024, 6, 3),
+                3660,
+                3660,
+                10,
+                null
+        );
+        assertTrue(validator.validate(term).isEmpty());
+    }
+}